@@ -0,0 +1,24 @@
+#!/bin/bash
+
+# Fast Startup Runner Script
+echo "Starting Tradestar in Production Environment with fast startup..."
+
+# Set Spring Profiles: production settings plus the fast startup ones
+export SPRING_PROFILES_ACTIVE=prod,faststart
+
+# Set Database Configuration
+export POSTGRES_URL="jdbc:postgresql://localhost:5432/tradestar"
+export POSTGRES_USER="tradestar_user"
+# Note: In actual production deployment, password should be securely managed
+export POSTGRES_PASSWORD="your_secure_password"
+
+# Set JWT Secret
+export JWT_SECRET="your_production_jwt_secret"
+
+# Build with AOT processing and record the class data sharing archive (see the faststart profile in pom.xml)
+./mvnw clean package -Pfaststart -DskipTests
+
+# The classpath must be the one the archive was recorded with
+FASTSTART_DIR="$(pwd)/target/faststart"
+java -XX:SharedArchiveFile="$FASTSTART_DIR/tradestar.jsa" -Dspring.aot.enabled=true -Xms512m -Xmx1024m \
+    -cp "$(pwd)/target/classes:$FASTSTART_DIR/lib/*" com.umi.tradestar.TradestarApplication
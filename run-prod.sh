@@ -15,6 +15,23 @@ export POSTGRES_PASSWORD="your_secure_password"
 # Set JWT Secret
 export JWT_SECRET="your_production_jwt_secret"
 
+# Garbage collector: zgc (default), shenandoah or g1
+# ZGC and Shenandoah do their work concurrently and keep pauses around a millisecond whatever the heap
+# size, at the cost of some throughput and headroom; G1 is the JVM default.
+TRADESTAR_GC="${TRADESTAR_GC:-zgc}"
+case "$TRADESTAR_GC" in
+    zgc)        GC_OPTS="-XX:+UseZGC" ;;
+    shenandoah) GC_OPTS="-XX:+UseShenandoahGC" ;;
+    g1)         GC_OPTS="-XX:+UseG1GC -XX:MaxGCPauseMillis=50" ;;
+    *)          echo "Unknown TRADESTAR_GC $TRADESTAR_GC, expected zgc, shenandoah or g1"; exit 1 ;;
+esac
+
+# A fixed heap avoids resizing pauses; concurrent collectors need headroom above the live set.
+# Every pause is logged with its duration, rotated over five 20MB files.
+mkdir -p logs
+JVM_OPTS="-Xms1g -Xmx1g -XX:+AlwaysPreTouch $GC_OPTS \
+    -Xlog:gc*,safepoint:file=logs/gc-$TRADESTAR_GC.log:time,uptime,level,tags:filecount=5,filesize=20m"
+
 # Run the application using Maven with production optimizations
 ./mvnw clean package -DskipTests
-java -jar -Xms512m -Xmx1024m target/tradestar-*.jar
\ No newline at end of file
+java -jar $JVM_OPTS target/tradestar-*.jar
@@ -0,0 +1,53 @@
+package com.umi.tradestar.benchmark;
+
+import com.umi.tradestar.audit.AuditEventType;
+import com.umi.tradestar.audit.AuditLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audit events recorded from four request threads with the writer compressing to a temporary directory.
+ * Throughput above the writer's rate only fills the queue, so compare {@code written} with the
+ * operation count: the writer keeps up as long as the dropped count stays at zero.
+ *
+ * @author VrushankPatel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class AuditLogBenchmark {
+
+    private Path directory;
+    private AuditLog auditLog;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("audit-benchmark");
+        auditLog = new AuditLog(directory, 1 << 20, 65_536, 128L << 20, 200);
+        auditLog.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        auditLog.stop();
+        System.out.printf("%n  written %d, dropped %d%n", auditLog.getWritten(), auditLog.getDropped());
+    }
+
+    @State(Scope.Thread)
+    public static class Trader {
+        long traderId = Thread.currentThread().getId();
+    }
+
+    @Benchmark
+    public void record(Trader trader) {
+        auditLog.record(AuditEventType.ORDER_ACCEPT, trader.traderId, "CL-1700000000000");
+    }
+}
@@ -0,0 +1,83 @@
+package com.umi.tradestar.benchmark;
+
+import com.umi.tradestar.metrics.TradestarMetrics;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderStatus;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.model.enums.Role;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.security.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Shared test data for the benchmarks.
+ *
+ * @author VrushankPatel
+ */
+final class BenchmarkFixtures {
+
+    // Same 512-bit key as application.properties
+    static final String JWT_SECRET = "NjM3NTM4NzgyRjQxM0Y0NDI4NDcyQjRCNjI1MDY0NTM2NzU2NkI1OTcwNDA0RTYzNTI2NjU1NkE1ODZFMTI3MjM1NzUzODc4MkY0MTNGNDI4NDcyQjRCNjI1MDY0NTM2NzU2NkI1OTcw";
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtService jwtService() {
+        JwtService jwtService = new JwtService(new TradestarMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(jwtService, "secretKey", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86_400_000L);
+        return jwtService;
+    }
+
+    static SymbolRegistry symbolRegistry() throws IOException {
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream("/reference/symbols.csv")) {
+            return SymbolRegistry.load(in);
+        }
+    }
+
+    static User trader(Long id, String email) {
+        return User.builder()
+                .id(id)
+                .email(email)
+                .firstName("Bench")
+                .lastName("Trader")
+                .password("$2a$10$abcdefghijklmnopqrstuuFvYjfE0bIHbqZ6dSEbWcwZD8vNydf4u")
+                .role(Role.TRADER)
+                .enabled(true)
+                .build();
+    }
+
+    static Order newOrder(String symbol) {
+        Order order = new Order();
+        order.setSymbol(symbol);
+        order.setSide(OrderSide.BUY);
+        order.setOrderType(OrderType.LIMIT);
+        order.setQuantity(new BigDecimal("100"));
+        order.setPrice(new BigDecimal("187.25"));
+        return order;
+    }
+
+    static Order acceptedOrder(User trader) {
+        Order order = newOrder("AAPL");
+        order.setId(42L);
+        order.setSymbolId(0);
+        order.setOrderId(UUID.randomUUID().toString());
+        order.setTrader(trader);
+        order.setStatus(OrderStatus.NEW);
+        order.setFilledQuantity(BigDecimal.ZERO);
+        order.setAveragePrice(BigDecimal.ZERO);
+        order.setCreatedAt(LocalDateTime.now());
+        order.setUpdatedAt(LocalDateTime.now());
+        order.setFixMessage("8=FIX.4.4|9=148|35=D|34=1080|49=TESTBUY1|52=20180920-18:14:19.508|56=TESTSELL1|11=636730640278898634|15=USD|21=2|38=100|40=2|44=187.25|54=1|55=AAPL|60=20180920-18:14:19.492|10=092|");
+        return order;
+    }
+}
@@ -0,0 +1,78 @@
+package com.umi.tradestar.benchmark;
+
+import com.umi.tradestar.auction.CallAuction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uncrossing a call auction book of one million orders over AAPL's 99,901 price levels
+ * (1.00 to 1000.00 in 0.01 ticks), with limit prices spread around 150.00 and 2% market orders.
+ *
+ * @author VrushankPatel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class CallAuctionBenchmark {
+
+    private static final int LEVELS = 99_901;
+    private static final int MID_LEVEL = 14_900;
+
+    @Param("1000000")
+    private int orders;
+
+    private boolean[] sides;
+    private int[] levels;
+    private long[] quantities;
+    private CallAuction loaded;
+    private CallAuction reused;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        sides = new boolean[orders];
+        levels = new int[orders];
+        quantities = new long[orders];
+        for (int i = 0; i < orders; i++) {
+            sides[i] = random.nextBoolean();
+            // Buyers bid a little above mid and sellers offer a little below it, so the book crosses
+            int offset = (int) (random.nextGaussian() * 200) + (sides[i] ? 20 : -20);
+            levels[i] = random.nextInt(50) == 0 ? CallAuction.MARKET : Math.max(0, Math.min(LEVELS - 1, MID_LEVEL + offset));
+            quantities[i] = (1 + random.nextInt(10)) * 100L;
+        }
+        loaded = new CallAuction(LEVELS, orders);
+        load(loaded);
+        reused = new CallAuction(LEVELS, orders);
+    }
+
+    /**
+     * Equilibrium search and fill allocation on an already loaded book.
+     */
+    @Benchmark
+    public long uncross() {
+        loaded.uncross(CallAuction.NO_REFERENCE);
+        return loaded.getVolume();
+    }
+
+    /**
+     * Loading all orders into a cleared book, then uncrossing it.
+     */
+    @Benchmark
+    public long loadAndUncross() {
+        reused.clear();
+        load(reused);
+        reused.uncross(CallAuction.NO_REFERENCE);
+        return reused.getVolume();
+    }
+
+    private void load(CallAuction auction) {
+        for (int i = 0; i < orders; i++) {
+            auction.add(sides[i], levels[i], quantities[i]);
+        }
+    }
+}
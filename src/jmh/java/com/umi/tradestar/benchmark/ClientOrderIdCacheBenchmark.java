@@ -0,0 +1,45 @@
+package com.umi.tradestar.benchmark;
+
+import com.umi.tradestar.dedup.ClientOrderIdCache;
+import com.umi.tradestar.model.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dedup lookup of a resubmitted client order id in a window holding a million ids.
+ *
+ * @author VrushankPatel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientOrderIdCacheBenchmark {
+
+    private static final int IDS = 1 << 20;
+
+    private ClientOrderIdCache cache;
+    private String[] ids;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cache = new ClientOrderIdCache(TimeUnit.HOURS.toMillis(1), 1_000, 0);
+        ids = new String[IDS];
+        for (int i = 0; i < IDS; i++) {
+            ids[i] = "CL-" + (1_000_000_000L + i * 7919L);
+            cache.claim(ids[i], 1L);
+            cache.settle(ids[i], 1L, Order.builder().id((long) i).orderId(ids[i]).build());
+        }
+    }
+
+    @Benchmark
+    public Order resubmission() {
+        // A fresh String each time, as it would be after parsing a request, so its hash is not cached
+        String id = new String(ids[next++ & (IDS - 1)]);
+        return cache.claim(id, 1L);
+    }
+}
@@ -0,0 +1,49 @@
+package com.umi.tradestar.benchmark;
+
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.security.JwtAuthenticationFilter;
+import com.umi.tradestar.security.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JWT filter end to end: header parsing, token validation, user lookup and security context setup.
+ * The user lookup is an in-memory stub so the benchmark measures the filter rather than the database.
+ *
+ * @author VrushankPatel
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = BenchmarkFixtures.jwtService();
+        User user = BenchmarkFixtures.trader(1L, "trader@example.com");
+        filter = new JwtAuthenticationFilter(jwtService, username -> user);
+
+        request = new MockHttpServletRequest("POST", "/api/v1/orders");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken(user));
+    }
+
+    @Benchmark
+    public Object authenticatedRequest() throws Exception {
+        SecurityContextHolder.clearContext();
+        // OncePerRequestFilter marks the request as filtered; clear the marker so every invocation runs the filter
+        request.removeAttribute(JwtAuthenticationFilter.class.getName() + ".FILTERED");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,51 @@
+package com.umi.tradestar.benchmark;
+
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.simulator.OrderFlowGenerator;
+import com.umi.tradestar.simulator.OrderFlowProfile;
+import com.umi.tradestar.simulator.OrderFlowSink;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Synthetic order flow generation into a sink that only consumes the events; one op is one event.
+ *
+ * @author VrushankPatel
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderFlowGeneratorBenchmark {
+
+    private OrderFlowGenerator generator;
+    private OrderFlowSink sink;
+
+    @Setup
+    public void setUp(Blackhole blackhole) throws IOException {
+        generator = new OrderFlowGenerator(OrderFlowProfile.builder().build(), BenchmarkFixtures.symbolRegistry());
+        sink = new OrderFlowSink() {
+            @Override
+            public void onNewOrder(long timestampNanos, long orderSeq, int symbolId, OrderSide side, OrderType type,
+                                   int priceLevel, long lots) {
+                blackhole.consume(priceLevel + lots);
+            }
+
+            @Override
+            public void onCancel(long timestampNanos, long orderSeq) {
+                blackhole.consume(orderSeq);
+            }
+        };
+    }
+
+    @Benchmark
+    public long nextEvent() {
+        return generator.next(sink);
+    }
+}
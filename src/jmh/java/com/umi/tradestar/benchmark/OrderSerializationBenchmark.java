@@ -0,0 +1,70 @@
+package com.umi.tradestar.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.web.dto.OrderResponse;
+import com.umi.tradestar.web.mapper.OrderMapper;
+import com.umi.tradestar.web.mapper.OrderMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of {@link Order} with the same object mapper defaults Spring MVC uses,
+ * against the {@link OrderResponse} DTO the order endpoints return, as JSON and CBOR with Blackbird.
+ * Payload sizes are printed once per fork.
+ *
+ * @author VrushankPatel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper responseJsonMapper;
+    private ObjectMapper responseCborMapper;
+    private OrderMapper orderMapper;
+    private Order order;
+    private byte[] requestJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        responseJsonMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+        responseCborMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule())
+                .factory(new CBORFactory()).build();
+        orderMapper = new OrderMapperImpl(BenchmarkFixtures.symbolRegistry());
+        order = BenchmarkFixtures.acceptedOrder(BenchmarkFixtures.trader(1L, "trader@example.com"));
+        requestJson = objectMapper.writeValueAsBytes(BenchmarkFixtures.newOrder("AAPL"));
+
+        System.out.printf("%nBytes per order: entity JSON %d, response JSON %d, response CBOR %d%n",
+                serializeOrder().length, serializeResponseJson().length, serializeResponseCbor().length);
+    }
+
+    @Benchmark
+    public byte[] serializeOrder() throws Exception {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] serializeResponseJson() throws Exception {
+        return responseJsonMapper.writeValueAsBytes(orderMapper.toResponse(order));
+    }
+
+    @Benchmark
+    public byte[] serializeResponseCbor() throws Exception {
+        return responseCborMapper.writeValueAsBytes(orderMapper.toResponse(order));
+    }
+
+    @Benchmark
+    public Order deserializeOrderRequest() throws Exception {
+        return objectMapper.readValue(requestJson, Order.class);
+    }
+}
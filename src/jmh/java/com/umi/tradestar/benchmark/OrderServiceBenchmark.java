@@ -0,0 +1,85 @@
+package com.umi.tradestar.benchmark;
+
+import com.umi.tradestar.TradestarApplication;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.Role;
+import com.umi.tradestar.repository.UserRepository;
+import com.umi.tradestar.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order creation and cancellation through the Spring-managed {@link OrderService} against in-memory H2,
+ * including transactions and Hibernate flushes.
+ *
+ * @author VrushankPatel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private User trader;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TradestarApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.umi.tradestar=WARN",
+                        "spring.main.banner-mode=off")
+                .run();
+        orderService = context.getBean(OrderService.class);
+        trader = context.getBean(UserRepository.class).save(User.builder()
+                .email("bench-trader@example.com")
+                .firstName("Bench")
+                .lastName("Trader")
+                .password("not-used")
+                .role(Role.TRADER)
+                .enabled(true)
+                .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class TraderSession {
+        @Setup
+        public void authenticate(OrderServiceBenchmark benchmark) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    benchmark.trader, null, benchmark.trader.getAuthorities()));
+        }
+    }
+
+    @Benchmark
+    public Order createOrder(TraderSession session) {
+        return orderService.createOrder(BenchmarkFixtures.newOrder("AAPL"));
+    }
+
+    /**
+     * A cancel needs an open order, so this measures create plus cancel; subtract {@link #createOrder}.
+     */
+    @Benchmark
+    public Order createAndCancelOrder(TraderSession session) {
+        Order order = orderService.createOrder(BenchmarkFixtures.newOrder("AAPL"));
+        return orderService.cancelOrder(order.getId());
+    }
+}
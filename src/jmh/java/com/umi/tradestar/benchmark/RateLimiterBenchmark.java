@@ -0,0 +1,49 @@
+package com.umi.tradestar.benchmark;
+
+import com.umi.tradestar.model.enums.Role;
+import com.umi.tradestar.ratelimit.RateLimit;
+import com.umi.tradestar.ratelimit.RateLimitedEndpoint;
+import com.umi.tradestar.ratelimit.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit check of an order entry request, for a trader among a hundred thousand tracked ones.
+ *
+ * @author VrushankPatel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int TRADERS = 100_000;
+
+    private RateLimiter limiter;
+    private String[] traders;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        limiter = new RateLimiter(RateLimit.parseByRole("TRADER=1000000/1000000"),
+                Map.of(RateLimitedEndpoint.ORDER_ENTRY, RateLimit.parseByRole("TRADER=1000000/1000000")),
+                TRADERS * 2, TimeUnit.HOURS.toMillis(1), 0);
+        traders = new String[TRADERS];
+        for (int i = 0; i < TRADERS; i++) {
+            traders[i] = "trader" + i + "@example.com";
+            limiter.tryAcquire(traders[i], Role.TRADER, RateLimitedEndpoint.ORDER_ENTRY);
+        }
+    }
+
+    @Benchmark
+    public long orderEntry() {
+        // A fresh String each time, as it would be after parsing a token, so its hash is not cached
+        String trader = new String(traders[next++ % TRADERS]);
+        return limiter.tryAcquire(trader, Role.TRADER, RateLimitedEndpoint.ORDER_ENTRY);
+    }
+}
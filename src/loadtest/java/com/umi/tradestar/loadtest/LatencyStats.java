@@ -0,0 +1,67 @@
+package com.umi.tradestar.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome statistics of one request type.
+ *
+ * Response time is measured from the moment the request was scheduled to be sent, not from when it
+ * was actually sent. A stalled server therefore shows up as latency for every request that should
+ * have gone out during the stall, which corrects for coordinated omission. Service time, measured
+ * from the actual send, is kept alongside so the size of the correction is visible. Requests dropped
+ * over the in-flight limit were never sent, so they count towards response time and failures only.
+ *
+ * @author VrushankPatel
+ */
+final class LatencyStats {
+
+    private final String name;
+    private final Recorder responseTime = new Recorder(3);
+    private final Recorder serviceTime = new Recorder(3);
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    LatencyStats(String name) {
+        this.name = name;
+    }
+
+    void record(long intendedNanos, long sentNanos, long completedNanos, boolean success) {
+        responseTime.recordValue(Math.max(0, (completedNanos - intendedNanos) / 1_000));
+        serviceTime.recordValue(Math.max(0, (completedNanos - sentNanos) / 1_000));
+        if (success) {
+            succeeded.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    void recordDropped(long intendedNanos, long slotFreedNanos) {
+        responseTime.recordValue(Math.max(0, (slotFreedNanos - intendedNanos) / 1_000));
+        failed.increment();
+    }
+
+    void print(PrintStream out, double measuredSeconds) {
+        Histogram response = responseTime.getIntervalHistogram();
+        Histogram service = serviceTime.getIntervalHistogram();
+        out.printf("%-10s ok=%d failed=%d throughput=%.1f/s%n",
+                name, succeeded.sum(), failed.sum(), succeeded.sum() / measuredSeconds);
+        printPercentiles(out, "response", response);
+        printPercentiles(out, "service", service);
+    }
+
+    private static void printPercentiles(PrintStream out, String label, Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            out.printf("  %-9s no samples%n", label);
+            return;
+        }
+        out.printf("  %-9s p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n", label,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+}
@@ -0,0 +1,282 @@
+package com.umi.tradestar.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.umi.tradestar.TradestarApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the order and authentication endpoints.
+ *
+ * Requests are scheduled at a fixed rate and sent asynchronously, so a slow server does not slow
+ * down the generator the way a closed loop of blocking clients would. Traders are registered and
+ * logged in through {@code AuthenticationController} before the run starts.
+ *
+ * A request due while {@code --max-in-flight} requests are outstanding is not sent. It still counts
+ * as a failure, with a response time from its scheduled send until an outstanding request completes
+ * and frees a slot, so a saturated server cannot hide its backlog by making the generator skip sends.
+ *
+ * @author VrushankPatel
+ */
+public final class LoadTestHarness {
+
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "GOOG", "AMZN", "TSLA"};
+    private static final String PASSWORD = "LoadTest#123";
+
+    private final LoadTestOptions options;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final Queue<DroppedSend> awaitingSlot = new ConcurrentLinkedQueue<>();
+    private final LatencyStats createStats = new LatencyStats("create");
+    private final LatencyStats cancelStats = new LatencyStats("cancel");
+    private final LatencyStats authStats = new LatencyStats("auth");
+
+    private LoadTestHarness(LoadTestOptions options, String baseUrl, ExecutorService ioExecutor) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .executor(ioExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext application = null;
+        String baseUrl = options.target;
+        if (baseUrl == null) {
+            application = startEmbedded();
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+        }
+
+        ExecutorService ioExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            new LoadTestHarness(options, baseUrl, ioExecutor).run();
+        } finally {
+            ioExecutor.shutdownNow();
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startEmbedded() {
+        return new SpringApplicationBuilder(TradestarApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "logging.level.com.umi.tradestar=WARN",
+                        "logging.level.org.springframework.security=WARN")
+                .run();
+    }
+
+    private void run() throws Exception {
+        List<Trader> traders = logIn(options.traders);
+        System.out.printf("Target %s, %d traders, %s at %d req/s for %ds after %ds warmup%n",
+                baseUrl, traders.size(), options.scenario, options.rate, options.durationSeconds, options.warmupSeconds);
+
+        SplittableRandom random = new SplittableRandom(options.seed);
+        long intervalNanos = 1_000_000_000L / options.rate;
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmupSeconds * 1_000_000_000L;
+        long end = measureFrom + options.durationSeconds * 1_000_000_000L;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            waitUntil(intended);
+            Trader trader = traders.get(random.nextInt(traders.size()));
+            boolean measured = intended >= measureFrom;
+            LatencyStats stats;
+            if (options.scenario == LoadTestOptions.Scenario.AUTH) {
+                stats = authStats;
+            } else if (random.nextDouble() < options.cancelRatio && !trader.openOrders.isEmpty()) {
+                stats = cancelStats;
+            } else {
+                stats = createStats;
+            }
+            if (inFlight.get() >= options.maxInFlight) {
+                dropped.increment();
+                if (measured) {
+                    // Recorded once a slot frees, see recordDropped
+                    awaitingSlot.add(new DroppedSend(intended, stats));
+                }
+                continue;
+            }
+            if (stats == authStats) {
+                send(authenticateRequest(trader.email), intended, measured ? authStats : null, null);
+            } else if (stats == cancelStats) {
+                Long orderId = trader.openOrders.poll();
+                if (orderId != null) {
+                    send(cancelRequest(trader, orderId), intended, measured ? cancelStats : null, null);
+                }
+            } else {
+                send(createRequest(trader, SYMBOLS[random.nextInt(SYMBOLS.length)], random), intended,
+                        measured ? createStats : null, trader);
+            }
+        }
+
+        long drainDeadline = System.nanoTime() + 30_000_000_000L;
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        // No slot freed before the run ended; their wait lasted at least until now
+        recordDropped(System.nanoTime());
+
+        double measuredSeconds = options.durationSeconds;
+        System.out.printf("%nResults over %ds (latency in ms, response time includes queueing from the scheduled send time)%n",
+                options.durationSeconds);
+        if (options.scenario == LoadTestOptions.Scenario.AUTH) {
+            authStats.print(System.out, measuredSeconds);
+        } else {
+            createStats.print(System.out, measuredSeconds);
+            cancelStats.print(System.out, measuredSeconds);
+        }
+        System.out.printf("dropped=%d (over max in-flight, counted as failed) still-in-flight=%d%n",
+                dropped.sum(), inFlight.get());
+    }
+
+    private void send(HttpRequest request, long intended, LatencyStats stats, Trader orderOwner) {
+        inFlight.incrementAndGet();
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, error) -> {
+            long completed = System.nanoTime();
+            inFlight.decrementAndGet();
+            recordDropped(completed);
+            boolean success = error == null && response.statusCode() == 200;
+            if (stats != null) {
+                stats.record(intended, sent, completed, success);
+            }
+            if (success && orderOwner != null) {
+                rememberOrder(orderOwner, response.body());
+            }
+        });
+    }
+
+    /**
+     * Record the sends dropped so far as failures that waited from their scheduled time until
+     * {@code slotFreed}.
+     */
+    private void recordDropped(long slotFreed) {
+        DroppedSend send;
+        while ((send = awaitingSlot.poll()) != null) {
+            send.stats.recordDropped(send.intended, slotFreed);
+        }
+    }
+
+    private void rememberOrder(Trader trader, byte[] body) {
+        try {
+            JsonNode id = objectMapper.readTree(body).get("id");
+            if (id != null) {
+                trader.openOrders.add(id.asLong());
+            }
+        } catch (IOException ex) {
+            // Not an order response; nothing to cancel later
+        }
+    }
+
+    private List<Trader> logIn(int count) throws IOException, InterruptedException {
+        List<Trader> traders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String email = "loadtest-trader-" + i + "@example.com";
+            // Registration fails harmlessly if the trader already exists on a long-running target
+            client.send(post("/api/v1/auth/register", null, String.format(
+                    "{\"firstName\":\"Load\",\"lastName\":\"Trader%d\",\"email\":\"%s\",\"password\":\"%s\"}",
+                    i, email, PASSWORD)), HttpResponse.BodyHandlers.discarding());
+            HttpResponse<byte[]> response = client.send(authenticateRequest(email), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Could not log in " + email + ": HTTP " + response.statusCode());
+            }
+            traders.add(new Trader(email, objectMapper.readTree(response.body()).get("token").asText()));
+        }
+        return traders;
+    }
+
+    private HttpRequest authenticateRequest(String email) {
+        return post("/api/v1/auth/authenticate", null,
+                String.format("{\"email\":\"%s\",\"password\":\"%s\"}", email, PASSWORD));
+    }
+
+    private HttpRequest createRequest(Trader trader, String symbol, SplittableRandom random) {
+        boolean buy = random.nextBoolean();
+        int quantity = (1 + random.nextInt(10)) * 100;
+        double price = 100 + random.nextInt(2_000) / 100.0;
+        return post("/api/v1/orders", trader.token, String.format(Locale.ROOT,
+                "{\"symbol\":\"%s\",\"side\":\"%s\",\"orderType\":\"LIMIT\",\"quantity\":%d,\"price\":%.2f}",
+                symbol, buy ? "BUY" : "SELL", quantity, price));
+    }
+
+    private HttpRequest cancelRequest(Trader trader, long orderId) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/orders/" + orderId))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + trader.token)
+                .DELETE()
+                .build();
+    }
+
+    private HttpRequest post(String path, String token, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            // Park for most of the gap and spin the last bit; parkNanos alone overshoots by ~50us
+            if (remaining > 100_000) {
+                LockSupport.parkNanos(remaining - 50_000);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private record DroppedSend(long intended, LatencyStats stats) {
+    }
+
+    private static final class Trader {
+        private final String email;
+        private final String token;
+        private final Queue<Long> openOrders = new ConcurrentLinkedQueue<>();
+
+        private Trader(String email, String token) {
+            this.email = email;
+            this.token = token;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.umi.tradestar.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options of the load test harness, given as {@code --name=value}.
+ *
+ * @author VrushankPatel
+ */
+final class LoadTestOptions {
+
+    enum Scenario {
+        ORDERS,
+        AUTH
+    }
+
+    final String target;
+    final Scenario scenario;
+    final int rate;
+    final int durationSeconds;
+    final int warmupSeconds;
+    final int traders;
+    final double cancelRatio;
+    final int maxInFlight;
+    final long seed;
+
+    private LoadTestOptions(Map<String, String> values) {
+        target = values.get("target");
+        scenario = Scenario.valueOf(values.getOrDefault("scenario", "orders").toUpperCase());
+        rate = Integer.parseInt(values.getOrDefault("rate", "200"));
+        durationSeconds = Integer.parseInt(values.getOrDefault("duration", "30"));
+        warmupSeconds = Integer.parseInt(values.getOrDefault("warmup", "10"));
+        traders = Integer.parseInt(values.getOrDefault("traders", "20"));
+        cancelRatio = Double.parseDouble(values.getOrDefault("cancel-ratio", "0.3"));
+        maxInFlight = Integer.parseInt(values.getOrDefault("max-in-flight", "10000"));
+        seed = Long.parseLong(values.getOrDefault("seed", "42"));
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg + "\n" + usage());
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    static String usage() {
+        return """
+                Options:
+                  --target=<url>          running instance to test; default starts one in-process on H2
+                  --scenario=orders|auth  order/cancel mix or /api/v1/auth/authenticate only (default orders)
+                  --rate=<n>              requests per second, independent of response times (default 200)
+                  --duration=<s>          measured seconds (default 30)
+                  --warmup=<s>            unmeasured seconds before that (default 10)
+                  --traders=<n>           traders to register and log in (default 20)
+                  --cancel-ratio=<0..1>   share of requests that cancel an open order (default 0.3)
+                  --max-in-flight=<n>     outstanding requests before new ones are dropped (default 10000)
+                  --seed=<n>              random seed for the request mix (default 42)
+                """;
+    }
+}
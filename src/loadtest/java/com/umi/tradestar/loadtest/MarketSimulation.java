@@ -0,0 +1,132 @@
+package com.umi.tradestar.loadtest;
+
+import com.umi.tradestar.TradestarApplication;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.model.enums.Role;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.repository.UserRepository;
+import com.umi.tradestar.service.OrderService;
+import com.umi.tradestar.simulator.MarketSimulator;
+import com.umi.tradestar.simulator.OrderFlowGenerator;
+import com.umi.tradestar.simulator.OrderFlowProfile;
+import com.umi.tradestar.simulator.OrderFlowSink;
+import com.umi.tradestar.simulator.OrderServiceSink;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs synthetic order flow from {@link OrderFlowGenerator} either into an in-process
+ * {@link OrderService} on in-memory H2 ({@code --sink=service}) or into a sink that only counts
+ * events ({@code --sink=none}), which measures the generator alone.
+ *
+ * @author VrushankPatel
+ */
+public final class MarketSimulation {
+
+    private MarketSimulation() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        long events = Long.parseLong(options.getOrDefault("events", "100000"));
+        boolean paced = Boolean.parseBoolean(options.getOrDefault("paced", "false"));
+        String sinkName = options.getOrDefault("sink", "service");
+        OrderFlowProfile.OrderFlowProfileBuilder profile = OrderFlowProfile.builder()
+                .seed(Long.parseLong(options.getOrDefault("seed", "42")))
+                .eventsPerSecond(Double.parseDouble(options.getOrDefault("rate", "1000")))
+                .cancelRatio(Double.parseDouble(options.getOrDefault("cancel-ratio", "0.3")))
+                .marketOrderRatio(Double.parseDouble(options.getOrDefault("market-ratio", "0.05")));
+        if (options.containsKey("symbols")) {
+            profile.symbols(List.of(options.get("symbols").split(",")));
+        }
+
+        if ("none".equals(sinkName)) {
+            CountingSink sink = new CountingSink();
+            OrderFlowGenerator generator = new OrderFlowGenerator(profile.build(), loadSymbols());
+            // Untimed warmup on a separate generator so the measured flow still starts from the seed
+            new OrderFlowGenerator(profile.build(), loadSymbols()).generate(Math.min(events, 5_000_000), new CountingSink());
+            print(MarketSimulator.run(generator, sink, events, paced), generator);
+            System.out.printf("orders=%d cancels=%d%n", sink.orders, sink.cancels);
+            return;
+        }
+
+        try (ConfigurableApplicationContext context = startEmbedded()) {
+            User trader = context.getBean(UserRepository.class).save(User.builder()
+                    .email("simulator@example.com")
+                    .firstName("Market")
+                    .lastName("Simulator")
+                    .password("not-used")
+                    .role(Role.TRADER)
+                    .enabled(true)
+                    .build());
+            SymbolRegistry symbols = context.getBean(SymbolRegistry.class);
+            OrderServiceSink sink = new OrderServiceSink(context.getBean(OrderService.class), symbols, trader);
+            OrderFlowGenerator generator = new OrderFlowGenerator(profile.build(), symbols);
+            print(MarketSimulator.run(generator, sink, events, paced), generator);
+            System.out.printf("accepted=%d rejected=%d cancelled=%d cancels-rejected=%d%n",
+                    sink.getAccepted(), sink.getRejected(), sink.getCancelled(), sink.getCancelsRejected());
+        }
+    }
+
+    private static void print(MarketSimulator.Result result, OrderFlowGenerator generator) {
+        System.out.printf("%d events (%d orders) in %.1f ms: %.0f events/s, max lag %.2f ms%n",
+                result.getEvents(), generator.getOrders(), result.getElapsedNanos() / 1e6,
+                result.getEventsPerSecond(), result.getMaxLagNanos() / 1e6);
+    }
+
+    private static SymbolRegistry loadSymbols() throws IOException {
+        try (InputStream in = MarketSimulation.class.getResourceAsStream("/reference/symbols.csv")) {
+            return SymbolRegistry.load(in);
+        }
+    }
+
+    private static ConfigurableApplicationContext startEmbedded() {
+        return new SpringApplicationBuilder(TradestarApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:simulation;DB_CLOSE_DELAY=-1",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "logging.level.com.umi.tradestar=WARN")
+                // As an argument, so it overrides show-sql=true from application.properties
+                .run("--spring.jpa.show-sql=false");
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg + " in " + Arrays.toString(args));
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return values;
+    }
+
+    private static final class CountingSink implements OrderFlowSink {
+        private long orders;
+        private long cancels;
+
+        @Override
+        public void onNewOrder(long timestampNanos, long orderSeq, int symbolId, OrderSide side, OrderType type,
+                               int priceLevel, long lots) {
+            orders++;
+        }
+
+        @Override
+        public void onCancel(long timestampNanos, long orderSeq) {
+            cancels++;
+        }
+    }
+}
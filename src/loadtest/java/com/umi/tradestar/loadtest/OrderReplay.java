@@ -0,0 +1,99 @@
+package com.umi.tradestar.loadtest;
+
+import com.umi.tradestar.TradestarApplication;
+import com.umi.tradestar.cluster.OrderCommand;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.Role;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.replay.CommandLogFile;
+import com.umi.tradestar.replay.FixMessageParser;
+import com.umi.tradestar.replay.OrderReplayer;
+import com.umi.tradestar.replay.ReplayReport;
+import com.umi.tradestar.repository.UserRepository;
+import com.umi.tradestar.service.OrderService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Replays a recorded order command log or a FIX log into an in-process instance on in-memory H2 and
+ * reports throughput and any order whose replayed state differs from the recording.
+ * Exits with status 1 if there were differences.
+ *
+ * @author VrushankPatel
+ */
+public final class OrderReplay {
+
+    private OrderReplay() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String source = "commands:data/order-commands.bin";
+        double speed = 0;
+        for (String arg : args) {
+            if (arg.startsWith("--source=")) {
+                source = arg.substring("--source=".length());
+            } else if (arg.startsWith("--speed=")) {
+                speed = Double.parseDouble(arg.substring("--speed=".length()));
+            } else {
+                throw new IllegalArgumentException("Expected --source=commands:<file>|fix:<file> or --speed=<factor> but got: " + arg);
+            }
+        }
+
+        ReplayReport report;
+        try (ConfigurableApplicationContext context = startEmbedded()) {
+            SymbolRegistry symbols = context.getBean(SymbolRegistry.class);
+            List<OrderCommand> commands = read(source, symbols);
+            UserRepository users = context.getBean(UserRepository.class);
+            OrderReplayer replayer = new OrderReplayer(context.getBean(OrderService.class), symbols,
+                    traderId -> users.save(User.builder()
+                            .email("replay-trader-" + traderId + "@example.com")
+                            .firstName("Replay")
+                            .lastName("Trader" + traderId)
+                            .password("not-used")
+                            .role(Role.TRADER)
+                            .enabled(true)
+                            .build()));
+            System.out.printf("Replaying %d commands from %s %s%n", commands.size(), source,
+                    speed > 0 ? "at " + speed + "x recorded pacing" : "at maximum speed");
+            report = replayer.replay(commands, speed);
+        }
+
+        System.out.printf("%d commands in %.1f ms: %.0f commands/s, accepted=%d rejected=%d%n",
+                report.getCommands(), report.getElapsedNanos() / 1e6, report.getCommandsPerSecond(),
+                report.getAccepted(), report.getRejected());
+        if (report.isMatching()) {
+            System.out.println("All replayed orders match the recording");
+            return;
+        }
+        System.out.printf("%d differences from the recording:%n", report.getMismatchCount());
+        report.getMismatches().forEach(mismatch -> System.out.println("  " + mismatch));
+        System.exit(1);
+    }
+
+    private static List<OrderCommand> read(String source, SymbolRegistry symbols) throws Exception {
+        if (source.startsWith("commands:")) {
+            return CommandLogFile.read(Path.of(source.substring("commands:".length())));
+        }
+        if (source.startsWith("fix:")) {
+            return FixMessageParser.readLog(Path.of(source.substring("fix:".length())), symbols);
+        }
+        throw new IllegalArgumentException("Unknown source " + source + ", expected commands:<file> or fix:<file>");
+    }
+
+    private static ConfigurableApplicationContext startEmbedded() {
+        return new SpringApplicationBuilder(TradestarApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:replay;DB_CLOSE_DELAY=-1",
+                        "spring.main.banner-mode=off",
+                        "tradestar.replay.record.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.umi.tradestar=WARN")
+                // As an argument, so it overrides show-sql=true from application.properties
+                .run("--spring.jpa.show-sql=false");
+    }
+}
@@ -0,0 +1,63 @@
+package com.umi.tradestar.loadtest;
+
+import com.umi.tradestar.cluster.OrderCommand;
+import com.umi.tradestar.tracing.OrderStage;
+import com.umi.tradestar.tracing.OrderTrace;
+import com.umi.tradestar.tracing.OrderTraceFile;
+import org.HdrHistogram.Histogram;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline breakdown of an exported order trace file.
+ *
+ * For every command type, prints latency percentiles of the time spent between each reached stage
+ * and the previous reached one, plus the total from ingress to response.
+ *
+ * @author VrushankPatel
+ */
+public final class OrderTraceBreakdown {
+
+    private OrderTraceBreakdown() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path file = Path.of(args.length > 0 ? args[0] : "data/order-traces.bin");
+        List<OrderTrace> traces = OrderTraceFile.read(file);
+        System.out.printf("%d traces in %s (latency in us)%n", traces.size(), file);
+
+        for (OrderCommand.Type type : OrderCommand.Type.values()) {
+            Map<OrderStage, Histogram> stageHistograms = new EnumMap<>(OrderStage.class);
+            Histogram total = new Histogram(3);
+            for (OrderTrace trace : traces) {
+                if (trace.getType() != type) {
+                    continue;
+                }
+                long previous = 0;
+                for (Map.Entry<OrderStage, Long> stage : trace.getStageOffsetsNanos().entrySet()) {
+                    if (stage.getKey() != OrderStage.INGRESS) {
+                        stageHistograms.computeIfAbsent(stage.getKey(), key -> new Histogram(3))
+                                .recordValue(Math.max(0, stage.getValue() - previous) / 1_000);
+                    }
+                    previous = stage.getValue();
+                }
+                total.recordValue(trace.getTotalNanos() / 1_000);
+            }
+            if (total.getTotalCount() == 0) {
+                continue;
+            }
+            System.out.printf("%n%s (%d traces)%n", type, total.getTotalCount());
+            stageHistograms.forEach((stage, histogram) -> print("-> " + stage, histogram));
+            print("total", total);
+        }
+    }
+
+    private static void print(String label, Histogram histogram) {
+        System.out.printf("  %-17s n=%-7d p50=%-9d p99=%-9d p99.9=%-9d max=%d%n", label, histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9), histogram.getMaxValue());
+    }
+}
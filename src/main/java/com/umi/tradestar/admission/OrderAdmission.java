@@ -0,0 +1,206 @@
+package com.umi.tradestar.admission;
+
+import com.umi.tradestar.exception.OrderOverloadException;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive concurrency limit for the order path.
+ *
+ * At most {@code limit} order requests run at once; the rest wait in one queue per {@link Priority},
+ * and cancels are always admitted before new orders. The limit adapts by AIMD: a request that took
+ * longer than the latency target shrinks it by the backoff ratio, and every other request grows it by
+ * {@code 1 / limit}, so it grows by about one per limit's worth of fast requests. When the database
+ * slows down the limit shrinks, requests queue here instead of on the connection pool, and a request
+ * that cannot be admitted within the queue budget, or finds its queue full, is shed with
+ * {@link OrderOverloadException} rather than waiting without bound.
+ *
+ * @author VrushankPatel
+ */
+public class OrderAdmission {
+
+    public enum Priority {
+        CANCEL,
+        NEW_ORDER
+    }
+
+    private static final Permit NO_PERMIT = new Permit(null, 0);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Waiter> cancels = new ArrayDeque<>();
+    private final ArrayDeque<Waiter> newOrders = new ArrayDeque<>();
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyTargetNanos;
+    private final long queueBudgetNanos;
+    private final int maxQueue;
+    private double limit;
+    private int inFlight;
+
+    public OrderAdmission(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                          long latencyTargetMillis, long queueBudgetMillis, int maxQueue) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid admission limits " + minLimit + "-" + maxLimit
+                    + " with backoff " + backoffRatio);
+        }
+        this.enabled = true;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMillis);
+        this.queueBudgetNanos = TimeUnit.MILLISECONDS.toNanos(queueBudgetMillis);
+        this.maxQueue = maxQueue;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    private OrderAdmission() {
+        this.enabled = false;
+        this.minLimit = 0;
+        this.maxLimit = 0;
+        this.backoffRatio = 0;
+        this.latencyTargetNanos = 0;
+        this.queueBudgetNanos = 0;
+        this.maxQueue = 0;
+    }
+
+    /**
+     * Admission that lets every request through at once.
+     */
+    public static OrderAdmission disabled() {
+        return new OrderAdmission();
+    }
+
+    /**
+     * Wait for a slot on the order path. The returned permit must be closed when the request is done.
+     *
+     * @throws OrderOverloadException if the request was not admitted within the queue budget
+     */
+    public Permit acquire(Priority priority) {
+        if (!enabled) {
+            return NO_PERMIT;
+        }
+        lock.lock();
+        try {
+            ArrayDeque<Waiter> queue = priority == Priority.CANCEL ? cancels : newOrders;
+            boolean aheadInQueue = !cancels.isEmpty() || (priority == Priority.NEW_ORDER && !newOrders.isEmpty());
+            if (!aheadInQueue && inFlight < (int) limit) {
+                inFlight++;
+                return new Permit(this, System.nanoTime());
+            }
+            if (queue.size() >= maxQueue) {
+                throw new OrderOverloadException("queue full");
+            }
+            Waiter waiter = new Waiter(lock.newCondition());
+            queue.addLast(waiter);
+            long remaining = queueBudgetNanos;
+            while (!waiter.admitted) {
+                if (remaining <= 0) {
+                    queue.remove(waiter);
+                    throw new OrderOverloadException("queued longer than " + TimeUnit.NANOSECONDS.toMillis(queueBudgetNanos) + "ms");
+                }
+                try {
+                    remaining = waiter.condition.awaitNanos(remaining);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    if (waiter.admitted) {
+                        break;
+                    }
+                    queue.remove(waiter);
+                    throw new OrderOverloadException("interrupted while queued");
+                }
+            }
+            return new Permit(this, System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long admittedNanos) {
+        long latency = System.nanoTime() - admittedNanos;
+        lock.lock();
+        try {
+            inFlight--;
+            if (latency > latencyTargetNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            while (inFlight < (int) limit) {
+                Waiter next = cancels.pollFirst();
+                if (next == null) {
+                    next = newOrders.pollFirst();
+                }
+                if (next == null) {
+                    break;
+                }
+                next.admitted = true;
+                inFlight++;
+                next.condition.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return cancels.size() + newOrders.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A slot on the order path, given back by {@link #close()}.
+     */
+    public static final class Permit implements AutoCloseable {
+        private final OrderAdmission admission;
+        private final long admittedNanos;
+
+        private Permit(OrderAdmission admission, long admittedNanos) {
+            this.admission = admission;
+            this.admittedNanos = admittedNanos;
+        }
+
+        @Override
+        public void close() {
+            if (admission != null) {
+                admission.release(admittedNanos);
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final Condition condition;
+        // Guarded by the lock; set by release when it hands this waiter a slot
+        private boolean admitted;
+
+        private Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.umi.tradestar.analytics;
+
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a closed order that are exported for analytics, read as a projection so the
+ * export never loads {@link com.umi.tradestar.model.Order} entities.
+ *
+ * @author VrushankPatel
+ */
+public interface ClosedOrderRow {
+
+    Long getId();
+
+    Integer getSymbolId();
+
+    OrderSide getSide();
+
+    OrderStatus getStatus();
+
+    BigDecimal getPrice();
+
+    BigDecimal getQuantity();
+
+    BigDecimal getFilledQuantity();
+
+    BigDecimal getAveragePrice();
+
+    LocalDateTime getUpdatedAt();
+}
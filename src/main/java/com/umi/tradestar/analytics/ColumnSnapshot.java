@@ -0,0 +1,61 @@
+package com.umi.tradestar.analytics;
+
+import java.nio.MappedByteBuffer;
+
+/**
+ * Read-only, memory-mapped view of the rows an {@link OrderColumnStore} held when it was taken.
+ *
+ * Each column is mapped in segments of {@value #SEGMENT_ROWS} rows, which keeps every mapping well
+ * below the 2 GB limit of a single buffer. Rows are addressed by segment and position within it.
+ * Values are read with absolute gets and so can be read from several threads at once.
+ *
+ * @author VrushankPatel
+ */
+public final class ColumnSnapshot {
+
+    public static final int SEGMENT_ROWS = 1 << 20;
+
+    private final long rows;
+    private final MappedByteBuffer[][] columns;
+
+    ColumnSnapshot(long rows, MappedByteBuffer[][] columns) {
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    int symbolId(int segment, int row) {
+        return columns[OrderColumnStore.Column.SYMBOL.ordinal()][segment].getInt(row * Integer.BYTES);
+    }
+
+    int side(int segment, int row) {
+        return columns[OrderColumnStore.Column.SIDE.ordinal()][segment].get(row);
+    }
+
+    int status(int segment, int row) {
+        return columns[OrderColumnStore.Column.STATUS.ordinal()][segment].get(row);
+    }
+
+    long timeMillis(int segment, int row) {
+        return columns[OrderColumnStore.Column.TIME.ordinal()][segment].getLong(row * Long.BYTES);
+    }
+
+    long price(int segment, int row) {
+        return columns[OrderColumnStore.Column.PRICE.ordinal()][segment].getLong(row * Long.BYTES);
+    }
+
+    long quantity(int segment, int row) {
+        return columns[OrderColumnStore.Column.QUANTITY.ordinal()][segment].getLong(row * Long.BYTES);
+    }
+
+    long filled(int segment, int row) {
+        return columns[OrderColumnStore.Column.FILLED.ordinal()][segment].getLong(row * Long.BYTES);
+    }
+
+    long averagePrice(int segment, int row) {
+        return columns[OrderColumnStore.Column.AVERAGE_PRICE.ordinal()][segment].getLong(row * Long.BYTES);
+    }
+}
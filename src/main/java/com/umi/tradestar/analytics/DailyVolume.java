@@ -0,0 +1,21 @@
+package com.umi.tradestar.analytics;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Closed orders and executed volume of one symbol on one day.
+ *
+ * @author VrushankPatel
+ */
+@Value
+public class DailyVolume {
+
+    int symbolId;
+    LocalDate day;
+    long orders;
+    BigDecimal volume; // Filled quantity
+    BigDecimal notional; // Filled quantity times average fill price
+}
@@ -0,0 +1,195 @@
+package com.umi.tradestar.analytics;
+
+import com.umi.tradestar.exception.ValidationException;
+import com.umi.tradestar.model.enums.OrderStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Aggregations over the closed orders in an {@link OrderColumnStore}.
+ *
+ * A query maps the current rows and scans them with fork-join tasks that split the rows into chunks
+ * of {@value #CHUNK_ROWS}. Each chunk reads only the columns the query needs into a flat
+ * {@code long[]} accumulator, and the accumulators are summed as the tasks join. The OLTP tables are
+ * not touched.
+ *
+ * Days are calendar days of the server-local order timestamps, {@code from} inclusive and
+ * {@code to} exclusive.
+ *
+ * @author VrushankPatel
+ */
+public class OrderAnalytics {
+
+    static final int CHUNK_ROWS = 1 << 16;
+    private static final int MAX_DAYS = 3_660;
+    // Longs in one chunk's accumulator, 2 MB; bounds the days a per-day query over all symbols can cover
+    private static final int MAX_ACCUMULATOR_CELLS = 1 << 18;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long SCALE = BigDecimal.ONE.scaleByPowerOfTen(OrderColumnStore.DECIMAL_SCALE).longValueExact();
+
+    private final OrderColumnStore store;
+    private final int symbols;
+    private final ForkJoinPool pool;
+
+    public OrderAnalytics(OrderColumnStore store, int symbols, ForkJoinPool pool) {
+        this.store = store;
+        this.symbols = symbols;
+        this.pool = pool;
+    }
+
+    /**
+     * Closed orders, filled quantity and notional per symbol and day, for days with orders. The range
+     * can cover as many days as fit in an accumulator of {@value #MAX_ACCUMULATOR_CELLS} longs for all
+     * symbols, at most {@value #MAX_DAYS}.
+     */
+    public List<DailyVolume> dailyVolume(LocalDate from, LocalDate to) {
+        int days = days(from, to, (int) Math.min(MAX_DAYS, MAX_ACCUMULATOR_CELLS / (3L * Math.max(symbols, 1))));
+        long fromMillis = from.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        long toMillis = to.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        // Per symbol and day: orders, filled quantity, notional
+        long[] totals = scan(3 * symbols * days, (snapshot, segment, first, last, acc) -> {
+            for (int row = first; row < last; row++) {
+                long time = snapshot.timeMillis(segment, row);
+                if (time < fromMillis || time >= toMillis) {
+                    continue;
+                }
+                int cell = 3 * (snapshot.symbolId(segment, row) * days + (int) ((time - fromMillis) / MILLIS_PER_DAY));
+                long filled = snapshot.filled(segment, row);
+                acc[cell]++;
+                acc[cell + 1] += filled;
+                acc[cell + 2] += filled * snapshot.averagePrice(segment, row) / SCALE;
+            }
+        });
+
+        List<DailyVolume> volumes = new ArrayList<>();
+        for (int symbolId = 0; symbolId < symbols; symbolId++) {
+            for (int day = 0; day < days; day++) {
+                int cell = 3 * (symbolId * days + day);
+                if (totals[cell] > 0) {
+                    volumes.add(new DailyVolume(symbolId, from.plusDays(day), totals[cell],
+                            unscaled(totals[cell + 1]), unscaled(totals[cell + 2])));
+                }
+            }
+        }
+        return volumes;
+    }
+
+    /**
+     * Outcome counts, ordered and filled quantity per symbol, for symbols with orders.
+     */
+    public List<OrderStats> orderStats(LocalDate from, LocalDate to) {
+        days(from, to, MAX_DAYS);
+        long fromMillis = from.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        long toMillis = to.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        int statuses = OrderStatus.values().length;
+        int width = statuses + 2;
+        // Per symbol: one count per status, then ordered and filled quantity
+        long[] totals = scan(width * symbols, (snapshot, segment, first, last, acc) -> {
+            for (int row = first; row < last; row++) {
+                long time = snapshot.timeMillis(segment, row);
+                if (time < fromMillis || time >= toMillis) {
+                    continue;
+                }
+                int cell = width * snapshot.symbolId(segment, row);
+                acc[cell + snapshot.status(segment, row)]++;
+                acc[cell + statuses] += snapshot.quantity(segment, row);
+                acc[cell + statuses + 1] += snapshot.filled(segment, row);
+            }
+        });
+
+        List<OrderStats> stats = new ArrayList<>();
+        for (int symbolId = 0; symbolId < symbols; symbolId++) {
+            int cell = width * symbolId;
+            long orders = 0;
+            for (int status = 0; status < statuses; status++) {
+                orders += totals[cell + status];
+            }
+            if (orders > 0) {
+                stats.add(new OrderStats(symbolId, orders,
+                        totals[cell + OrderStatus.FILLED.ordinal()],
+                        totals[cell + OrderStatus.CANCELLED.ordinal()],
+                        totals[cell + OrderStatus.EXPIRED.ordinal()],
+                        totals[cell + OrderStatus.REJECTED.ordinal()],
+                        unscaled(totals[cell + statuses]), unscaled(totals[cell + statuses + 1])));
+            }
+        }
+        return stats;
+    }
+
+    private long[] scan(int accumulatorSize, ChunkScan chunkScan) {
+        ColumnSnapshot snapshot;
+        try {
+            snapshot = store.snapshot();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return pool.invoke(new ScanTask(snapshot, 0, snapshot.rows(), accumulatorSize, chunkScan));
+    }
+
+    private static int days(LocalDate from, LocalDate to, int maxDays) {
+        long days = to.toEpochDay() - from.toEpochDay();
+        if (days <= 0 || days > maxDays) {
+            throw ValidationException.invalidInput("to", "date range must cover 1 to " + maxDays + " days");
+        }
+        return (int) days;
+    }
+
+    private static BigDecimal unscaled(long value) {
+        BigDecimal decimal = BigDecimal.valueOf(value, OrderColumnStore.DECIMAL_SCALE).stripTrailingZeros();
+        return decimal.scale() < 0 ? decimal.setScale(0) : decimal;
+    }
+
+    /**
+     * Accumulates the rows {@code [first, last)} of one segment.
+     */
+    @FunctionalInterface
+    interface ChunkScan {
+        void scan(ColumnSnapshot snapshot, int segment, int first, int last, long[] accumulator);
+    }
+
+    private static final class ScanTask extends RecursiveTask<long[]> {
+        private final ColumnSnapshot snapshot;
+        private final long first;
+        private final long last;
+        private final int accumulatorSize;
+        private final ChunkScan chunkScan;
+
+        ScanTask(ColumnSnapshot snapshot, long first, long last, int accumulatorSize, ChunkScan chunkScan) {
+            this.snapshot = snapshot;
+            this.first = first;
+            this.last = last;
+            this.accumulatorSize = accumulatorSize;
+            this.chunkScan = chunkScan;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (last - first <= CHUNK_ROWS) {
+                // Chunks are aligned to CHUNK_ROWS, which divides SEGMENT_ROWS, so a chunk never spans segments
+                long[] accumulator = new long[accumulatorSize];
+                int segment = (int) (first / ColumnSnapshot.SEGMENT_ROWS);
+                long base = (long) segment * ColumnSnapshot.SEGMENT_ROWS;
+                chunkScan.scan(snapshot, segment, (int) (first - base), (int) (last - base), accumulator);
+                return accumulator;
+            }
+            long chunks = (last - first + CHUNK_ROWS - 1) / CHUNK_ROWS;
+            long middle = first + (chunks / 2) * CHUNK_ROWS;
+            ScanTask left = new ScanTask(snapshot, first, middle, accumulatorSize, chunkScan);
+            left.fork();
+            long[] right = new ScanTask(snapshot, middle, last, accumulatorSize, chunkScan).compute();
+            long[] merged = left.join();
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += right[i];
+            }
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.umi.tradestar.analytics;
+
+import com.umi.tradestar.model.enums.OrderStatus;
+import com.umi.tradestar.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically copies newly closed orders from the orders table into the {@link OrderColumnStore}.
+ *
+ * Orders are read in batches after the store's watermark of (update time, id). Only orders updated
+ * at least {@code settleMillis} ago are exported, so a transaction that stamped its update time
+ * before a later-committing one cannot be skipped once the watermark has moved past it.
+ *
+ * @author VrushankPatel
+ */
+public class OrderAnalyticsExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderAnalyticsExporter.class);
+    private static final Set<OrderStatus> CLOSED_STATUSES = EnumSet.of(OrderStatus.FILLED, OrderStatus.CANCELLED,
+            OrderStatus.REJECTED, OrderStatus.EXPIRED);
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final OrderRepository orderRepository;
+    private final OrderColumnStore store;
+    private final int batchSize;
+    private final long intervalMillis;
+    private final long settleMillis;
+    private ScheduledExecutorService scheduler;
+
+    public OrderAnalyticsExporter(OrderRepository orderRepository, OrderColumnStore store, int batchSize,
+                                  long intervalMillis, long settleMillis) {
+        this.orderRepository = orderRepository;
+        this.store = store;
+        this.batchSize = batchSize;
+        this.intervalMillis = intervalMillis;
+        this.settleMillis = settleMillis;
+    }
+
+    /**
+     * Export every order that closed since the last export.
+     *
+     * @return number of orders exported
+     */
+    public synchronized long exportClosedOrders() throws IOException {
+        LocalDateTime until = LocalDateTime.now().minusNanos(settleMillis * 1_000_000);
+        long exported = 0;
+        while (true) {
+            LocalDateTime afterTime = store.getWatermarkTime() != null ? store.getWatermarkTime() : BEGINNING;
+            List<ClosedOrderRow> batch = orderRepository.findClosedAfter(CLOSED_STATUSES, afterTime,
+                    store.getWatermarkId(), until, PageRequest.of(0, batchSize));
+            store.append(batch);
+            exported += batch.size();
+            if (batch.size() < batchSize) {
+                return exported;
+            }
+        }
+    }
+
+    public synchronized void start() {
+        if (scheduler != null || intervalMillis <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analytics-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                long exported = exportClosedOrders();
+                if (exported > 0) {
+                    logger.info("Exported {} closed orders for analytics, {} rows in total", exported, store.rows());
+                }
+            } catch (IOException | RuntimeException ex) {
+                logger.error("Analytics export failed:", ex);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
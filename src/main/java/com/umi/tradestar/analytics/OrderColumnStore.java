@@ -0,0 +1,196 @@
+package com.umi.tradestar.analytics;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Append-only columnar store of closed orders.
+ *
+ * Every column is its own file of fixed-width big-endian values, so row {@code i} of a column is at
+ * offset {@code i * width} and a column can be scanned without reading the others. Prices and
+ * quantities are stored as longs scaled by 10^{@value #DECIMAL_SCALE}; times are epoch millis of the
+ * server-local timestamp. An append is committed by rewriting the watermark file, which holds the
+ * row count along with the last exported order; on open, columns are cut back to that row count, so
+ * an append interrupted by a crash is dropped and exported again.
+ *
+ * Appends come from a single exporter thread. Readers take a {@link ColumnSnapshot}, which
+ * memory-maps the rows present at that moment.
+ *
+ * @author VrushankPatel
+ */
+public class OrderColumnStore implements AutoCloseable {
+
+    public static final int DECIMAL_SCALE = 4;
+
+    enum Column {
+        SYMBOL(Integer.BYTES),
+        SIDE(Byte.BYTES),
+        STATUS(Byte.BYTES),
+        TIME(Long.BYTES),
+        PRICE(Long.BYTES),
+        QUANTITY(Long.BYTES),
+        FILLED(Long.BYTES),
+        AVERAGE_PRICE(Long.BYTES);
+
+        static final Column[] VALUES = values();
+
+        final int width;
+
+        Column(int width) {
+            this.width = width;
+        }
+
+        String fileName() {
+            return name().toLowerCase() + ".col";
+        }
+    }
+
+    private static final String WATERMARK_FILE = "export.watermark";
+
+    private final Path directory;
+    private final FileChannel[] channels = new FileChannel[Column.VALUES.length];
+    private volatile long rows;
+    private LocalDateTime watermarkTime;
+    private long watermarkId;
+
+    private OrderColumnStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Open or create the store in a directory.
+     */
+    public static OrderColumnStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        OrderColumnStore store = new OrderColumnStore(directory);
+        store.readWatermark();
+        for (Column column : Column.VALUES) {
+            FileChannel channel = FileChannel.open(directory.resolve(column.fileName()),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            store.channels[column.ordinal()] = channel;
+            if (channel.size() < store.rows * column.width) {
+                store.close();
+                throw new IOException("Column " + column.fileName() + " is shorter than the " + store.rows
+                        + " committed rows");
+            }
+            channel.truncate(store.rows * column.width);
+        }
+        return store;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * Update time of the last exported order; null before the first export.
+     */
+    public synchronized LocalDateTime getWatermarkTime() {
+        return watermarkTime;
+    }
+
+    /**
+     * Id of the last exported order, to break ties between orders updated at the same time.
+     */
+    public synchronized long getWatermarkId() {
+        return watermarkId;
+    }
+
+    /**
+     * Append closed orders, in update time order, and move the export watermark to the last one.
+     */
+    public synchronized void append(List<? extends ClosedOrderRow> orders) throws IOException {
+        if (orders.isEmpty()) {
+            return;
+        }
+        ByteBuffer[] buffers = new ByteBuffer[Column.VALUES.length];
+        for (Column column : Column.VALUES) {
+            buffers[column.ordinal()] = ByteBuffer.allocate(orders.size() * column.width);
+        }
+        for (ClosedOrderRow order : orders) {
+            buffers[Column.SYMBOL.ordinal()].putInt(order.getSymbolId());
+            buffers[Column.SIDE.ordinal()].put((byte) order.getSide().ordinal());
+            buffers[Column.STATUS.ordinal()].put((byte) order.getStatus().ordinal());
+            buffers[Column.TIME.ordinal()].putLong(order.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+            buffers[Column.PRICE.ordinal()].putLong(scaled(order.getPrice()));
+            buffers[Column.QUANTITY.ordinal()].putLong(scaled(order.getQuantity()));
+            buffers[Column.FILLED.ordinal()].putLong(scaled(order.getFilledQuantity()));
+            buffers[Column.AVERAGE_PRICE.ordinal()].putLong(scaled(order.getAveragePrice()));
+        }
+        for (Column column : Column.VALUES) {
+            ByteBuffer buffer = buffers[column.ordinal()].flip();
+            FileChannel channel = channels[column.ordinal()];
+            long position = rows * column.width;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+        }
+        ClosedOrderRow last = orders.get(orders.size() - 1);
+        writeWatermark(last.getUpdatedAt(), last.getId(), rows + orders.size());
+    }
+
+    /**
+     * Memory-map the rows stored so far for reading.
+     */
+    public ColumnSnapshot snapshot() throws IOException {
+        long count = rows;
+        int segments = (int) ((count + ColumnSnapshot.SEGMENT_ROWS - 1) / ColumnSnapshot.SEGMENT_ROWS);
+        MappedByteBuffer[][] mapped = new MappedByteBuffer[Column.VALUES.length][segments];
+        for (Column column : Column.VALUES) {
+            for (int segment = 0; segment < segments; segment++) {
+                long first = (long) segment * ColumnSnapshot.SEGMENT_ROWS;
+                long length = Math.min(ColumnSnapshot.SEGMENT_ROWS, count - first) * column.width;
+                mapped[column.ordinal()][segment] = channels[column.ordinal()]
+                        .map(FileChannel.MapMode.READ_ONLY, first * column.width, length);
+            }
+        }
+        return new ColumnSnapshot(count, mapped);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (FileChannel channel : channels) {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    static long scaled(BigDecimal value) {
+        return value == null ? 0 : value.setScale(DECIMAL_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private void readWatermark() throws IOException {
+        Path file = directory.resolve(WATERMARK_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        String[] parts = Files.readString(file).trim().split(",");
+        watermarkTime = LocalDateTime.parse(parts[0]);
+        watermarkId = Long.parseLong(parts[1]);
+        rows = Long.parseLong(parts[2]);
+    }
+
+    private void writeWatermark(LocalDateTime time, long id, long committedRows) throws IOException {
+        // The columns were forced first, so the rows the watermark counts are on disk
+        Path temporary = directory.resolve(WATERMARK_FILE + ".tmp");
+        Files.writeString(temporary, time + "," + id + "," + committedRows);
+        Files.move(temporary, directory.resolve(WATERMARK_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        watermarkTime = time;
+        watermarkId = id;
+        rows = committedRows;
+    }
+}
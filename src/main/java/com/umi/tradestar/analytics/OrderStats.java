@@ -0,0 +1,37 @@
+package com.umi.tradestar.analytics;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome counts of the closed orders of one symbol.
+ *
+ * @author VrushankPatel
+ */
+@Value
+public class OrderStats {
+
+    int symbolId;
+    long orders;
+    long filled;
+    long cancelled;
+    long expired;
+    long rejected;
+    BigDecimal quantity;
+    BigDecimal filledQuantity;
+
+    /**
+     * Share of the ordered quantity that was executed.
+     */
+    public double getFillRatio() {
+        return quantity.signum() == 0 ? 0 : filledQuantity.doubleValue() / quantity.doubleValue();
+    }
+
+    /**
+     * Share of closed orders that were cancelled.
+     */
+    public double getCancelRate() {
+        return orders == 0 ? 0 : (double) cancelled / orders;
+    }
+}
@@ -0,0 +1,131 @@
+package com.umi.tradestar.archive;
+
+import com.umi.tradestar.model.enums.OrderStatus;
+import com.umi.tradestar.repository.ArchivedOrderRepository;
+import com.umi.tradestar.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves closed orders older than the retention period from the orders table into the order history.
+ *
+ * Orders are moved in small batches, each copied and deleted by id in its own short transaction, with
+ * a pause between batches. The orders table therefore only holds open and recent orders, and neither
+ * order entry nor the analytics export waits on a long-running archive statement. Closed orders never
+ * change again, so a batch read outside the transaction is still accurate when it is moved.
+ *
+ * @author VrushankPatel
+ */
+public class OrderArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiver.class);
+    private static final Set<OrderStatus> CLOSED_STATUSES = EnumSet.of(OrderStatus.FILLED, OrderStatus.CANCELLED,
+            OrderStatus.REJECTED, OrderStatus.EXPIRED);
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionDays;
+    private final int batchSize;
+    private final long intervalMillis;
+    private final long batchPauseMillis;
+    private ScheduledExecutorService scheduler;
+
+    public OrderArchiver(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository,
+                         TransactionTemplate transactionTemplate, int retentionDays, int batchSize,
+                         long intervalMillis, long batchPauseMillis) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.intervalMillis = intervalMillis;
+        this.batchPauseMillis = batchPauseMillis;
+    }
+
+    /**
+     * Whether orders created at or after a time may have been archived, in which case queries
+     * starting there have to read the history as well as the orders table.
+     * An order is archived once it has been closed for the retention period, and it was created
+     * before it was closed.
+     */
+    public boolean mayHoldArchived(LocalDateTime from) {
+        return from.isBefore(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    /**
+     * Move every order that has been closed for longer than the retention period.
+     *
+     * @return number of orders moved
+     */
+    public synchronized long archiveClosedOrders() throws InterruptedException {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        long archived = 0;
+        while (true) {
+            List<Long> ids = orderRepository.findIdsUpdatedBefore(CLOSED_STATUSES, before, PageRequest.of(0, batchSize));
+            if (!ids.isEmpty()) {
+                archived += moveBatch(ids);
+            }
+            if (ids.size() < batchSize) {
+                return archived;
+            }
+            Thread.sleep(batchPauseMillis);
+        }
+    }
+
+    private int moveBatch(List<Long> ids) {
+        LocalDateTime archivedAt = LocalDateTime.now();
+        Integer moved = transactionTemplate.execute(status -> {
+            // Fewer are copied than deleted only if some were already in the history
+            int copied = archivedOrderRepository.copyFromOrders(ids, archivedAt);
+            int deleted = orderRepository.deleteByIds(ids);
+            if (copied > deleted || deleted != ids.size()) {
+                // Rolls the batch back; the orders are picked up again by the next run
+                throw new IllegalStateException("Archive batch of " + ids.size() + " orders copied " + copied
+                        + " and deleted " + deleted);
+            }
+            return deleted;
+        });
+        return moved != null ? moved : 0;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null || intervalMillis <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                long archived = archiveClosedOrders();
+                if (archived > 0) {
+                    logger.info("Archived {} orders closed more than {} days ago", archived, retentionDays);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException ex) {
+                logger.error("Order archiving failed:", ex);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.umi.tradestar.auction;
+
+import java.util.Arrays;
+
+/**
+ * Call auction uncrossing over a fixed grid of price levels.
+ *
+ * Orders are added as (side, price level, quantity), where a price level is the number of ticks
+ * above the symbol's lowest allowed price, or {@link #MARKET} for market orders. Uncrossing builds
+ * cumulative buy and sell volume per level in two passes over the levels, picks the equilibrium
+ * level, and allocates fills in a third pass over the levels plus one pass over the orders. It never
+ * compares orders with each other, so it runs in O(levels + orders).
+ *
+ * The equilibrium level maximizes executable volume, then minimizes the imbalance between the two
+ * sides, then is closest to the reference level (the previous auction price), or to the middle of
+ * the remaining candidates when there is none. Fills follow price-time priority: market orders
+ * first, then better prices, then orders at the equilibrium level in the order they were added.
+ *
+ * Instances are reusable via {@link #clear()} and not thread-safe.
+ *
+ * @author VrushankPatel
+ */
+public final class CallAuction {
+
+    public static final int MARKET = -1;
+    public static final int NO_REFERENCE = -1;
+
+    private final int levels;
+    private final long[] buyAtLevel;
+    private final long[] sellAtLevel;
+    // Cumulative volumes while searching the equilibrium, then reused for the per-level allocation
+    private final long[] buyScratch;
+    private final long[] sellScratch;
+    private long marketBuy;
+    private long marketSell;
+
+    private boolean[] buy;
+    private int[] level;
+    private long[] quantity;
+    private long[] filled;
+    private int size;
+
+    private int priceLevel = -1;
+    private long volume;
+    private long imbalance;
+
+    /**
+     * @param levels          number of price levels
+     * @param initialCapacity expected number of orders; the order arrays grow beyond it as needed
+     */
+    public CallAuction(int levels, int initialCapacity) {
+        this.levels = levels;
+        this.buyAtLevel = new long[levels];
+        this.sellAtLevel = new long[levels];
+        this.buyScratch = new long[levels];
+        this.sellScratch = new long[levels];
+        int capacity = Math.max(16, initialCapacity);
+        this.buy = new boolean[capacity];
+        this.level = new int[capacity];
+        this.quantity = new long[capacity];
+        this.filled = new long[capacity];
+    }
+
+    /**
+     * Add an order; orders added earlier have time priority.
+     *
+     * @param isBuy      buy or sell
+     * @param priceLevel the limit price as level index, or {@link #MARKET}
+     * @param qty        open quantity, in lots
+     * @return the order's index, to read its fill with {@link #filled(int)}
+     */
+    public int add(boolean isBuy, int priceLevel, long qty) {
+        if (priceLevel != MARKET && (priceLevel < 0 || priceLevel >= levels)) {
+            throw new IllegalArgumentException("Price level " + priceLevel + " outside 0.." + (levels - 1));
+        }
+        if (size == buy.length) {
+            int capacity = size * 2;
+            buy = Arrays.copyOf(buy, capacity);
+            level = Arrays.copyOf(level, capacity);
+            quantity = Arrays.copyOf(quantity, capacity);
+            filled = Arrays.copyOf(filled, capacity);
+        }
+        buy[size] = isBuy;
+        level[size] = priceLevel;
+        quantity[size] = qty;
+        if (priceLevel == MARKET) {
+            if (isBuy) {
+                marketBuy += qty;
+            } else {
+                marketSell += qty;
+            }
+        } else if (isBuy) {
+            buyAtLevel[priceLevel] += qty;
+        } else {
+            sellAtLevel[priceLevel] += qty;
+        }
+        return size++;
+    }
+
+    public void clear() {
+        Arrays.fill(buyAtLevel, 0);
+        Arrays.fill(sellAtLevel, 0);
+        marketBuy = 0;
+        marketSell = 0;
+        size = 0;
+        priceLevel = -1;
+        volume = 0;
+        imbalance = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Find the equilibrium level and allocate fills.
+     *
+     * @param referenceLevel the previous auction price level, or {@link #NO_REFERENCE}
+     * @return true if the book crossed and something was executed
+     */
+    public boolean uncross(int referenceLevel) {
+        // cumulative sell volume at or below each level, cumulative buy volume at or above it
+        long running = marketSell;
+        for (int p = 0; p < levels; p++) {
+            running += sellAtLevel[p];
+            sellScratch[p] = running;
+        }
+        running = marketBuy;
+        for (int p = levels - 1; p >= 0; p--) {
+            running += buyAtLevel[p];
+            buyScratch[p] = running;
+        }
+
+        long bestVolume = 0;
+        long bestImbalance = Long.MAX_VALUE;
+        int firstBest = -1;
+        int lastBest = -1;
+        for (int p = 0; p < levels; p++) {
+            long executable = Math.min(buyScratch[p], sellScratch[p]);
+            long pImbalance = Math.abs(buyScratch[p] - sellScratch[p]);
+            if (executable > bestVolume || (executable == bestVolume && executable > 0 && pImbalance < bestImbalance)) {
+                bestVolume = executable;
+                bestImbalance = pImbalance;
+                firstBest = p;
+                lastBest = p;
+            } else if (executable == bestVolume && executable > 0 && pImbalance == bestImbalance) {
+                lastBest = p;
+            }
+        }
+
+        Arrays.fill(filled, 0, size, 0);
+        if (bestVolume == 0) {
+            priceLevel = -1;
+            volume = 0;
+            imbalance = 0;
+            return false;
+        }
+        priceLevel = chooseAmongTies(firstBest, lastBest, bestVolume, bestImbalance, referenceLevel);
+        volume = bestVolume;
+        imbalance = bestImbalance;
+        allocate();
+        return true;
+    }
+
+    private int chooseAmongTies(int firstBest, int lastBest, long bestVolume, long bestImbalance, int referenceLevel) {
+        if (firstBest == lastBest) {
+            return firstBest;
+        }
+        int target = referenceLevel != NO_REFERENCE ? referenceLevel : (firstBest + lastBest) >>> 1;
+        int chosen = firstBest;
+        for (int p = firstBest; p <= lastBest; p++) {
+            if (Math.min(buyScratch[p], sellScratch[p]) == bestVolume
+                    && Math.abs(buyScratch[p] - sellScratch[p]) == bestImbalance
+                    && Math.abs(p - target) < Math.abs(chosen - target)) {
+                chosen = p;
+            }
+        }
+        return chosen;
+    }
+
+    private void allocate() {
+        // Per-level quantity still to be filled, best prices first; levels that do not cross get nothing
+        long remaining = volume;
+        long marketBuyLeft = Math.min(marketBuy, remaining);
+        remaining -= marketBuyLeft;
+        for (int p = levels - 1; p >= 0; p--) {
+            long allocated = p >= priceLevel ? Math.min(buyAtLevel[p], remaining) : 0;
+            buyScratch[p] = allocated;
+            remaining -= allocated;
+        }
+        remaining = volume;
+        long marketSellLeft = Math.min(marketSell, remaining);
+        remaining -= marketSellLeft;
+        for (int p = 0; p < levels; p++) {
+            long allocated = p <= priceLevel ? Math.min(sellAtLevel[p], remaining) : 0;
+            sellScratch[p] = allocated;
+            remaining -= allocated;
+        }
+
+        // Hand each level's allocation to its orders in time priority
+        for (int i = 0; i < size; i++) {
+            long fill;
+            if (level[i] == MARKET) {
+                if (buy[i]) {
+                    fill = Math.min(quantity[i], marketBuyLeft);
+                    marketBuyLeft -= fill;
+                } else {
+                    fill = Math.min(quantity[i], marketSellLeft);
+                    marketSellLeft -= fill;
+                }
+            } else {
+                long[] allocation = buy[i] ? buyScratch : sellScratch;
+                fill = Math.min(quantity[i], allocation[level[i]]);
+                allocation[level[i]] -= fill;
+            }
+            filled[i] = fill;
+        }
+    }
+
+    /**
+     * The equilibrium price level of the last uncross, or -1 if the book did not cross.
+     */
+    public int getPriceLevel() {
+        return priceLevel;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    public long getImbalance() {
+        return imbalance;
+    }
+
+    /**
+     * Quantity the order at the given index was filled by the last uncross.
+     */
+    public long filled(int index) {
+        return filled[index];
+    }
+}
@@ -0,0 +1,18 @@
+package com.umi.tradestar.audit;
+
+import lombok.Value;
+
+/**
+ * One audit record.
+ *
+ * @author VrushankPatel
+ */
+@Value
+public class AuditEvent {
+    long timestamp;   // Epoch millis at which the event happened
+    AuditEventType type;
+    long traderId;    // The user the event is about, 0 if unknown
+    long actorId;     // The authenticated user who caused it, 0 for the system or an anonymous request
+    long orderId;     // The order's database id, 0 for user events
+    String detail;    // Client order id for order events, email for user events; may be null
+}
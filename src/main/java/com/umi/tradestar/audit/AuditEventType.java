@@ -0,0 +1,41 @@
+package com.umi.tradestar.audit;
+
+import com.umi.tradestar.lifecycle.OrderEvent;
+
+/**
+ * What an audit record is about. Stored by ordinal, so new types are only ever added at the end.
+ *
+ * @author VrushankPatel
+ */
+public enum AuditEventType {
+    LOGIN,
+    LOGIN_FAILED,
+    REGISTER,
+    USER_ENABLED,
+    USER_DISABLED,
+    ORDER_ACCEPT,
+    ORDER_REJECT,
+    ORDER_PARTIAL_FILL,
+    ORDER_FILL,
+    ORDER_CANCEL_REQUEST,
+    ORDER_CANCEL_REJECT,
+    ORDER_CANCEL,
+    ORDER_REPLACE_REQUEST,
+    ORDER_REPLACE_REJECT,
+    ORDER_REPLACE,
+    ORDER_EXPIRE;
+
+    static final AuditEventType[] VALUES = values();
+
+    private static final AuditEventType[] BY_ORDER_EVENT = new AuditEventType[OrderEvent.values().length];
+
+    static {
+        for (OrderEvent event : OrderEvent.values()) {
+            BY_ORDER_EVENT[event.ordinal()] = valueOf("ORDER_" + event.name());
+        }
+    }
+
+    public static AuditEventType of(OrderEvent event) {
+        return BY_ORDER_EVENT[event.ordinal()];
+    }
+}
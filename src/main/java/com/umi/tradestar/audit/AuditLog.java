@@ -0,0 +1,347 @@
+package com.umi.tradestar.audit;
+
+import com.umi.tradestar.lifecycle.OrderEvent;
+import com.umi.tradestar.lifecycle.OrderEventListener;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+/**
+ * Audit trail of order lifecycle events and user authentication and administration, written to a
+ * compressed, segmented, append-only log on local disk (see {@link AuditLogFile}).
+ *
+ * Recording only offers the event to a bounded queue and never waits: if the queue is full the event
+ * is dropped and counted, and the request goes on. A single writer thread drains the queue, packs
+ * events into blocks of about {@code blockBytes}, compresses each block and appends it to the current
+ * segment, starting a new segment once it exceeds {@code segmentBytes}. A partly filled block is
+ * written after {@code flushIntervalMillis}, so an event reaches the disk within about that long.
+ *
+ * Order events are recorded once their transaction commits, so the trail holds exactly the
+ * transitions that were stored.
+ *
+ * @author VrushankPatel
+ */
+public class AuditLog implements OrderEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLog.class);
+
+    private static final int DRAIN_BATCH = 1024;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final ArrayBlockingQueue<AuditEvent> queue;
+    private final int blockBytes;
+    private final long segmentBytes;
+    private final long flushIntervalMillis;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * @param directory           where the segments are written
+     * @param queueCapacity       events waiting for the writer before new ones are dropped
+     * @param blockBytes          uncompressed size at which a block is compressed and written
+     * @param segmentBytes        compressed size at which a new segment is started
+     * @param flushIntervalMillis longest time an event waits in a partly filled block
+     */
+    public AuditLog(Path directory, int queueCapacity, int blockBytes, long segmentBytes, long flushIntervalMillis) {
+        this.enabled = true;
+        this.directory = directory;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.blockBytes = blockBytes;
+        this.segmentBytes = segmentBytes;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    private AuditLog() {
+        this.enabled = false;
+        this.directory = null;
+        this.queue = null;
+        this.blockBytes = 0;
+        this.segmentBytes = 0;
+        this.flushIntervalMillis = 0;
+    }
+
+    /**
+     * Audit log that records nothing.
+     */
+    public static AuditLog disabled() {
+        return new AuditLog();
+    }
+
+    /**
+     * Queue an event for writing, or drop it if the writer is too far behind.
+     */
+    public void record(AuditEventType type, long traderId, String detail) {
+        record(type, traderId, currentUserId(), 0, detail);
+    }
+
+    private void record(AuditEventType type, long traderId, long actorId, long orderId, String detail) {
+        if (!enabled) {
+            return;
+        }
+        if (!queue.offer(new AuditEvent(System.currentTimeMillis(), type, traderId, actorId, orderId, detail))) {
+            long total = dropped.incrementAndGet();
+            if (total == 1 || total % 10_000 == 0) {
+                logger.error("Audit log queue is full, {} events dropped so far", total);
+            }
+        }
+    }
+
+    @Override
+    public void onOrderEvent(Order order, OrderEvent event, OrderStatus previous) {
+        if (!enabled) {
+            return;
+        }
+        AuditEventType type = AuditEventType.of(event);
+        long actorId = currentUserId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // The order id of a new order is only assigned when it is saved, later in the transaction
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recordOrder(order, type, actorId);
+                }
+            });
+        } else {
+            recordOrder(order, type, actorId);
+        }
+    }
+
+    private void recordOrder(Order order, AuditEventType type, long actorId) {
+        User trader = order.getTrader();
+        record(type, trader != null && trader.getId() != null ? trader.getId() : 0, actorId,
+                order.getId() != null ? order.getId() : 0, order.getOrderId());
+    }
+
+    private static long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof User user && user.getId() != null
+                ? user.getId() : 0;
+    }
+
+    /**
+     * Written events of a trader, or of everyone if {@code traderId} is null, in {@code [from, to)}.
+     */
+    public List<AuditEvent> find(Long traderId, long fromMillis, long toMillis, int limit) {
+        if (!enabled) {
+            return List.of();
+        }
+        try {
+            return AuditLogFile.find(directory, traderId, fromMillis, toMillis, limit);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read audit log " + directory, ex);
+        }
+    }
+
+    public int getQueued() {
+        return enabled ? queue.size() : 0;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public synchronized void start() {
+        if (!enabled || writer != null) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::run, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Writing the audit log to {}", directory);
+    }
+
+    /**
+     * Write out everything queued so far and stop the writer.
+     */
+    public synchronized void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        // Not interrupted: an interrupt would close the segment's file channels mid-write
+        try {
+            writer.join(flushIntervalMillis + TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+
+    private void run() {
+        Block block = new Block(blockBytes);
+        List<AuditEvent> batch = new ArrayList<>(DRAIN_BATCH);
+        AuditLogFile.SegmentWriter segment = null;
+        long nextSegment;
+        try {
+            nextSegment = AuditLogFile.lastSegment(directory) + 1;
+        } catch (IOException ex) {
+            logger.error("Cannot list audit log {}, audit logging stopped:", directory, ex);
+            return;
+        }
+        long blockStarted = 0;
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEvent first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, DRAIN_BATCH - 1);
+                }
+            } catch (InterruptedException ex) {
+                running = false;
+            }
+            try {
+                for (AuditEvent event : batch) {
+                    if (block.isEmpty()) {
+                        blockStarted = System.currentTimeMillis();
+                    }
+                    block.add(event);
+                    if (block.size() >= blockBytes) {
+                        segment = write(block, segment, nextSegment);
+                    }
+                }
+                if (!block.isEmpty() && System.currentTimeMillis() - blockStarted >= flushIntervalMillis) {
+                    segment = write(block, segment, nextSegment);
+                }
+                if (segment != null && segment.size() >= segmentBytes) {
+                    segment.close();
+                    segment = null;
+                    nextSegment++;
+                }
+            } catch (IOException ex) {
+                logger.error("Could not write audit log {}, {} events lost:", directory, block.count, ex);
+                dropped.addAndGet(block.count);
+                block.clear();
+                // The segment may end in a partial block, so carry on in a new one
+                closeQuietly(segment);
+                segment = null;
+                nextSegment++;
+            }
+            batch.clear();
+        }
+        try {
+            if (!block.isEmpty()) {
+                segment = write(block, segment, nextSegment);
+            }
+            if (segment != null) {
+                segment.close();
+            }
+        } catch (IOException ex) {
+            logger.error("Could not close audit log {}:", directory, ex);
+        } finally {
+            block.end();
+        }
+    }
+
+    private void closeQuietly(AuditLogFile.SegmentWriter segment) {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException ex) {
+            logger.warn("Could not close audit log segment in {}:", directory, ex);
+        }
+    }
+
+    private AuditLogFile.SegmentWriter write(Block block, AuditLogFile.SegmentWriter segment, long segmentNumber)
+            throws IOException {
+        if (segment == null) {
+            segment = new AuditLogFile.SegmentWriter(directory, segmentNumber);
+        }
+        block.writeTo(segment);
+        written.addAndGet(block.count);
+        block.clear();
+        return segment;
+    }
+
+    /**
+     * Events collected for the next block, with the block's index fields.
+     */
+    private static final class Block {
+        private final ByteArrayOutputStream raw;
+        private final DataOutputStream out;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private byte[] compressed;
+        private int count;
+        private long minTime;
+        private long maxTime;
+        private long traderMask;
+
+        Block(int blockBytes) {
+            raw = new ByteArrayOutputStream(blockBytes + 256);
+            out = new DataOutputStream(raw);
+            compressed = new byte[blockBytes / 2 + 64];
+            clear();
+        }
+
+        void add(AuditEvent event) throws IOException {
+            AuditLogFile.encode(out, event);
+            count++;
+            minTime = Math.min(minTime, event.getTimestamp());
+            maxTime = Math.max(maxTime, event.getTimestamp());
+            traderMask |= AuditLogFile.traderBit(event.getTraderId());
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        int size() {
+            return raw.size();
+        }
+
+        void writeTo(AuditLogFile.SegmentWriter segment) throws IOException {
+            byte[] input = raw.toByteArray();
+            deflater.reset();
+            deflater.setInput(input);
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+            segment.append(compressed, length, input.length, count, minTime, maxTime, traderMask);
+        }
+
+        void clear() {
+            raw.reset();
+            count = 0;
+            minTime = Long.MAX_VALUE;
+            maxTime = Long.MIN_VALUE;
+            traderMask = 0;
+        }
+
+        void end() {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.umi.tradestar.audit;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * On-disk format of the audit log.
+ *
+ * The log is a directory of numbered segments. Each segment is a pair of files: {@code audit-N.log}
+ * holds compressed blocks of records and {@code audit-N.idx} holds one fixed size entry per block.
+ * Segments are only ever appended to; a restarted writer starts a new one.
+ *
+ * The log file starts with a header of magic number and format version. Each block is the compressed
+ * length, the uncompressed length and the Deflate-compressed records. A record is the timestamp, type
+ * ordinal, trader id, actor id, order id and optional detail, as written by {@link DataOutputStream}.
+ *
+ * An index entry holds the block's offset and lengths, its record count, the lowest and highest
+ * timestamp in it, and a 64-bit mask with one bit set per trader in it. A lookup by trader and time
+ * only decompresses the blocks whose time range overlaps and whose mask has the trader's bit.
+ *
+ * @author VrushankPatel
+ */
+public final class AuditLogFile {
+
+    static final int LOG_MAGIC = 0x5453414C; // "TSAL"
+    static final int INDEX_MAGIC = 0x54534149; // "TSAI"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 6;
+    static final int INDEX_ENTRY_BYTES = 44;
+
+    private static final String PREFIX = "audit-";
+
+    private AuditLogFile() {
+    }
+
+    static void encode(DataOutputStream out, AuditEvent event) throws IOException {
+        out.writeLong(event.getTimestamp());
+        out.writeByte(event.getType().ordinal());
+        out.writeLong(event.getTraderId());
+        out.writeLong(event.getActorId());
+        out.writeLong(event.getOrderId());
+        out.writeBoolean(event.getDetail() != null);
+        if (event.getDetail() != null) {
+            out.writeUTF(event.getDetail());
+        }
+    }
+
+    static AuditEvent decode(DataInputStream in) throws IOException {
+        long timestamp = in.readLong();
+        AuditEventType type = AuditEventType.VALUES[in.readUnsignedByte()];
+        long traderId = in.readLong();
+        long actorId = in.readLong();
+        long orderId = in.readLong();
+        String detail = in.readBoolean() ? in.readUTF() : null;
+        return new AuditEvent(timestamp, type, traderId, actorId, orderId, detail);
+    }
+
+    /**
+     * The bit of a block's trader mask that stands for a trader.
+     */
+    static long traderBit(long traderId) {
+        return 1L << ((traderId * 0x9E3779B97F4A7C15L) >>> 58);
+    }
+
+    /**
+     * Number of the newest segment in the directory, or 0 if there is none.
+     */
+    static long lastSegment(Path directory) throws IOException {
+        TreeMap<Long, Path> segments = segments(directory);
+        return segments.isEmpty() ? 0 : segments.lastKey();
+    }
+
+    /**
+     * Segment number to index file, oldest first.
+     */
+    private static TreeMap<Long, Path> segments(Path directory) throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*.idx")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segments.put(Long.parseLong(name.substring(PREFIX.length(), name.length() - 4)), file);
+                } catch (NumberFormatException ex) {
+                    // Not one of ours
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static Path path(Path directory, long segment, String extension) {
+        return directory.resolve(String.format("%s%08d.%s", PREFIX, segment, extension));
+    }
+
+    /**
+     * Events of a trader, or of everyone if {@code traderId} is null, from {@code from} up to but not
+     * including {@code to}, in the order they were written.
+     *
+     * @param limit stop after this many events
+     */
+    public static List<AuditEvent> find(Path directory, Long traderId, long from, long to, int limit) throws IOException {
+        List<AuditEvent> events = new ArrayList<>();
+        Inflater inflater = new Inflater();
+        try {
+            for (Map.Entry<Long, Path> segment : segments(directory).entrySet()) {
+                if (events.size() >= limit) {
+                    break;
+                }
+                findInSegment(path(directory, segment.getKey(), "log"), segment.getValue(), traderId, from, to, limit,
+                        inflater, events);
+            }
+        } finally {
+            inflater.end();
+        }
+        return events;
+    }
+
+    private static void findInSegment(Path logPath, Path indexPath, Long traderId, long from, long to, int limit,
+                                      Inflater inflater, List<AuditEvent> events) throws IOException {
+        long traderBit = traderId != null ? traderBit(traderId) : -1L;
+        try (FileChannel index = FileChannel.open(indexPath, StandardOpenOption.READ);
+             FileChannel log = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            checkHeader(index, INDEX_MAGIC, indexPath);
+            checkHeader(log, LOG_MAGIC, logPath);
+            // Only entries that were written completely; the writer may be appending the next one
+            long entries = (index.size() - HEADER_BYTES) / INDEX_ENTRY_BYTES;
+            ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+            for (long i = 0; i < entries && events.size() < limit; i++) {
+                entry.clear();
+                readFully(index, entry, HEADER_BYTES + i * INDEX_ENTRY_BYTES);
+                entry.flip();
+                long offset = entry.getLong();
+                int compressedLength = entry.getInt();
+                int rawLength = entry.getInt();
+                int count = entry.getInt();
+                long minTime = entry.getLong();
+                long maxTime = entry.getLong();
+                long traderMask = entry.getLong();
+                if (maxTime < from || minTime >= to || (traderMask & traderBit) == 0) {
+                    continue;
+                }
+                ByteBuffer compressed = ByteBuffer.allocate(compressedLength);
+                readFully(log, compressed, offset + 8);
+                byte[] raw = inflate(inflater, compressed.array(), rawLength, logPath);
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+                for (int j = 0; j < count && events.size() < limit; j++) {
+                    AuditEvent event = decode(in);
+                    if (event.getTimestamp() >= from && event.getTimestamp() < to
+                            && (traderId == null || event.getTraderId() == traderId)) {
+                        events.add(event);
+                    }
+                }
+            }
+        }
+    }
+
+    private static byte[] inflate(Inflater inflater, byte[] compressed, int rawLength, Path path) throws IOException {
+        inflater.reset();
+        inflater.setInput(compressed);
+        byte[] raw = new byte[rawLength];
+        try {
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != rawLength) {
+                throw new IOException("Truncated audit block in " + path);
+            }
+        } catch (DataFormatException ex) {
+            throw new IOException("Corrupt audit block in " + path, ex);
+        }
+        return raw;
+    }
+
+    private static void checkHeader(FileChannel channel, int magic, Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(channel, header, 0);
+        header.flip();
+        if (header.getInt() != magic) {
+            throw new IOException("Not an audit log file: " + path);
+        }
+        short version = header.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported audit log version " + version + " in " + path);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of audit log file");
+            }
+        }
+    }
+
+    /**
+     * Appends blocks to a new segment.
+     */
+    static final class SegmentWriter implements Closeable {
+        private final FileChannel log;
+        private final FileChannel index;
+        private final ByteBuffer lengths = ByteBuffer.allocate(8);
+        private final ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+        private long size;
+
+        SegmentWriter(Path directory, long segment) throws IOException {
+            Files.createDirectories(directory);
+            log = FileChannel.open(path(directory, segment, "log"), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            index = FileChannel.open(path(directory, segment, "idx"), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            writeHeader(log, LOG_MAGIC);
+            writeHeader(index, INDEX_MAGIC);
+            size = HEADER_BYTES;
+        }
+
+        private static void writeHeader(FileChannel channel, int magic) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(magic).putShort(VERSION);
+            header.flip();
+            writeFully(channel, header);
+        }
+
+        /**
+         * Append a block, then its index entry, so an entry never points past the end of the log.
+         */
+        void append(byte[] compressed, int compressedLength, int rawLength, int count,
+                    long minTime, long maxTime, long traderMask) throws IOException {
+            long offset = size;
+            lengths.clear();
+            lengths.putInt(compressedLength).putInt(rawLength).flip();
+            writeFully(log, lengths);
+            writeFully(log, ByteBuffer.wrap(compressed, 0, compressedLength));
+            size += 8 + compressedLength;
+
+            entry.clear();
+            entry.putLong(offset).putInt(compressedLength).putInt(rawLength).putInt(count)
+                    .putLong(minTime).putLong(maxTime).putLong(traderMask).flip();
+            writeFully(index, entry);
+        }
+
+        long size() {
+            return size;
+        }
+
+        private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                log.close();
+            } finally {
+                index.close();
+            }
+        }
+    }
+}
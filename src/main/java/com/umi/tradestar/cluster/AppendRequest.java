@@ -0,0 +1,27 @@
+package com.umi.tradestar.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Replication request sent by a leader to a follower.
+ * The follower accepts the entries only if its copy of the leader's journal contains the entry at
+ * {@code prevIndex} with term {@code prevTerm}, and drops anything it holds after that entry.
+ *
+ * @author VrushankPatel
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppendRequest {
+
+    private String leaderId;
+    private long term;
+    private long prevIndex;
+    private long prevTerm;
+    private long commitIndex;
+    private List<JournalEntry> entries;
+}
@@ -0,0 +1,30 @@
+package com.umi.tradestar.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Follower reply to an {@link AppendRequest}.
+ * On rejection {@code lastIndex} tells the leader where the follower's copy of its journal ends,
+ * and {@code term} carries the follower's term so a stale leader can step down.
+ *
+ * @author VrushankPatel
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppendResponse {
+
+    private boolean success;
+    private long term;
+    private long lastIndex;
+
+    public static AppendResponse accepted(long term, long lastIndex) {
+        return new AppendResponse(true, term, lastIndex);
+    }
+
+    public static AppendResponse rejected(long term, long lastIndex) {
+        return new AppendResponse(false, term, lastIndex);
+    }
+}
@@ -0,0 +1,56 @@
+package com.umi.tradestar.cluster;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Internal endpoints used by cluster peers for journal replication and heartbeats.
+ * Only registered in cluster mode and protected by the shared cluster token rather than user JWTs.
+ *
+ * @author VrushankPatel
+ */
+@Hidden
+@RestController
+@RequestMapping("/internal/cluster")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "tradestar.cluster.enabled", havingValue = "true")
+public class ClusterController {
+
+    private final ClusterCoordinator clusterCoordinator;
+
+    @Value("${tradestar.cluster.token}")
+    private String clusterToken;
+
+    @PostMapping("/append")
+    public ResponseEntity<AppendResponse> append(
+            @RequestHeader(HttpClusterTransport.CLUSTER_TOKEN_HEADER) String token,
+            @RequestBody AppendRequest request) {
+        if (!isValidToken(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(clusterCoordinator.onAppend(request));
+    }
+
+    @PostMapping("/heartbeat")
+    public ResponseEntity<Void> heartbeat(
+            @RequestHeader(HttpClusterTransport.CLUSTER_TOKEN_HEADER) String token,
+            @RequestBody Heartbeat heartbeat) {
+        if (!isValidToken(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        clusterCoordinator.onHeartbeat(heartbeat);
+        return ResponseEntity.ok().build();
+    }
+
+    private boolean isValidToken(String token) {
+        return MessageDigest.isEqual(clusterToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,167 @@
+package com.umi.tradestar.cluster;
+
+import com.umi.tradestar.exception.OrderProcessingException;
+import com.umi.tradestar.exception.SymbolOwnershipException;
+import com.umi.tradestar.refdata.SymbolDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of the order path into the cluster.
+ * Checks that this node owns an order's symbol and replicates accepted order commands before they
+ * are acknowledged. A standalone coordinator owns every symbol and does not replicate.
+ *
+ * @author VrushankPatel
+ */
+public class ClusterCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterCoordinator.class);
+
+    private final ClusterMembership membership;
+    private final ReplicatedJournal journal;
+    private final ClusterTransport transport;
+    private final long heartbeatIntervalMillis;
+    private ScheduledExecutorService scheduler;
+
+    public ClusterCoordinator(ClusterMembership membership, ReplicatedJournal journal,
+                              ClusterTransport transport, long heartbeatIntervalMillis) {
+        this.membership = membership;
+        this.journal = journal;
+        this.transport = transport;
+        this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+    }
+
+    /**
+     * Coordinator for a single node running without a cluster.
+     */
+    public static ClusterCoordinator standalone() {
+        return new ClusterCoordinator(null, null, null, 0);
+    }
+
+    public boolean isEnabled() {
+        return membership != null;
+    }
+
+    public ClusterMembership getMembership() {
+        return membership;
+    }
+
+    public ReplicatedJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Make sure this node owns the symbol.
+     *
+     * @param symbol the order's symbol
+     * @throws SymbolOwnershipException carrying the owner to redirect the client to
+     */
+    public void ensureLocalOwner(SymbolDefinition symbol) {
+        if (membership == null) {
+            return;
+        }
+        ClusterMember owner = membership.ownerOf(symbol.getId());
+        if (!membership.isSelf(owner.getNodeId())) {
+            throw new SymbolOwnershipException(symbol.getSymbol(), owner.getNodeId(), owner.getBaseUrl());
+        }
+    }
+
+    /**
+     * Whether this node owns the symbol and so runs its auctions. A standalone node owns every symbol.
+     */
+    public boolean isLocalOwner(int symbolId) {
+        return membership == null || membership.isLocalOwner(symbolId);
+    }
+
+    /**
+     * Replicate an order command to a quorum before it is acknowledged to the client.
+     *
+     * @param command the accepted command
+     * @throws OrderProcessingException if no quorum was reached
+     */
+    public void replicate(OrderCommand command) {
+        if (journal == null) {
+            return;
+        }
+        journal.append(command.getSymbolId(), command.encode());
+    }
+
+    /**
+     * Journal that a replicated command was not stored, so whoever reads the journal ignores it.
+     * Failing to reach a quorum is logged rather than thrown, as the caller is already failing.
+     *
+     * @param command the replicated command
+     */
+    public void revoke(OrderCommand command) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(command.getSymbolId(), OrderCommand.revoke(command).encode());
+        } catch (OrderProcessingException ex) {
+            logger.error("Could not journal that {} {} was not stored: {}", command.getType(), command.getOrderId(),
+                    ex.getMessage());
+        }
+    }
+
+    public AppendResponse onAppend(AppendRequest request) {
+        return journal.onAppend(request);
+    }
+
+    public void onHeartbeat(Heartbeat heartbeat) {
+        membership.recordHeartbeat(heartbeat.getNodeId(), System.nanoTime());
+        membership.observeTerm(heartbeat.getTerm());
+        journal.onLeaderCommit(heartbeat.getNodeId(), heartbeat.getCommitIndex());
+    }
+
+    /**
+     * Send heartbeats to all peers and re-evaluate which peers are alive.
+     * Runs periodically once started, and can be driven directly in tests.
+     */
+    public void tick() {
+        Heartbeat heartbeat = new Heartbeat(membership.getSelf().getNodeId(), membership.getTerm(),
+                journal.commitIndex(membership.getSelf().getNodeId()));
+        List<ClusterMember> members = membership.getMembers();
+        for (ClusterMember member : members) {
+            if (!membership.isSelf(member.getNodeId())) {
+                transport.heartbeat(member.getNodeId(), heartbeat);
+            }
+        }
+        if (membership.refreshLiveness(System.nanoTime())) {
+            logger.warn("Cluster view changed: live members {} in term {}",
+                    membership.getLiveMembers().stream().map(ClusterMember::getNodeId).toList(), membership.getTerm());
+        }
+    }
+
+    public synchronized void start() {
+        if (membership == null || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                tick();
+            } catch (RuntimeException ex) {
+                logger.error("Cluster heartbeat failed:", ex);
+            }
+        }, heartbeatIntervalMillis, heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Cluster node {} started with members {}", membership.getSelf().getNodeId(),
+                membership.getMembers().stream().map(ClusterMember::getNodeId).toList());
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.umi.tradestar.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A node of the Tradestar cluster, identified by a stable node ID and the base URL clients are redirected to.
+ *
+ * @author VrushankPatel
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterMember {
+
+    private String nodeId;
+    private String baseUrl;
+}
@@ -0,0 +1,176 @@
+package com.umi.tradestar.cluster;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks which cluster members are alive and which member owns each symbol.
+ *
+ * Liveness is driven by heartbeats: a peer is considered down once no heartbeat has been seen for
+ * the configured failure timeout. Every change of the live set starts a new term, which followers
+ * use to fence off leaders that are still acting on an older view of the cluster.
+ *
+ * Symbol ownership uses rendezvous hashing of symbol ids over the live members, so every node
+ * computes the same owner from the same view, and a failed node's symbols are spread over the
+ * survivors without moving any other symbol. Owners are cached in an array indexed by symbol id.
+ *
+ * @author VrushankPatel
+ */
+public class ClusterMembership {
+
+    private final ClusterMember self;
+    private final Map<String, ClusterMember> members;
+    private final long failureTimeoutNanos;
+    private final Map<String, Long> lastSeenNanos = new ConcurrentHashMap<>();
+    private final AtomicLong term = new AtomicLong(1);
+
+    private volatile List<ClusterMember> liveMembers;
+    // Copy-on-write, so readers never see a partly filled array
+    private volatile ClusterMember[] ownerCache = new ClusterMember[0];
+
+    public ClusterMembership(ClusterMember self, List<ClusterMember> members, long failureTimeoutMillis) {
+        this.self = self;
+        this.members = new LinkedHashMap<>();
+        for (ClusterMember member : members) {
+            this.members.put(member.getNodeId(), member);
+        }
+        this.members.putIfAbsent(self.getNodeId(), self);
+        this.failureTimeoutNanos = failureTimeoutMillis * 1_000_000L;
+
+        // Assume every configured member is up until it misses its first heartbeats
+        long now = System.nanoTime();
+        this.members.keySet().forEach(nodeId -> lastSeenNanos.put(nodeId, now));
+        this.liveMembers = List.copyOf(this.members.values());
+    }
+
+    public ClusterMember getSelf() {
+        return self;
+    }
+
+    public List<ClusterMember> getMembers() {
+        return List.copyOf(members.values());
+    }
+
+    public List<ClusterMember> getLiveMembers() {
+        return liveMembers;
+    }
+
+    public ClusterMember getMember(String nodeId) {
+        return members.get(nodeId);
+    }
+
+    public long getTerm() {
+        return term.get();
+    }
+
+    /**
+     * Number of acknowledgements (including the leader's own) needed to commit a journal entry.
+     * Based on the configured cluster size, not the live set, so a partitioned minority cannot commit.
+     */
+    public int quorum() {
+        return members.size() / 2 + 1;
+    }
+
+    public boolean isSelf(String nodeId) {
+        return self.getNodeId().equals(nodeId);
+    }
+
+    /**
+     * Adopt a higher term seen from a peer.
+     *
+     * @return true if the local term was raised
+     */
+    public boolean observeTerm(long observed) {
+        long current = term.get();
+        while (observed > current) {
+            if (term.compareAndSet(current, observed)) {
+                return true;
+            }
+            current = term.get();
+        }
+        return false;
+    }
+
+    public void recordHeartbeat(String nodeId, long nanoTime) {
+        if (members.containsKey(nodeId)) {
+            lastSeenNanos.put(nodeId, nanoTime);
+        }
+    }
+
+    /**
+     * Recompute the live set from the last heartbeats.
+     *
+     * @return true if the live set changed and a new term was started
+     */
+    public synchronized boolean refreshLiveness(long nanoTime) {
+        List<ClusterMember> live = new ArrayList<>(members.size());
+        for (ClusterMember member : members.values()) {
+            if (isSelf(member.getNodeId()) || nanoTime - lastSeenNanos.get(member.getNodeId()) < failureTimeoutNanos) {
+                live.add(member);
+            }
+        }
+        if (live.equals(liveMembers)) {
+            return false;
+        }
+        liveMembers = List.copyOf(live);
+        // Caching an owner also synchronizes on this, so no owner from the old view can be cached after this
+        ownerCache = new ClusterMember[0];
+        term.incrementAndGet();
+        return true;
+    }
+
+    public boolean isLive(String nodeId) {
+        for (ClusterMember member : liveMembers) {
+            if (member.getNodeId().equals(nodeId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public ClusterMember ownerOf(int symbolId) {
+        ClusterMember[] owners = ownerCache;
+        if (symbolId < owners.length && owners[symbolId] != null) {
+            return owners[symbolId];
+        }
+        return cacheOwner(symbolId);
+    }
+
+    public boolean isLocalOwner(int symbolId) {
+        return isSelf(ownerOf(symbolId).getNodeId());
+    }
+
+    private synchronized ClusterMember cacheOwner(int symbolId) {
+        ClusterMember[] owners = Arrays.copyOf(ownerCache, Math.max(ownerCache.length, symbolId + 1));
+        if (owners[symbolId] == null) {
+            owners[symbolId] = computeOwner(symbolId);
+        }
+        ownerCache = owners;
+        return owners[symbolId];
+    }
+
+    private ClusterMember computeOwner(int symbolId) {
+        ClusterMember owner = null;
+        long bestScore = Long.MIN_VALUE;
+        for (ClusterMember member : liveMembers) {
+            long score = mix(((long) symbolId << 32) | (member.getNodeId().hashCode() & 0xffffffffL));
+            if (owner == null || score > bestScore) {
+                owner = member;
+                bestScore = score;
+            }
+        }
+        return owner;
+    }
+
+    // SplitMix64 finalizer; dense symbol ids and similar node names would otherwise cluster badly
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
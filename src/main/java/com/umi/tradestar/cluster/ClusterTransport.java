@@ -0,0 +1,27 @@
+package com.umi.tradestar.cluster;
+
+/**
+ * Transport used by cluster nodes to talk to each other.
+ * Implementations must be thread-safe and should fail fast instead of blocking on unreachable peers.
+ *
+ * @author VrushankPatel
+ */
+public interface ClusterTransport {
+
+    /**
+     * Send an append request to a follower.
+     *
+     * @param targetNodeId the follower node
+     * @param request the entries to replicate
+     * @return the follower's response, or null if the follower could not be reached
+     */
+    AppendResponse append(String targetNodeId, AppendRequest request);
+
+    /**
+     * Send a heartbeat to a peer. Failures are ignored; the peer will mark us down on its own.
+     *
+     * @param targetNodeId the peer node
+     * @param heartbeat the heartbeat to deliver
+     */
+    void heartbeat(String targetNodeId, Heartbeat heartbeat);
+}
@@ -0,0 +1,22 @@
+package com.umi.tradestar.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Liveness message exchanged between cluster nodes.
+ * Also propagates the sender's term and the commit index of its journal, so followers learn about
+ * the last commit even when no further entries follow.
+ *
+ * @author VrushankPatel
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Heartbeat {
+
+    private String nodeId;
+    private long term;
+    private long commitIndex;
+}
@@ -0,0 +1,84 @@
+package com.umi.tradestar.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Transport that talks to peer nodes over HTTP through {@link ClusterController}.
+ * Works across processes on loopback as well as across hosts.
+ *
+ * @author VrushankPatel
+ */
+public class HttpClusterTransport implements ClusterTransport {
+
+    public static final String CLUSTER_TOKEN_HEADER = "X-Cluster-Token";
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpClusterTransport.class);
+
+    private final ClusterMembership membership;
+    private final ObjectMapper objectMapper;
+    private final String clusterToken;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+
+    public HttpClusterTransport(ClusterMembership membership, ObjectMapper objectMapper,
+                                String clusterToken, long requestTimeoutMillis) {
+        this.membership = membership;
+        this.objectMapper = objectMapper;
+        this.clusterToken = clusterToken;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(requestTimeout)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @Override
+    public AppendResponse append(String targetNodeId, AppendRequest request) {
+        try {
+            HttpResponse<byte[]> response = post(targetNodeId, "/internal/cluster/append", request);
+            if (response.statusCode() != 200) {
+                logger.warn("Append to {} returned status {}", targetNodeId, response.statusCode());
+                return null;
+            }
+            return objectMapper.readValue(response.body(), AppendResponse.class);
+        } catch (IOException ex) {
+            logger.debug("Append to {} failed: {}", targetNodeId, ex.getMessage());
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    @Override
+    public void heartbeat(String targetNodeId, Heartbeat heartbeat) {
+        try {
+            post(targetNodeId, "/internal/cluster/heartbeat", heartbeat);
+        } catch (IOException ex) {
+            logger.debug("Heartbeat to {} failed: {}", targetNodeId, ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpResponse<byte[]> post(String targetNodeId, String path, Object body)
+            throws IOException, InterruptedException {
+        ClusterMember target = membership.getMember(targetNodeId);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target.getBaseUrl() + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header(CLUSTER_TOKEN_HEADER, clusterToken)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
@@ -0,0 +1,23 @@
+package com.umi.tradestar.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single entry of a node's order journal.
+ * Entries are numbered per leader, starting at 1, and carry the leader's journal term when it wrote them.
+ * A leader raises its journal term only when it takes back entries it could not commit.
+ *
+ * @author VrushankPatel
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalEntry {
+
+    private long term;
+    private long index;
+    private int symbolId;
+    private byte[] payload; // Encoded OrderCommand
+}
@@ -0,0 +1,141 @@
+package com.umi.tradestar.cluster;
+
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.model.enums.TimeInForce;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+
+/**
+ * An order command as recorded in the order journal.
+ * Commands are encoded into a compact binary form so followers can store them without understanding them.
+ *
+ * @author VrushankPatel
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCommand {
+
+    public enum Type {
+        NEW,
+        CANCEL,
+        REVOKE // The order's last journaled command was not stored and has no effect
+    }
+
+    private Type type;
+    private String orderId;
+    private int symbolId;
+    private OrderSide side;
+    private OrderType orderType;
+    private TimeInForce timeInForce;
+    private BigDecimal quantity;
+    private BigDecimal price;
+    private Long traderId;
+    private long timestamp; // Epoch millis at which the command was accepted
+
+    public static OrderCommand newOrder(Order order) {
+        return OrderCommand.builder()
+                .type(Type.NEW)
+                .orderId(order.getOrderId())
+                .symbolId(order.getSymbolId())
+                .side(order.getSide())
+                .orderType(order.getOrderType())
+                .timeInForce(order.getTimeInForce())
+                .quantity(order.getQuantity())
+                .price(order.getPrice())
+                .traderId(order.getTrader() != null ? order.getTrader().getId() : null)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+
+    public static OrderCommand cancel(Order order) {
+        return OrderCommand.builder()
+                .type(Type.CANCEL)
+                .orderId(order.getOrderId())
+                .symbolId(order.getSymbolId())
+                .traderId(order.getTrader() != null ? order.getTrader().getId() : null)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+
+    /**
+     * Command revoking a journaled command whose change could not be stored.
+     */
+    public static OrderCommand revoke(OrderCommand command) {
+        return OrderCommand.builder()
+                .type(Type.REVOKE)
+                .orderId(command.getOrderId())
+                .symbolId(command.getSymbolId())
+                .traderId(command.getTraderId())
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type.ordinal());
+            out.writeLong(timestamp);
+            writeString(out, orderId);
+            out.writeInt(symbolId);
+            out.writeByte(side != null ? side.ordinal() : -1);
+            out.writeByte(orderType != null ? orderType.ordinal() : -1);
+            out.writeByte(timeInForce != null ? timeInForce.ordinal() : -1);
+            writeString(out, quantity != null ? quantity.toPlainString() : null);
+            writeString(out, price != null ? price.toPlainString() : null);
+            out.writeLong(traderId != null ? traderId : -1L);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static OrderCommand decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            OrderCommand command = new OrderCommand();
+            command.type = Type.values()[in.readByte()];
+            command.timestamp = in.readLong();
+            command.orderId = readString(in);
+            command.symbolId = in.readInt();
+            byte side = in.readByte();
+            command.side = side >= 0 ? OrderSide.values()[side] : null;
+            byte orderType = in.readByte();
+            command.orderType = orderType >= 0 ? OrderType.values()[orderType] : null;
+            byte timeInForce = in.readByte();
+            command.timeInForce = timeInForce >= 0 ? TimeInForce.values()[timeInForce] : null;
+            String quantity = readString(in);
+            command.quantity = quantity != null ? new BigDecimal(quantity) : null;
+            String price = readString(in);
+            command.price = price != null ? new BigDecimal(price) : null;
+            long traderId = in.readLong();
+            command.traderId = traderId >= 0 ? traderId : null;
+            return command;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,361 @@
+package com.umi.tradestar.cluster;
+
+import com.umi.tradestar.exception.OrderProcessingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Order journal replicated with Raft-style quorum append.
+ *
+ * Every node leads its own journal for the symbols it owns and keeps a follower copy of every other
+ * node's journal. An entry is committed once a majority of the configured cluster (the leader included)
+ * has stored it; only then is the order acknowledged. Followers reject appends from leaders with a
+ * stale term or for symbols the leader does not own in the follower's view, which fences off a node
+ * that has been partitioned away but still believes it owns its symbols.
+ *
+ * Leader election is replaced by deterministic ownership from {@link ClusterMembership}: when a node
+ * fails, the survivors agree on the new owner of each of its symbols from the same live set.
+ *
+ * @author VrushankPatel
+ */
+public class ReplicatedJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicatedJournal.class);
+
+    private final ClusterMembership membership;
+    private final ClusterTransport transport;
+    private final ExecutorService replicationExecutor;
+    private final long replicationTimeoutMillis;
+    private final int retainedEntries;
+
+    private final EntryLog localLog;
+    private final Map<String, Long> matchIndex = new ConcurrentHashMap<>();
+    private final Map<String, Object> followerLocks = new ConcurrentHashMap<>();
+    private final Map<String, EntryLog> followerLogs = new ConcurrentHashMap<>();
+
+    public ReplicatedJournal(ClusterMembership membership, ClusterTransport transport,
+                             ExecutorService replicationExecutor, long replicationTimeoutMillis, int retainedEntries) {
+        this.membership = membership;
+        this.transport = transport;
+        this.replicationExecutor = replicationExecutor;
+        this.replicationTimeoutMillis = replicationTimeoutMillis;
+        this.retainedEntries = retainedEntries;
+        this.localLog = new EntryLog(retainedEntries);
+    }
+
+    /**
+     * Append an entry to the local journal and wait until a quorum has stored it.
+     * Only the index assignment and the local append hold the journal lock; concurrent appends wait for
+     * their acknowledgements in parallel. Followers still receive the leader's entries in index order,
+     * since each follower is sent everything after its last acknowledged index, one request at a time.
+     *
+     * @param symbolId the symbol the entry belongs to; followers check the leader owns it
+     * @param payload the encoded command
+     * @return the committed entry
+     * @throws OrderProcessingException if no quorum acknowledged the entry within the timeout
+     */
+    public JournalEntry append(int symbolId, byte[] payload) {
+        JournalEntry entry;
+        synchronized (localLog) {
+            entry = new JournalEntry(localLog.term, localLog.lastIndex + 1, symbolId, payload);
+            localLog.add(entry);
+        }
+
+        int quorum = membership.quorum();
+        int acks = 1 + replicateToFollowers(entry.getIndex(), quorum - 1);
+        synchronized (localLog) {
+            boolean retained = localLog.termAt(entry.getIndex()) == entry.getTerm();
+            // A later entry reaching a quorum carried this one along with it
+            if (retained && (acks >= quorum || localLog.commitIndex >= entry.getIndex())) {
+                localLog.commitIndex = Math.max(localLog.commitIndex, entry.getIndex());
+                return entry;
+            }
+            if (retained) {
+                // Never acknowledged, so take it back along with the uncommitted entries appended after it.
+                // Raising this journal's term makes followers that stored them detect the mismatch and accept
+                // the replacement entries written at the same indexes. It is not the cluster term, so appends
+                // of other leaders are not fenced off by a failure here.
+                localLog.truncateAfter(entry.getIndex() - 1);
+                matchIndex.replaceAll((followerId, index) -> Math.min(index, entry.getIndex() - 1));
+                localLog.term++;
+            }
+        }
+        throw OrderProcessingException.replicationFailed(symbolId, acks, quorum);
+    }
+
+    /**
+     * Replicate to all live followers in parallel and wait until {@code needed} of them stored the entry
+     * at {@code index}, all of them answered, or the replication timeout passed.
+     *
+     * @return the number of followers that acknowledged
+     */
+    private int replicateToFollowers(long index, int needed) {
+        if (needed <= 0) {
+            return 0;
+        }
+        List<ClusterMember> followers = new ArrayList<>();
+        for (ClusterMember member : membership.getLiveMembers()) {
+            if (!membership.isSelf(member.getNodeId())) {
+                followers.add(member);
+            }
+        }
+        if (followers.isEmpty()) {
+            return 0;
+        }
+
+        CountDownLatch done = new CountDownLatch(followers.size());
+        AtomicInteger acks = new AtomicInteger();
+        for (ClusterMember follower : followers) {
+            CompletableFuture.runAsync(() -> {
+                boolean acked = false;
+                try {
+                    acked = replicateTo(follower.getNodeId())
+                            && matchIndex.getOrDefault(follower.getNodeId(), 0L) >= index;
+                } catch (RuntimeException ex) {
+                    logger.warn("Replication to {} failed", follower.getNodeId(), ex);
+                }
+                if (acked && acks.incrementAndGet() >= needed) {
+                    // Quorum reached, release the leader without waiting for slower followers
+                    while (done.getCount() > 0) {
+                        done.countDown();
+                    }
+                } else {
+                    done.countDown();
+                }
+            }, replicationExecutor);
+        }
+        try {
+            done.await(replicationTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return acks.get();
+    }
+
+    /**
+     * Bring one follower up to date with the local journal.
+     * Sends everything after the follower's last acknowledged index and retries once from the index
+     * the follower reports if it turns out to be behind. A response to entries that were taken back while
+     * the request was in flight is ignored.
+     */
+    private boolean replicateTo(String followerId) {
+        synchronized (followerLocks.computeIfAbsent(followerId, id -> new Object())) {
+            for (int attempt = 0; attempt < 2; attempt++) {
+                long prevIndex;
+                List<JournalEntry> entries;
+                long prevTerm;
+                long commitIndex;
+                long truncations;
+                synchronized (localLog) {
+                    prevIndex = matchIndex.getOrDefault(followerId, 0L);
+                    truncations = localLog.truncations;
+                    entries = localLog.from(prevIndex + 1);
+                    prevTerm = localLog.termAt(prevIndex);
+                    commitIndex = localLog.commitIndex;
+                }
+                if (entries == null) {
+                    logger.warn("Follower {} is behind the retained journal (index {}); it needs a state transfer",
+                            followerId, prevIndex);
+                    return false;
+                }
+                if (entries.isEmpty()) {
+                    return true;
+                }
+                AppendResponse response = transport.append(followerId,
+                        new AppendRequest(membership.getSelf().getNodeId(), membership.getTerm(),
+                                prevIndex, prevTerm, commitIndex, entries));
+                if (response == null) {
+                    return false;
+                }
+                if (!response.isSuccess() && membership.observeTerm(response.getTerm())) {
+                    logger.info("Follower {} is at term {}; our view of the cluster is stale", followerId, response.getTerm());
+                    return false;
+                }
+                synchronized (localLog) {
+                    if (localLog.truncations != truncations) {
+                        return false;
+                    }
+                    if (response.isSuccess()) {
+                        matchIndex.put(followerId, response.getLastIndex());
+                        return true;
+                    }
+                    // Follower is behind or holds entries we took back; resend from where it agrees with us
+                    matchIndex.put(followerId, Math.max(0, Math.min(prevIndex - 1, response.getLastIndex())));
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Handle an append request from another node's leader.
+     */
+    public AppendResponse onAppend(AppendRequest request) {
+        EntryLog log = followerLogs.computeIfAbsent(request.getLeaderId(), id -> new EntryLog(retainedEntries));
+        synchronized (log) {
+            long term = membership.getTerm();
+            if (request.getTerm() < term) {
+                return AppendResponse.rejected(term, log.lastIndex);
+            }
+            membership.observeTerm(request.getTerm());
+            membership.recordHeartbeat(request.getLeaderId(), System.nanoTime());
+            for (JournalEntry entry : request.getEntries()) {
+                if (!membership.ownerOf(entry.getSymbolId()).getNodeId().equals(request.getLeaderId())) {
+                    return AppendResponse.rejected(membership.getTerm(), log.lastIndex);
+                }
+            }
+            if (request.getPrevIndex() > log.lastIndex) {
+                return AppendResponse.rejected(membership.getTerm(), log.lastIndex);
+            }
+            long prevTerm = log.termAt(request.getPrevIndex());
+            if (prevTerm >= 0 && prevTerm != request.getPrevTerm()) {
+                return AppendResponse.rejected(membership.getTerm(), request.getPrevIndex() - 1);
+            }
+            log.truncateAfter(request.getPrevIndex());
+            request.getEntries().forEach(log::add);
+            log.commitIndex = Math.min(request.getCommitIndex(), log.lastIndex);
+            return AppendResponse.accepted(membership.getTerm(), log.lastIndex);
+        }
+    }
+
+    /**
+     * Handle a commit index announced by another node's leader in its heartbeat.
+     */
+    public void onLeaderCommit(String leaderId, long commitIndex) {
+        EntryLog log = followerLogs.get(leaderId);
+        if (log == null) {
+            return;
+        }
+        synchronized (log) {
+            log.commitIndex = Math.max(log.commitIndex, Math.min(commitIndex, log.lastIndex));
+        }
+    }
+
+    /**
+     * Read committed entries of a node's journal, e.g. to rebuild its symbols after a failover.
+     *
+     * @param leaderId the node whose journal to read; may be this node
+     * @param fromIndex the first index to return
+     * @param max the maximum number of entries
+     * @return the committed entries still retained from {@code fromIndex} on
+     */
+    public List<JournalEntry> committedEntries(String leaderId, long fromIndex, int max) {
+        EntryLog log = membership.isSelf(leaderId) ? localLog : followerLogs.get(leaderId);
+        if (log == null) {
+            return List.of();
+        }
+        synchronized (log) {
+            List<JournalEntry> entries = log.from(Math.max(fromIndex, log.firstIndex()));
+            List<JournalEntry> committed = new ArrayList<>(Math.min(max, entries.size()));
+            for (JournalEntry entry : entries) {
+                if (entry.getIndex() > log.commitIndex || committed.size() == max) {
+                    break;
+                }
+                committed.add(entry);
+            }
+            return committed;
+        }
+    }
+
+    public long lastIndex(String leaderId) {
+        EntryLog log = membership.isSelf(leaderId) ? localLog : followerLogs.get(leaderId);
+        if (log == null) {
+            return 0;
+        }
+        synchronized (log) {
+            return log.lastIndex;
+        }
+    }
+
+    public long commitIndex(String leaderId) {
+        EntryLog log = membership.isSelf(leaderId) ? localLog : followerLogs.get(leaderId);
+        if (log == null) {
+            return 0;
+        }
+        synchronized (log) {
+            return log.commitIndex;
+        }
+    }
+
+    /**
+     * Tail of a journal kept in memory. Older entries are dropped once the retention is exceeded;
+     * the orders table remains the durable record.
+     */
+    private static final class EntryLog {
+        private final int retained;
+        private final ArrayList<JournalEntry> entries = new ArrayList<>();
+        private long lastIndex;
+        private long commitIndex;
+        /**
+         * Term of the entries the leader appends next; only used on the leader's own journal.
+         */
+        private long term = 1;
+        /**
+         * Times entries were taken back; replication responses are only applied if it has not changed.
+         */
+        private long truncations;
+
+        private EntryLog(int retained) {
+            this.retained = retained;
+        }
+
+        private long firstIndex() {
+            return entries.isEmpty() ? lastIndex + 1 : entries.get(0).getIndex();
+        }
+
+        /**
+         * @return the term of the entry at {@code index}, 0 for the empty prefix, or -1 if no longer retained
+         */
+        private long termAt(long index) {
+            if (index == 0) {
+                return 0;
+            }
+            long first = firstIndex();
+            if (index < first || index > lastIndex) {
+                return -1;
+            }
+            return entries.get((int) (index - first)).getTerm();
+        }
+
+        private void add(JournalEntry entry) {
+            entries.add(entry);
+            lastIndex = entry.getIndex();
+            if (entries.size() > retained * 2) {
+                entries.subList(0, entries.size() - retained).clear();
+            }
+        }
+
+        private void truncateAfter(long index) {
+            while (!entries.isEmpty() && entries.get(entries.size() - 1).getIndex() > index) {
+                entries.remove(entries.size() - 1);
+            }
+            lastIndex = Math.min(lastIndex, index);
+            commitIndex = Math.min(commitIndex, index);
+            truncations++;
+        }
+
+        /**
+         * @return the entries from {@code index} on, or null if some of them are no longer retained
+         */
+        private List<JournalEntry> from(long index) {
+            if (index > lastIndex) {
+                return List.of();
+            }
+            long first = firstIndex();
+            if (index < first) {
+                return null;
+            }
+            return new ArrayList<>(entries.subList((int) (index - first), entries.size()));
+        }
+    }
+}
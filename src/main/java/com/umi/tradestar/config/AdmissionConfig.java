@@ -0,0 +1,61 @@
+package com.umi.tradestar.config;
+
+import com.umi.tradestar.admission.OrderAdmission;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of admission control on the order path.
+ * The limit should start near the connection pool size; it adapts from there.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+public class AdmissionConfig {
+
+    @Value("${tradestar.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tradestar.admission.initial-limit:10}")
+    private int initialLimit;
+
+    @Value("${tradestar.admission.min-limit:2}")
+    private int minLimit;
+
+    @Value("${tradestar.admission.max-limit:50}")
+    private int maxLimit;
+
+    @Value("${tradestar.admission.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${tradestar.admission.latency-target-ms:50}")
+    private long latencyTargetMillis;
+
+    @Value("${tradestar.admission.queue-budget-ms:100}")
+    private long queueBudgetMillis;
+
+    @Value("${tradestar.admission.max-queue:500}")
+    private int maxQueue;
+
+    @Bean
+    public OrderAdmission orderAdmission(MeterRegistry registry) {
+        if (!enabled) {
+            return OrderAdmission.disabled();
+        }
+        OrderAdmission admission = new OrderAdmission(initialLimit, minLimit, maxLimit, backoffRatio,
+                latencyTargetMillis, queueBudgetMillis, maxQueue);
+        Gauge.builder("tradestar.order.admission.limit", admission, OrderAdmission::getLimit)
+                .description("Order requests allowed to run at once")
+                .register(registry);
+        Gauge.builder("tradestar.order.admission.in-flight", admission, OrderAdmission::getInFlight)
+                .description("Order requests running")
+                .register(registry);
+        Gauge.builder("tradestar.order.admission.queued", admission, OrderAdmission::getQueued)
+                .description("Order requests waiting for admission")
+                .register(registry);
+        return admission;
+    }
+}
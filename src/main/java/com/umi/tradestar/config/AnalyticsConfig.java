@@ -0,0 +1,55 @@
+package com.umi.tradestar.config;
+
+import com.umi.tradestar.analytics.OrderAnalytics;
+import com.umi.tradestar.analytics.OrderAnalyticsExporter;
+import com.umi.tradestar.analytics.OrderColumnStore;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Configuration of the columnar order analytics store and its export from the orders table.
+ * With {@code tradestar.analytics.enabled=false} nothing is exported and reports only cover earlier exports.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+public class AnalyticsConfig {
+
+    @Value("${tradestar.analytics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tradestar.analytics.path:data/analytics}")
+    private String path;
+
+    @Value("${tradestar.analytics.export.interval-ms:60000}")
+    private long exportIntervalMillis;
+
+    @Value("${tradestar.analytics.export.batch-size:10000}")
+    private int exportBatchSize;
+
+    @Value("${tradestar.analytics.export.settle-ms:5000}")
+    private long settleMillis;
+
+    @Bean(destroyMethod = "close")
+    public OrderColumnStore orderColumnStore() throws IOException {
+        return OrderColumnStore.open(Path.of(path));
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public OrderAnalyticsExporter orderAnalyticsExporter(OrderRepository orderRepository, OrderColumnStore store) {
+        return new OrderAnalyticsExporter(orderRepository, store, exportBatchSize,
+                enabled ? exportIntervalMillis : 0, settleMillis);
+    }
+
+    @Bean
+    public OrderAnalytics orderAnalytics(OrderColumnStore store, SymbolRegistry symbolRegistry) {
+        return new OrderAnalytics(store, symbolRegistry.size(), ForkJoinPool.commonPool());
+    }
+}
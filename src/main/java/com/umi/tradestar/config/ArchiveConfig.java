@@ -0,0 +1,42 @@
+package com.umi.tradestar.config;
+
+import com.umi.tradestar.archive.OrderArchiver;
+import com.umi.tradestar.repository.ArchivedOrderRepository;
+import com.umi.tradestar.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Configuration of the archiving of closed orders into the order history.
+ * With {@code tradestar.archive.enabled=false} nothing is moved, but order queries still read earlier archives.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+public class ArchiveConfig {
+
+    @Value("${tradestar.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tradestar.archive.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${tradestar.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${tradestar.archive.interval-ms:3600000}")
+    private long intervalMillis;
+
+    @Value("${tradestar.archive.batch-pause-ms:100}")
+    private long batchPauseMillis;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public OrderArchiver orderArchiver(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository,
+                                       PlatformTransactionManager transactionManager) {
+        return new OrderArchiver(orderRepository, archivedOrderRepository, new TransactionTemplate(transactionManager),
+                retentionDays, batchSize, enabled ? intervalMillis : 0, batchPauseMillis);
+    }
+}
@@ -0,0 +1,57 @@
+package com.umi.tradestar.config;
+
+import com.umi.tradestar.audit.AuditLog;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration of the audit log of order and user events.
+ * The queue should hold several seconds of peak order rate, so a slow disk does not drop events.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+public class AuditConfig {
+
+    @Value("${tradestar.audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tradestar.audit.path:data/audit}")
+    private String path;
+
+    @Value("${tradestar.audit.queue-capacity:262144}")
+    private int queueCapacity;
+
+    @Value("${tradestar.audit.block-bytes:65536}")
+    private int blockBytes;
+
+    @Value("${tradestar.audit.segment-bytes:134217728}")
+    private long segmentBytes;
+
+    @Value("${tradestar.audit.flush-interval-ms:200}")
+    private long flushIntervalMillis;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public AuditLog auditLog(MeterRegistry registry) {
+        if (!enabled) {
+            return AuditLog.disabled();
+        }
+        AuditLog auditLog = new AuditLog(Path.of(path), queueCapacity, blockBytes, segmentBytes, flushIntervalMillis);
+        Gauge.builder("tradestar.audit.queued", auditLog, AuditLog::getQueued)
+                .description("Audit events waiting to be written")
+                .register(registry);
+        FunctionCounter.builder("tradestar.audit.written", auditLog, AuditLog::getWritten)
+                .description("Audit events written")
+                .register(registry);
+        FunctionCounter.builder("tradestar.audit.dropped", auditLog, AuditLog::getDropped)
+                .description("Audit events dropped because the queue was full or a write failed")
+                .register(registry);
+        return auditLog;
+    }
+}
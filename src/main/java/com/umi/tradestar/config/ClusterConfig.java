@@ -0,0 +1,97 @@
+package com.umi.tradestar.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.umi.tradestar.cluster.ClusterCoordinator;
+import com.umi.tradestar.cluster.ClusterMember;
+import com.umi.tradestar.cluster.ClusterMembership;
+import com.umi.tradestar.cluster.HttpClusterTransport;
+import com.umi.tradestar.cluster.ReplicatedJournal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration of the multi-node cluster mode.
+ * With {@code tradestar.cluster.enabled=false} (the default) a standalone coordinator is used and the
+ * node owns every symbol. Cluster mode does not start without {@code tradestar.cluster.token}.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+public class ClusterConfig {
+
+    @Value("${tradestar.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tradestar.cluster.node-id:node-1}")
+    private String nodeId;
+
+    /**
+     * Comma separated list of {@code nodeId=baseUrl} pairs, including this node.
+     */
+    @Value("${tradestar.cluster.members:}")
+    private String members;
+
+    @Value("${tradestar.cluster.token:}")
+    private String clusterToken;
+
+    @Value("${tradestar.cluster.heartbeat-interval-ms:200}")
+    private long heartbeatIntervalMillis;
+
+    @Value("${tradestar.cluster.failure-timeout-ms:1000}")
+    private long failureTimeoutMillis;
+
+    @Value("${tradestar.cluster.replication-timeout-ms:250}")
+    private long replicationTimeoutMillis;
+
+    @Value("${tradestar.cluster.journal-retained-entries:100000}")
+    private int journalRetainedEntries;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ClusterCoordinator clusterCoordinator(ObjectMapper objectMapper) {
+        if (!enabled) {
+            return ClusterCoordinator.standalone();
+        }
+        if (clusterToken == null || clusterToken.isBlank()) {
+            // The cluster endpoints are open to anyone holding the token, so there is no safe default
+            throw new IllegalStateException("tradestar.cluster.token (CLUSTER_TOKEN) must be set in cluster mode");
+        }
+        List<ClusterMember> clusterMembers = parseMembers(members);
+        ClusterMember self = clusterMembers.stream()
+                .filter(member -> member.getNodeId().equals(nodeId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(
+                        "tradestar.cluster.members does not contain this node: " + nodeId));
+
+        ClusterMembership membership = new ClusterMembership(self, clusterMembers, failureTimeoutMillis);
+        HttpClusterTransport transport = new HttpClusterTransport(membership, objectMapper, clusterToken, replicationTimeoutMillis);
+        ExecutorService replicationExecutor = Executors.newFixedThreadPool(Math.max(1, clusterMembers.size() - 1), runnable -> {
+            Thread thread = new Thread(runnable, "cluster-replication");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ReplicatedJournal journal = new ReplicatedJournal(membership, transport, replicationExecutor,
+                replicationTimeoutMillis, journalRetainedEntries);
+        return new ClusterCoordinator(membership, journal, transport, heartbeatIntervalMillis);
+    }
+
+    static List<ClusterMember> parseMembers(String members) {
+        List<ClusterMember> parsed = new ArrayList<>();
+        for (String member : members.split(",")) {
+            if (member.isBlank()) {
+                continue;
+            }
+            String[] parts = member.trim().split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalStateException("Invalid cluster member, expected nodeId=baseUrl: " + member);
+            }
+            parsed.add(new ClusterMember(parts[0].trim(), parts[1].trim()));
+        }
+        return parsed;
+    }
+}
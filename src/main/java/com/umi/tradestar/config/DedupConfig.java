@@ -0,0 +1,31 @@
+package com.umi.tradestar.config;
+
+import com.umi.tradestar.dedup.ClientOrderIdCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the dedup window for client order ids.
+ * With {@code tradestar.dedup.window-ms=0} a resubmitted order is rejected as a duplicate instead of
+ * being answered with the original order.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+public class DedupConfig {
+
+    @Value("${tradestar.dedup.window-ms:600000}")
+    private long windowMillis;
+
+    @Value("${tradestar.dedup.pending-timeout-ms:5000}")
+    private long pendingTimeoutMillis;
+
+    @Value("${tradestar.dedup.sweep-interval-ms:10000}")
+    private long sweepIntervalMillis;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ClientOrderIdCache clientOrderIdCache() {
+        return new ClientOrderIdCache(windowMillis, pendingTimeoutMillis, sweepIntervalMillis);
+    }
+}
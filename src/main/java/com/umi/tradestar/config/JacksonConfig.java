@@ -0,0 +1,35 @@
+package com.umi.tradestar.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.core.NativeDetector;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Jackson configuration for API responses.
+ * Blackbird replaces reflective property access with generated accessors, and a CBOR converter lets
+ * clients ask for a compact binary encoding with {@code Accept: application/cbor}.
+ * A native image cannot define classes at runtime, so it keeps Jackson's reflective access.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+public class JacksonConfig {
+
+    // Picked up by Spring Boot and registered on every ObjectMapper built from its Jackson2ObjectMapperBuilder
+    @Bean
+    public Module blackbirdModule() {
+        // Decided at runtime; the AOT-generated bean definition is shared by the JVM and native builds
+        return NativeDetector.inNativeImage() ? new SimpleModule("no-blackbird") : new BlackbirdModule();
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
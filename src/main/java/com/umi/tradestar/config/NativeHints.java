@@ -0,0 +1,50 @@
+package com.umi.tradestar.config;
+
+import com.umi.tradestar.exception.AuthenticationException;
+import com.umi.tradestar.exception.OrderProcessingException;
+import com.umi.tradestar.exception.ValidationException;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection and resource hints for the native image, for what Spring AOT cannot see on its own.
+ * Controllers, their request and response types, JPA entities and configuration classes are covered by AOT.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+@ImportRuntimeHints(NativeHints.class)
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    // jjwt-api finds its implementation by class name and its JSON support through ServiceLoader
+    private static final String[] JJWT_TYPES = {
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.impl.crypto.MacProvider",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerTypeIfPresent(classLoader, type,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        // TradestarMetrics reads the ERROR_CODE_ constants to pre-register its error counters
+        for (Class<?> type : new Class<?>[]{OrderProcessingException.class, AuthenticationException.class, ValidationException.class}) {
+            hints.reflection().registerType(type, MemberCategory.PUBLIC_FIELDS);
+        }
+
+        hints.resources().registerPattern("reference/*.csv");
+        hints.resources().registerPattern("banner.txt");
+    }
+}
@@ -0,0 +1,22 @@
+package com.umi.tradestar.config;
+
+import com.umi.tradestar.lifecycle.OrderEventListener;
+import com.umi.tradestar.lifecycle.OrderStateMachine;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Configuration of the order state machine; every {@link OrderEventListener} bean receives its events.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+public class OrderLifecycleConfig {
+
+    @Bean
+    public OrderStateMachine orderStateMachine(List<OrderEventListener> listeners) {
+        return new OrderStateMachine(listeners);
+    }
+}
@@ -0,0 +1,23 @@
+package com.umi.tradestar.config;
+
+import com.umi.tradestar.position.PositionKeeper;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.repository.FillRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Configuration of in-memory position keeping, rebuilt from the fill ledger at startup.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+public class PositionConfig {
+
+    @Bean(initMethod = "start")
+    public PositionKeeper positionKeeper(SymbolRegistry symbolRegistry, FillRepository fillRepository,
+                                         PlatformTransactionManager transactionManager) {
+        return new PositionKeeper(symbolRegistry, fillRepository, transactionManager);
+    }
+}
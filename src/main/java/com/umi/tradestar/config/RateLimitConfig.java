@@ -0,0 +1,67 @@
+package com.umi.tradestar.config;
+
+import com.umi.tradestar.model.enums.Role;
+import com.umi.tradestar.ratelimit.RateLimit;
+import com.umi.tradestar.ratelimit.RateLimitedEndpoint;
+import com.umi.tradestar.ratelimit.RateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration of per-trader request rate limiting.
+ * Limits are comma separated {@code ROLE=permitsPerSecond/burst} entries; a role that is not listed is
+ * not limited.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Value("${tradestar.ratelimit.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Limit of each trader across all endpoints.
+     */
+    @Value("${tradestar.ratelimit.trader:TRADER=200/400,ADMIN=500/1000,OBSERVER=50/100}")
+    private String traderLimits;
+
+    @Value("${tradestar.ratelimit.endpoints.order-entry:TRADER=50/100,ADMIN=50/100}")
+    private String orderEntryLimits;
+
+    @Value("${tradestar.ratelimit.endpoints.order-cancel:TRADER=50/100,ADMIN=50/100}")
+    private String orderCancelLimits;
+
+    @Value("${tradestar.ratelimit.endpoints.order-query:TRADER=20/40,ADMIN=50/100,OBSERVER=10/20}")
+    private String orderQueryLimits;
+
+    @Value("${tradestar.ratelimit.endpoints.reports:TRADER=2/5,ADMIN=10/20,OBSERVER=2/5}")
+    private String reportLimits;
+
+    @Value("${tradestar.ratelimit.max-traders:200000}")
+    private int maxTraders;
+
+    @Value("${tradestar.ratelimit.idle-ms:60000}")
+    private long idleMillis;
+
+    @Value("${tradestar.ratelimit.sweep-interval-ms:10000}")
+    private long sweepIntervalMillis;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public RateLimiter rateLimiter() {
+        if (!enabled) {
+            return RateLimiter.disabled();
+        }
+        Map<RateLimitedEndpoint, Map<Role, RateLimit>> endpointLimits = new EnumMap<>(RateLimitedEndpoint.class);
+        endpointLimits.put(RateLimitedEndpoint.ORDER_ENTRY, RateLimit.parseByRole(orderEntryLimits));
+        endpointLimits.put(RateLimitedEndpoint.ORDER_CANCEL, RateLimit.parseByRole(orderCancelLimits));
+        endpointLimits.put(RateLimitedEndpoint.ORDER_QUERY, RateLimit.parseByRole(orderQueryLimits));
+        endpointLimits.put(RateLimitedEndpoint.REPORTS, RateLimit.parseByRole(reportLimits));
+        return new RateLimiter(RateLimit.parseByRole(traderLimits), endpointLimits, maxTraders, idleMillis,
+                sweepIntervalMillis);
+    }
+}
@@ -0,0 +1,45 @@
+package com.umi.tradestar.config;
+
+import com.umi.tradestar.refdata.SymbolIdBackfill;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Loads reference data at startup.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+public class ReferenceDataConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataConfig.class);
+
+    @Value("${tradestar.refdata.symbols:classpath:reference/symbols.csv}")
+    private Resource symbolsFile;
+
+    @Value("${tradestar.refdata.backfill-batch-size:10000}")
+    private int backfillBatchSize;
+
+    @Bean
+    public SymbolRegistry symbolRegistry(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager)
+            throws IOException {
+        SymbolRegistry registry;
+        try (InputStream in = symbolsFile.getInputStream()) {
+            registry = SymbolRegistry.load(in);
+            logger.info("Loaded {} symbols from {}", registry.size(), symbolsFile.getDescription());
+        }
+        // Before the registry is handed out, so nothing reads orders by symbol id until it is done
+        new SymbolIdBackfill(jdbcTemplate, registry, transactionManager, backfillBatchSize).run();
+        return registry;
+    }
+}
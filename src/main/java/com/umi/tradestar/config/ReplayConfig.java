@@ -0,0 +1,34 @@
+package com.umi.tradestar.config;
+
+import com.umi.tradestar.replay.CommandLogRecorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration of the order command log that incidents are replayed from.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+public class ReplayConfig {
+
+    @Value("${tradestar.replay.record.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tradestar.replay.record.path:data/order-commands.bin}")
+    private String path;
+
+    @Value("${tradestar.replay.record.flush-interval-ms:1000}")
+    private long flushIntervalMillis;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public CommandLogRecorder commandLogRecorder() {
+        if (!enabled) {
+            return CommandLogRecorder.disabled();
+        }
+        return new CommandLogRecorder(Path.of(path), flushIntervalMillis);
+    }
+}
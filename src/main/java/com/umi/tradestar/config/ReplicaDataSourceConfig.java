@@ -0,0 +1,78 @@
+package com.umi.tradestar.config;
+
+import com.umi.tradestar.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+/**
+ * Configuration of read replica routing.
+ * With {@code tradestar.datasource.replica.enabled=true} the primary pool is built from
+ * {@code spring.datasource}, a replica pool from {@code tradestar.datasource.replica}, and read-only
+ * transactions are routed to the replica. Otherwise Spring Boot's single datasource is used.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+@ConditionalOnProperty(name = "tradestar.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Value("${tradestar.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${tradestar.datasource.replica.username:}")
+    private String replicaUsername;
+
+    @Value("${tradestar.datasource.replica.password:}")
+    private String replicaPassword;
+
+    /**
+     * How long a trader's reads stay on the primary after their last write; keep it above the replica's usual lag.
+     */
+    @Value("${tradestar.datasource.replica.sticky-ms:2000}")
+    private long stickyMillis;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("tradestar.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        replica.setPoolName("tradestar-replica-pool");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                             @Qualifier("replicaDataSource") DataSource replica) {
+        return new ReplicaRoutingDataSource(primary, replica, stickyMillis, Clock.systemUTC());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        // Defers taking a connection until the transaction's read-only flag is known
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -1,6 +1,7 @@
 package com.umi.tradestar.config;
 
 import com.umi.tradestar.security.JwtAuthenticationFilter;
+import com.umi.tradestar.security.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -29,6 +30,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final UserDetailsService userDetailsService;
 
     @Bean
@@ -47,15 +49,23 @@ public class SecurityConfig {
                     "/swagger-ui/**",
                     "/swagger-ui.html",
                     // H2 Console (if used)
-                    "/h2-console/**"
+                    "/h2-console/**",
+                    // Cluster peer endpoints, protected by the cluster token
+                    "/internal/cluster/**",
+                    // Health checks and Prometheus scraping
+                    "/actuator/health",
+                    "/actuator/prometheus"
                 ).permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
             .authenticationProvider(authenticationProvider())
-            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            // Rejects over-limit requests before the JWT filter looks the user up
+            .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
 
         // Enable H2 Console Frame Options for Dev Environment
         http.headers(headers -> headers.frameOptions(frame -> frame.sameOrigin()));
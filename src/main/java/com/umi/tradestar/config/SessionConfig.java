@@ -0,0 +1,46 @@
+package com.umi.tradestar.config;
+
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.session.SessionListener;
+import com.umi.tradestar.session.SessionSchedule;
+import com.umi.tradestar.session.TradingSessionScheduler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Clock;
+import java.util.List;
+
+/**
+ * Configuration of trading session phases.
+ * With {@code tradestar.session.enabled=false} (the default) every market is always in continuous trading.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+public class SessionConfig {
+
+    @Value("${tradestar.session.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tradestar.session.schedules:classpath:reference/sessions.csv}")
+    private Resource schedulesFile;
+
+    @Value("${tradestar.session.tick-interval-ms:1000}")
+    private long tickIntervalMillis;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public TradingSessionScheduler tradingSessionScheduler(SymbolRegistry symbolRegistry,
+                                                           List<SessionListener> listeners) throws IOException {
+        if (!enabled) {
+            return TradingSessionScheduler.alwaysOpen();
+        }
+        try (InputStream in = schedulesFile.getInputStream()) {
+            return new TradingSessionScheduler(symbolRegistry, SessionSchedule.load(in), Clock.systemUTC(),
+                    listeners, tickIntervalMillis);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.umi.tradestar.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.type.MethodMetadata;
+
+/**
+ * Configuration of the {@code faststart} profile.
+ * Beans that are never used on the order path are created on first use instead of at startup.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+@Profile("faststart")
+public class StartupConfig {
+
+    // Swagger UI and the OpenAPI docs
+    private static final String[] LAZY_PACKAGES = {"org.springdoc."};
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyNonHotBeans() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (isLazyPackage(declaringClassName(beanFactory, definition))) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static String declaringClassName(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated) {
+            MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+            if (factoryMethod != null) {
+                return factoryMethod.getDeclaringClassName();
+            }
+        }
+        if (definition.getBeanClassName() == null && definition.getFactoryBeanName() != null
+                && beanFactory.containsBeanDefinition(definition.getFactoryBeanName())) {
+            return beanFactory.getBeanDefinition(definition.getFactoryBeanName()).getBeanClassName();
+        }
+        return definition.getBeanClassName();
+    }
+
+    private static boolean isLazyPackage(String className) {
+        if (className == null) {
+            return false;
+        }
+        for (String prefix : LAZY_PACKAGES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
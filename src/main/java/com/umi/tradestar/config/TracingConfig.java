@@ -0,0 +1,43 @@
+package com.umi.tradestar.config;
+
+import com.umi.tradestar.tracing.OrderTraceRecorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration of per-order lifecycle tracing.
+ *
+ * @author VrushankPatel
+ */
+@Configuration
+public class TracingConfig {
+
+    @Value("${tradestar.tracing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tradestar.tracing.capacity:65536}")
+    private int capacity;
+
+    /**
+     * Export every n-th trace to {@code tradestar.tracing.export.path}; 0 disables the export.
+     */
+    @Value("${tradestar.tracing.export.sample-every:0}")
+    private int sampleEvery;
+
+    @Value("${tradestar.tracing.export.path:data/order-traces.bin}")
+    private String exportPath;
+
+    @Value("${tradestar.tracing.export.interval-ms:1000}")
+    private long exportIntervalMillis;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public OrderTraceRecorder orderTraceRecorder() {
+        if (!enabled) {
+            return OrderTraceRecorder.disabled();
+        }
+        return new OrderTraceRecorder(capacity, sampleEvery, Path.of(exportPath), exportIntervalMillis);
+    }
+}
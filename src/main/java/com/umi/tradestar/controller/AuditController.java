@@ -0,0 +1,48 @@
+package com.umi.tradestar.controller;
+
+import com.umi.tradestar.audit.AuditEvent;
+import com.umi.tradestar.audit.AuditLog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Admin endpoint for reading the audit log.
+ *
+ * @author VrushankPatel
+ */
+@RestController
+@RequestMapping("/api/v1/admin/audit")
+@RequiredArgsConstructor
+@Tag(name = "Audit", description = "Audit trail of order and user events")
+@SecurityRequirement(name = "bearerAuth")
+public class AuditController {
+
+    private static final int MAX_LIMIT = 10_000;
+
+    private final AuditLog auditLog;
+
+    @GetMapping
+    @Operation(summary = "Get audit events",
+            description = "Events of one trader, or of all users without traderId, in write order; 'to' is exclusive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<AuditEvent>> getAuditEvents(
+            @RequestParam(required = false) Long traderId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(auditLog.find(traderId, from.toEpochMilli(), to.toEpochMilli(),
+                Math.max(1, Math.min(limit, MAX_LIMIT))));
+    }
+}
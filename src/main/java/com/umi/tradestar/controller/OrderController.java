@@ -1,21 +1,41 @@
 package com.umi.tradestar.controller;
 
+import com.umi.tradestar.admission.OrderAdmission;
+import com.umi.tradestar.cluster.OrderCommand;
+import com.umi.tradestar.exception.ValidationException;
+import com.umi.tradestar.export.OrderCsvWriter;
 import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.service.OrderExportService;
+import com.umi.tradestar.service.OrderHistoryService;
 import com.umi.tradestar.service.OrderService;
+import com.umi.tradestar.tracing.OrderStage;
+import com.umi.tradestar.tracing.OrderTraceRecorder;
+import com.umi.tradestar.web.dto.OrderResponse;
+import com.umi.tradestar.web.mapper.OrderMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * REST controller for managing trading orders.
  * Provides endpoints for order creation, retrieval, and cancellation.
+ * Responses are JSON by default, or CBOR with {@code Accept: application/cbor}.
+ * Order entry and cancellation pass through {@link OrderAdmission}, with cancels ahead of new orders.
  *
  * @author VrushankPatel
  */
@@ -27,32 +47,83 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderHistoryService orderHistoryService;
+    private final OrderExportService orderExportService;
+    private final OrderMapper orderMapper;
+    private final OrderTraceRecorder traceRecorder;
+    private final OrderAdmission admission;
 
     @PostMapping
     @Operation(summary = "Create a new order", description = "Creates a new trading order for the authenticated user")
     @PreAuthorize("hasRole('TRADER')")
-    public ResponseEntity<Order> createOrder(@Valid @RequestBody Order order) {
-        return ResponseEntity.ok(orderService.createOrder(order));
+    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody Order order) {
+        // Begun before admission, so INGRESS includes the time queued for a permit
+        traceRecorder.begin(OrderCommand.Type.NEW);
+        try (OrderAdmission.Permit permit = admission.acquire(OrderAdmission.Priority.NEW_ORDER)) {
+            Order created = orderService.createOrder(order);
+            // The service's transaction has committed
+            traceRecorder.stamp(OrderStage.PERSISTED);
+            return ResponseEntity.ok(orderMapper.toResponse(created));
+        } finally {
+            traceRecorder.end();
+        }
     }
 
     @GetMapping
-    @Operation(summary = "Get user's orders", description = "Retrieves all orders for the authenticated user")
+    @Operation(summary = "Get user's orders",
+            description = "Retrieves the live orders of the authenticated user, or with 'from' and 'to' the orders "
+                    + "created in that range including archived ones; 'to' is exclusive")
     @PreAuthorize("hasRole('TRADER')")
-    public ResponseEntity<List<Order>> getOrders() {
-        return ResponseEntity.ok(orderService.getOrdersByTrader());
+    public ResponseEntity<List<OrderResponse>> getOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from == null && to == null) {
+            return ResponseEntity.ok(orderMapper.toResponses(orderService.getOrdersByTrader()));
+        }
+        if (from == null || to == null) {
+            throw ValidationException.missingRequiredField(from == null ? "from" : "to");
+        }
+        return ResponseEntity.ok(orderMapper.toResponses(
+                orderHistoryService.getOrdersByTrader(from.atStartOfDay(), to.atStartOfDay())));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export user's orders as CSV",
+            description = "Streams the orders of the authenticated user created in a range, including archived "
+                    + "ones, as CSV; 'to' is exclusive")
+    @PreAuthorize("hasRole('TRADER')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @AuthenticationPrincipal User trader,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.atStartOfDay();
+        OrderExportService.checkRange(start, end);
+        return ResponseEntity.ok()
+                .contentType(OrderCsvWriter.CONTENT_TYPE)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("orders-" + from + "-" + to + ".csv").build().toString())
+                .body(out -> orderExportService.exportTraderOrders(trader, start, end, out));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get order by ID", description = "Retrieves a specific order by its ID")
     @PreAuthorize("hasRole('TRADER')")
-    public ResponseEntity<Order> getOrder(@PathVariable Long id) {
-        return ResponseEntity.ok(orderService.getOrderById(id));
+    public ResponseEntity<OrderResponse> getOrder(@PathVariable Long id) {
+        return ResponseEntity.ok(orderMapper.toResponse(orderService.getOrderById(id)));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Cancel order", description = "Cancels a pending order")
     @PreAuthorize("hasRole('TRADER')")
-    public ResponseEntity<Order> cancelOrder(@PathVariable Long id) {
-        return ResponseEntity.ok(orderService.cancelOrder(id));
+    public ResponseEntity<OrderResponse> cancelOrder(@PathVariable Long id) {
+        traceRecorder.begin(OrderCommand.Type.CANCEL);
+        try (OrderAdmission.Permit permit = admission.acquire(OrderAdmission.Priority.CANCEL)) {
+            Order cancelled = orderService.cancelOrder(id);
+            traceRecorder.stamp(OrderStage.PERSISTED);
+            return ResponseEntity.ok(orderMapper.toResponse(cancelled));
+        } finally {
+            traceRecorder.end();
+        }
     }
 }
\ No newline at end of file
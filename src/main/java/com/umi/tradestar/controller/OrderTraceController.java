@@ -0,0 +1,39 @@
+package com.umi.tradestar.controller;
+
+import com.umi.tradestar.tracing.OrderTrace;
+import com.umi.tradestar.tracing.OrderTraceRecorder;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Admin endpoints for inspecting recorded order lifecycle traces.
+ *
+ * @author VrushankPatel
+ */
+@RestController
+@RequestMapping("/api/v1/admin/traces")
+@RequiredArgsConstructor
+@Tag(name = "Order Traces", description = "Per-order latency traces")
+@SecurityRequirement(name = "bearerAuth")
+public class OrderTraceController {
+
+    private final OrderTraceRecorder traceRecorder;
+
+    @GetMapping("/orders/{id}")
+    @Operation(summary = "Get order traces", description = "Stage timings of an order's create and cancel requests, while still held in the trace buffer")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<OrderTrace>> getOrderTraces(@PathVariable Long id) {
+        List<OrderTrace> traces = traceRecorder.find(id);
+        if (traces.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(traces);
+    }
+}
@@ -0,0 +1,43 @@
+package com.umi.tradestar.controller;
+
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.position.PositionKeeper;
+import com.umi.tradestar.web.dto.PositionResponse;
+import com.umi.tradestar.web.mapper.PositionMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for the authenticated trader's positions, served from the in-memory
+ * {@link PositionKeeper} without querying orders or fills.
+ *
+ * @author VrushankPatel
+ */
+@RestController
+@RequestMapping("/api/v1/positions")
+@RequiredArgsConstructor
+@Tag(name = "Positions", description = "Position and P&L endpoints")
+@SecurityRequirement(name = "bearerAuth")
+public class PositionController {
+
+    private final PositionKeeper positionKeeper;
+    private final PositionMapper positionMapper;
+
+    @GetMapping
+    @Operation(summary = "Get user's positions",
+            description = "Net quantity, average cost and realized/unrealized P&L per symbol for the authenticated user")
+    @PreAuthorize("hasRole('TRADER')")
+    public ResponseEntity<List<PositionResponse>> getPositions(@AuthenticationPrincipal User trader) {
+        return ResponseEntity.ok(positionMapper.toResponses(positionKeeper.positionsOf(trader.getId())));
+    }
+}
@@ -0,0 +1,89 @@
+package com.umi.tradestar.controller;
+
+import com.umi.tradestar.analytics.OrderAnalytics;
+import com.umi.tradestar.export.OrderCsvWriter;
+import com.umi.tradestar.refdata.SymbolDefinition;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.service.OrderExportService;
+import com.umi.tradestar.web.dto.DailyVolumeResponse;
+import com.umi.tradestar.web.dto.OrderStatsResponse;
+import com.umi.tradestar.web.mapper.ReportMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * REST controller for order reports, served from the columnar analytics store rather than the
+ * orders table. Reports cover closed orders up to the last analytics export.
+ * The order export instead streams every order of a symbol, open or closed, from the database.
+ *
+ * @author VrushankPatel
+ */
+@RestController
+@RequestMapping("/api/v1/reports")
+@RequiredArgsConstructor
+@Tag(name = "Reports", description = "Order analytics for operations and compliance")
+@SecurityRequirement(name = "bearerAuth")
+public class ReportController {
+
+    private final OrderAnalytics orderAnalytics;
+    private final ReportMapper reportMapper;
+    private final OrderExportService orderExportService;
+    private final SymbolRegistry symbolRegistry;
+
+    @GetMapping("/volume")
+    @Operation(summary = "Volume per symbol per day",
+            description = "Closed orders, filled quantity and notional per symbol and day; 'to' is exclusive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<DailyVolumeResponse>> getDailyVolume(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(reportMapper.toVolumeResponses(orderAnalytics.dailyVolume(from, to)));
+    }
+
+    @GetMapping("/order-stats")
+    @Operation(summary = "Fill ratios and cancel rates per symbol",
+            description = "Outcome counts, fill ratio and cancel rate of closed orders per symbol; 'to' is exclusive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<OrderStatsResponse>> getOrderStats(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(reportMapper.toStatsResponses(orderAnalytics.orderStats(from, to)));
+    }
+
+    @GetMapping("/orders/export")
+    @Operation(summary = "Export a symbol's orders as CSV",
+            description = "Streams the orders of a symbol created in a range, including archived ones, as CSV; "
+                    + "'to' is exclusive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportSymbolOrders(
+            @RequestParam String symbol,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        SymbolDefinition definition = symbolRegistry.require(symbol);
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.atStartOfDay();
+        OrderExportService.checkRange(start, end);
+        return ResponseEntity.ok()
+                .contentType(OrderCsvWriter.CONTENT_TYPE)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("orders-" + definition.getSymbol() + "-" + from + "-" + to + ".csv")
+                        .build().toString())
+                .body(out -> orderExportService.exportSymbolOrders(definition, start, end, out));
+    }
+}
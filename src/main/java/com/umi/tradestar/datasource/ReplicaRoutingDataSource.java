@@ -0,0 +1,133 @@
+package com.umi.tradestar.datasource;
+
+import com.umi.tradestar.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary.
+ *
+ * A trader's reads stay on the primary for {@code stickyMillis} after each of their committed read-write
+ * transactions, so they see their own orders even while the replica lags behind by up to that long. Reads without an
+ * authenticated trader never follow a write of their own and always go to the replica.
+ *
+ * The route is decided when a connection is first used, so this must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}; otherwise the connection
+ * is taken before the transaction is marked read-only.
+ *
+ * @author VrushankPatel
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // Trader id -> time of their last committed write, only kept while it is within the sticky period
+    private final ConcurrentHashMap<Long, Long> lastWriteMillis = new ConcurrentHashMap<>();
+    private final long stickyMillis;
+    private final Clock clock;
+    private ScheduledExecutorService sweeper;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long stickyMillis, Clock clock) {
+        this.stickyMillis = stickyMillis;
+        this.clock = clock;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long traderId = currentTraderId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (traderId != null) {
+                recordWriteOnCommit(traderId);
+            }
+            return Target.PRIMARY;
+        }
+        return traderId != null && followsRecentWrite(traderId) ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    private void recordWriteOnCommit(Long traderId) {
+        // Connections taken outside a transaction are not writes, e.g. the lazy proxy reading the
+        // connection defaults the first time it is used
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteMillis.put(traderId, clock.millis());
+            }
+        });
+    }
+
+    private boolean followsRecentWrite(Long traderId) {
+        Long writtenAt = lastWriteMillis.get(traderId);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (clock.millis() - writtenAt <= stickyMillis) {
+            return true;
+        }
+        lastWriteMillis.remove(traderId, writtenAt);
+        return false;
+    }
+
+    private static Long currentTraderId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof User user ? user.getId() : null;
+    }
+
+    /**
+     * Forget the writes older than the sticky period, of traders who have not read since.
+     */
+    public void sweep() {
+        long oldest = clock.millis() - stickyMillis;
+        lastWriteMillis.values().removeIf(writtenAt -> writtenAt < oldest);
+    }
+
+    public synchronized void start() {
+        if (sweeper != null) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-routing-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1_000, stickyMillis);
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                sweep();
+            } catch (RuntimeException ex) {
+                logger.error("Replica routing sweep failed:", ex);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.umi.tradestar.dedup;
+
+import com.umi.tradestar.exception.OrderProcessingException;
+import com.umi.tradestar.model.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Recently submitted client order ids, so a resubmitted order is answered with the order the first
+ * submission created instead of creating it again. Client order ids are scoped to their trader: two
+ * traders may use the same id, and neither can tell whether the other has.
+ *
+ * The first submission of an id claims it and settles the claim once it knows the outcome: with the
+ * stored order, which is then handed to later submissions, or with nothing, which drops the claim. Ids are remembered for a sliding
+ * window from their claim, until the next sweep after it, so a lookup is a single hash map read. A
+ * resubmission after the window, or after a restart, is caught by {@code OrderService} looking the id
+ * up in the database instead, and rejected as a duplicate.
+ *
+ * @author VrushankPatel
+ */
+public class ClientOrderIdCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientOrderIdCache.class);
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>(1 << 16);
+    private final long windowNanos;
+    private final long pendingTimeoutMillis;
+    private final long sweepIntervalMillis;
+    private ScheduledExecutorService sweeper;
+
+    public ClientOrderIdCache(long windowMillis, long pendingTimeoutMillis, long sweepIntervalMillis) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.pendingTimeoutMillis = pendingTimeoutMillis;
+        this.sweepIntervalMillis = sweepIntervalMillis;
+    }
+
+    /**
+     * Cache that remembers nothing; duplicates are only caught by the database lookup.
+     */
+    public static ClientOrderIdCache disabled() {
+        return new ClientOrderIdCache(0, 0, 0);
+    }
+
+    /**
+     * Claim a client order id for a new order, or get the order an earlier submission of the id created.
+     * A successful claim must be {@linkplain #settle settled}, whether or not the order is created.
+     *
+     * @param clientOrderId the client order id
+     * @param traderId      the submitting trader
+     * @return {@code null} if the caller claimed the id and must create the order, else the earlier order
+     * @throws OrderProcessingException if the earlier submission is still in progress after the pending timeout
+     */
+    public Order claim(String clientOrderId, long traderId) {
+        if (windowNanos <= 0) {
+            return null;
+        }
+        Key key = new Key(traderId, clientOrderId);
+        while (true) {
+            Entry earlier = entries.get(key);
+            if (earlier == null) {
+                earlier = entries.putIfAbsent(key, new Entry(System.nanoTime()));
+                if (earlier == null) {
+                    return null;
+                }
+            }
+            Order original = earlier.await(clientOrderId, pendingTimeoutMillis);
+            if (original != null) {
+                return original;
+            }
+            // The earlier submission rolled back and released the id; try to claim it again
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Settle a claim made by {@link #claim}.
+     *
+     * @param clientOrderId the claimed client order id
+     * @param traderId      the trader that claimed it
+     * @param stored        the order stored under the id, or {@code null} to release the id
+     */
+    public void settle(String clientOrderId, long traderId, Order stored) {
+        if (windowNanos <= 0) {
+            return;
+        }
+        Key key = new Key(traderId, clientOrderId);
+        // Later submissions wait while the claim is pending, so the entry is the caller's own
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return;
+        }
+        if (stored == null) {
+            entries.remove(key, entry);
+        }
+        entry.result.complete(stored);
+    }
+
+    /**
+     * Forget the ids claimed longer than the window ago.
+     */
+    public void sweep() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isExpired(now, windowNanos));
+    }
+
+    public synchronized void start() {
+        if (sweeper != null || windowNanos <= 0 || sweepIntervalMillis <= 0) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "client-order-id-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                sweep();
+            } catch (RuntimeException ex) {
+                logger.error("Client order id sweep failed:", ex);
+            }
+        }, sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+
+    private record Key(long traderId, String clientOrderId) {
+    }
+
+    private static final class Entry {
+        private final long claimedNanos;
+        // Completed with the stored order, or with null if it was not stored
+        private final CompletableFuture<Order> result = new CompletableFuture<>();
+
+        private Entry(long claimedNanos) {
+            this.claimedNanos = claimedNanos;
+        }
+
+        private boolean isExpired(long now, long windowNanos) {
+            // A pending claim is kept until it settles, however long that takes
+            return result.isDone() && now - claimedNanos > windowNanos;
+        }
+
+        private Order await(String clientOrderId, long timeoutMillis) {
+            Order order = result.getNow(null);
+            if (order != null || result.isDone()) {
+                return order;
+            }
+            try {
+                return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                throw OrderProcessingException.duplicateClientOrderId(clientOrderId);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw OrderProcessingException.duplicateClientOrderId(clientOrderId);
+            } catch (ExecutionException ex) {
+                return null;
+            }
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.umi.tradestar.exception;
 
+import com.umi.tradestar.metrics.TradestarMetrics;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +12,7 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
@@ -17,9 +21,12 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final TradestarMetrics metrics;
+
     @ExceptionHandler(TradestarBusinessException.class)
     public ResponseEntity<Object> handleTradestarBusinessException(TradestarBusinessException ex, WebRequest request) {
         logger.error("Business exception occurred:", ex);
@@ -63,6 +70,29 @@ public class GlobalExceptionHandler {
         return createErrorResponse(ex.getErrorCode(), ex.getErrorMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(OrderOverloadException.class)
+    public ResponseEntity<Object> handleOrderOverloadException(OrderOverloadException ex, WebRequest request) {
+        // Expected in bursts under overload, so no stack trace per shed request
+        logger.warn("Order request shed: {}", ex.getErrorMessage());
+        ResponseEntity<Object> error = createErrorResponse(ex.getErrorCode(), ex.getErrorMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error.getBody());
+    }
+
+    @ExceptionHandler(SymbolOwnershipException.class)
+    public ResponseEntity<Object> handleSymbolOwnershipException(SymbolOwnershipException ex, WebRequest request) {
+        logger.debug("Redirecting order to owner node {}", ex.getOwnerNodeId());
+        // 307 keeps the method and body, so the client can replay the same request against the owner
+        String path = request instanceof ServletWebRequest servletRequest
+                ? servletRequest.getRequest().getRequestURI()
+                : "";
+        ResponseEntity<Object> error = createErrorResponse(ex.getErrorCode(), ex.getErrorMessage(), HttpStatus.TEMPORARY_REDIRECT);
+        return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                .header(HttpHeaders.LOCATION, ex.getOwnerBaseUrl() + path)
+                .body(error.getBody());
+    }
+
     @ExceptionHandler(org.springframework.web.HttpRequestMethodNotSupportedException.class)
     public ResponseEntity<Object> handleMethodNotSupported(org.springframework.web.HttpRequestMethodNotSupportedException ex, WebRequest request) {
         logger.error("Method not supported:", ex);
@@ -108,6 +138,7 @@ public class GlobalExceptionHandler {
     }
 
     private ResponseEntity<Object> createErrorResponse(String errorCode, String message, HttpStatus status) {
+        metrics.recordError(errorCode);
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now());
         body.put("status", status.value());
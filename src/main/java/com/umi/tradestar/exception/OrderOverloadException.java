@@ -0,0 +1,14 @@
+package com.umi.tradestar.exception;
+
+/**
+ * Thrown when an order request is shed because the order path is overloaded.
+ * The request was not processed and can be retried.
+ *
+ * @author VrushankPatel
+ */
+public class OrderOverloadException extends OrderProcessingException {
+
+    public OrderOverloadException(String reason) {
+        super(ERROR_CODE_OVERLOADED, "Order entry is overloaded, retry later: " + reason);
+    }
+}
@@ -6,6 +6,14 @@ public class OrderProcessingException extends TradestarBusinessException {
     public static final String ERROR_CODE_MARKET_CLOSED = "ORD003";
     public static final String ERROR_CODE_INVALID_QUANTITY = "ORD004";
     public static final String ERROR_CODE_ORDER_NOT_FOUND = "ORD005";
+    public static final String ERROR_CODE_NOT_SYMBOL_OWNER = "ORD006";
+    public static final String ERROR_CODE_REPLICATION_FAILED = "ORD007";
+    public static final String ERROR_CODE_UNKNOWN_SYMBOL = "ORD008";
+    public static final String ERROR_CODE_SYMBOL_HALTED = "ORD009";
+    public static final String ERROR_CODE_INVALID_PRICE = "ORD010";
+    public static final String ERROR_CODE_PRICE_OUT_OF_BAND = "ORD011";
+    public static final String ERROR_CODE_DUPLICATE_CLIENT_ORDER_ID = "ORD012";
+    public static final String ERROR_CODE_OVERLOADED = "ORD013";
 
     public OrderProcessingException(String errorCode, String errorMessage) {
         super(errorCode, errorMessage);
@@ -39,4 +47,39 @@ public class OrderProcessingException extends TradestarBusinessException {
         return new OrderProcessingException(ERROR_CODE_ORDER_NOT_FOUND,
             String.format("Order with ID %s not found", orderId));
     }
-}
\ No newline at end of file
+
+    public static OrderProcessingException replicationFailed(int symbolId, int acks, int quorum) {
+        return new OrderProcessingException(ERROR_CODE_REPLICATION_FAILED,
+            String.format("Order journal replication failed for symbol id %d. Acks: %d, Quorum: %d", symbolId, acks, quorum));
+    }
+
+    public static OrderProcessingException unknownSymbol(String symbol) {
+        return new OrderProcessingException(ERROR_CODE_UNKNOWN_SYMBOL,
+            String.format("Unknown symbol: %s", symbol));
+    }
+
+    public static OrderProcessingException unknownSymbolOfOrder(String orderId) {
+        return new OrderProcessingException(ERROR_CODE_UNKNOWN_SYMBOL,
+            String.format("Order %s has a symbol that is not listed", orderId));
+    }
+
+    public static OrderProcessingException symbolHalted(String symbol) {
+        return new OrderProcessingException(ERROR_CODE_SYMBOL_HALTED,
+            String.format("Trading in %s is halted", symbol));
+    }
+
+    public static OrderProcessingException invalidPrice(String reason) {
+        return new OrderProcessingException(ERROR_CODE_INVALID_PRICE,
+            String.format("Invalid order price: %s", reason));
+    }
+
+    public static OrderProcessingException priceOutOfBand(String symbol, String price, String low, String high) {
+        return new OrderProcessingException(ERROR_CODE_PRICE_OUT_OF_BAND,
+            String.format("Price %s for %s is outside the band %s - %s", price, symbol, low, high));
+    }
+
+    public static OrderProcessingException duplicateClientOrderId(String clientOrderId) {
+        return new OrderProcessingException(ERROR_CODE_DUPLICATE_CLIENT_ORDER_ID,
+            String.format("Client order ID %s has already been used", clientOrderId));
+    }
+}
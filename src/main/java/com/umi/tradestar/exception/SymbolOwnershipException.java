@@ -0,0 +1,27 @@
+package com.umi.tradestar.exception;
+
+/**
+ * Thrown when an order arrives at a node that does not own the order's symbol.
+ * Carries the base URL of the owning node so the client can be redirected.
+ *
+ * @author VrushankPatel
+ */
+public class SymbolOwnershipException extends OrderProcessingException {
+    private final String ownerNodeId;
+    private final String ownerBaseUrl;
+
+    public SymbolOwnershipException(String symbol, String ownerNodeId, String ownerBaseUrl) {
+        super(ERROR_CODE_NOT_SYMBOL_OWNER,
+            String.format("Symbol %s is owned by node %s", symbol, ownerNodeId));
+        this.ownerNodeId = ownerNodeId;
+        this.ownerBaseUrl = ownerBaseUrl;
+    }
+
+    public String getOwnerNodeId() {
+        return ownerNodeId;
+    }
+
+    public String getOwnerBaseUrl() {
+        return ownerBaseUrl;
+    }
+}
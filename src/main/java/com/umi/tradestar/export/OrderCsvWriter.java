@@ -0,0 +1,120 @@
+package com.umi.tradestar.export;
+
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes orders as CSV (RFC 4180) to an output stream, one row at a time.
+ * Rows go through a fixed size buffer that is written out whenever it fills, so memory use does not
+ * depend on the number of rows.
+ * The writer never closes the stream it was given.
+ *
+ * @author VrushankPatel
+ */
+public class OrderCsvWriter {
+
+    public static final MediaType CONTENT_TYPE = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    static final String HEADER = "id,order_id,trader_id,symbol,side,order_type,time_in_force,quantity,price,"
+            + "filled_quantity,average_price,status,created_at,updated_at";
+
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    private final Writer out;
+    private final SymbolRegistry symbolRegistry;
+
+    public OrderCsvWriter(OutputStream out, SymbolRegistry symbolRegistry) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+        this.symbolRegistry = symbolRegistry;
+    }
+
+    public void writeHeader() throws IOException {
+        out.write(HEADER);
+        out.write("\r\n");
+    }
+
+    /**
+     * Write one order. Only the trader's id is read, so a lazy trader is not loaded.
+     */
+    public void write(Order order) throws IOException {
+        out.write(String.valueOf(order.getId()));
+        out.write(',');
+        text(order.getOrderId());
+        out.write(',');
+        if (order.getTrader() != null) {
+            out.write(String.valueOf(order.getTrader().getId()));
+        }
+        out.write(',');
+        text(symbolRegistry.symbolOf(order.getSymbolId()));
+        out.write(',');
+        value(order.getSide());
+        out.write(',');
+        value(order.getOrderType());
+        out.write(',');
+        value(order.getTimeInForce());
+        out.write(',');
+        decimal(order.getQuantity());
+        out.write(',');
+        decimal(order.getPrice());
+        out.write(',');
+        decimal(order.getFilledQuantity());
+        out.write(',');
+        decimal(order.getAveragePrice());
+        out.write(',');
+        value(order.getStatus());
+        out.write(',');
+        value(order.getCreatedAt());
+        out.write(',');
+        value(order.getUpdatedAt());
+        out.write("\r\n");
+    }
+
+    /**
+     * Write out the buffered rows.
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void value(Object value) throws IOException {
+        if (value != null) {
+            out.write(value.toString());
+        }
+    }
+
+    private void decimal(BigDecimal value) throws IOException {
+        if (value != null) {
+            out.write(value.toPlainString());
+        }
+    }
+
+    /**
+     * Client supplied text, quoted if it holds a separator, quote or line break.
+     */
+    private void text(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,21 @@
+package com.umi.tradestar.lifecycle;
+
+/**
+ * Something that happened to an order and may change its status.
+ * {@link OrderStateMachine} decides which events each status accepts and where they lead.
+ *
+ * @author VrushankPatel
+ */
+public enum OrderEvent {
+    ACCEPT,          // A new order passed validation
+    REJECT,          // A new order was refused
+    PARTIAL_FILL,    // Part of the open quantity executed
+    FILL,            // The rest of the open quantity executed
+    CANCEL_REQUEST,  // Cancellation requested, to be confirmed
+    CANCEL_REJECT,   // A requested cancellation was refused
+    CANCEL,          // Cancelled
+    REPLACE_REQUEST, // Modification requested, to be confirmed
+    REPLACE_REJECT,  // A requested modification was refused
+    REPLACE,         // Modified
+    EXPIRE           // The order's time in force ran out
+}
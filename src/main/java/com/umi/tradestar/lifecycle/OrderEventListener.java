@@ -0,0 +1,22 @@
+package com.umi.tradestar.lifecycle;
+
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.enums.OrderStatus;
+
+/**
+ * Notified of every order status transition, in the order they are applied.
+ *
+ * @author VrushankPatel
+ */
+public interface OrderEventListener {
+
+    /**
+     * Called on the thread that applied the transition, inside its transaction and before the order
+     * is saved. A listener that must only see committed transitions defers its work until after commit.
+     *
+     * @param order    the order, already carrying its new status
+     * @param event    what happened
+     * @param previous the status before the event, or null for a new order
+     */
+    void onOrderEvent(Order order, OrderEvent event, OrderStatus previous);
+}
@@ -0,0 +1,142 @@
+package com.umi.tradestar.lifecycle;
+
+import com.umi.tradestar.exception.OrderProcessingException;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.enums.OrderStatus;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The order lifecycle: which {@link OrderEvent}s each {@link OrderStatus} accepts and where they lead.
+ *
+ * Transitions are looked up in a table indexed by status and event ordinal, and listeners are held in
+ * an array, so applying an event allocates nothing. Every applied event is passed to each
+ * {@link OrderEventListener} in turn; an event the order's status does not accept is refused with
+ * {@link OrderProcessingException#ERROR_CODE_INVALID_ORDER_STATUS} and nothing is notified.
+ *
+ * A refused cancel or replace, or a completed replace, returns the order to NEW, or to
+ * PARTIALLY_FILLED if it has already been partly filled.
+ *
+ * @author VrushankPatel
+ */
+public class OrderStateMachine {
+
+    private static final OrderEvent[] EVENTS = OrderEvent.values();
+    // Target status by event ordinal, for a new order and by status ordinal; null where not allowed
+    private static final OrderStatus[] INITIAL = new OrderStatus[EVENTS.length];
+    private static final OrderStatus[][] TRANSITIONS = new OrderStatus[OrderStatus.values().length][EVENTS.length];
+
+    static {
+        allow(INITIAL, OrderEvent.ACCEPT, OrderStatus.NEW);
+        allow(INITIAL, OrderEvent.REJECT, OrderStatus.REJECTED);
+
+        for (OrderStatus open : new OrderStatus[]{OrderStatus.NEW, OrderStatus.PARTIALLY_FILLED}) {
+            OrderStatus[] row = TRANSITIONS[open.ordinal()];
+            allow(row, OrderEvent.PARTIAL_FILL, OrderStatus.PARTIALLY_FILLED);
+            allow(row, OrderEvent.FILL, OrderStatus.FILLED);
+            allow(row, OrderEvent.CANCEL_REQUEST, OrderStatus.PENDING_CANCEL);
+            allow(row, OrderEvent.CANCEL, OrderStatus.CANCELLED);
+            allow(row, OrderEvent.REPLACE_REQUEST, OrderStatus.PENDING_REPLACE);
+            allow(row, OrderEvent.EXPIRE, OrderStatus.EXPIRED);
+        }
+
+        // A pending request stays pending through partial fills
+        OrderStatus[] pendingCancel = TRANSITIONS[OrderStatus.PENDING_CANCEL.ordinal()];
+        allow(pendingCancel, OrderEvent.PARTIAL_FILL, OrderStatus.PENDING_CANCEL);
+        allow(pendingCancel, OrderEvent.FILL, OrderStatus.FILLED);
+        allow(pendingCancel, OrderEvent.CANCEL, OrderStatus.CANCELLED);
+        allow(pendingCancel, OrderEvent.CANCEL_REJECT, OrderStatus.NEW);
+        allow(pendingCancel, OrderEvent.EXPIRE, OrderStatus.EXPIRED);
+
+        OrderStatus[] pendingReplace = TRANSITIONS[OrderStatus.PENDING_REPLACE.ordinal()];
+        allow(pendingReplace, OrderEvent.PARTIAL_FILL, OrderStatus.PENDING_REPLACE);
+        allow(pendingReplace, OrderEvent.FILL, OrderStatus.FILLED);
+        allow(pendingReplace, OrderEvent.CANCEL, OrderStatus.CANCELLED);
+        allow(pendingReplace, OrderEvent.REPLACE, OrderStatus.NEW);
+        allow(pendingReplace, OrderEvent.REPLACE_REJECT, OrderStatus.NEW);
+        allow(pendingReplace, OrderEvent.EXPIRE, OrderStatus.EXPIRED);
+    }
+
+    private final OrderEventListener[] listeners;
+
+    public OrderStateMachine(List<OrderEventListener> listeners) {
+        this.listeners = listeners.toArray(new OrderEventListener[0]);
+    }
+
+    /**
+     * Start the lifecycle of a new order as NEW, ignoring any status it was submitted with.
+     */
+    public void accept(Order order) {
+        transition(order, null, OrderEvent.ACCEPT);
+    }
+
+    /**
+     * Apply an event to an order, set its new status and notify the listeners.
+     *
+     * @return the order's new status
+     * @throws OrderProcessingException if the order's current status does not accept the event
+     */
+    public OrderStatus apply(Order order, OrderEvent event) {
+        return transition(order, order.getStatus(), event);
+    }
+
+    private OrderStatus transition(Order order, OrderStatus previous, OrderEvent event) {
+        OrderStatus next = next(previous, event);
+        if (next == null) {
+            throw OrderProcessingException.invalidOrderStatus(String.valueOf(previous),
+                    statusesAccepting(event) + " to " + event);
+        }
+        if (next == OrderStatus.NEW && previous != null && isPartlyFilled(order)) {
+            next = OrderStatus.PARTIALLY_FILLED;
+        }
+        order.setStatus(next);
+        for (OrderEventListener listener : listeners) {
+            listener.onOrderEvent(order, event, previous);
+        }
+        return next;
+    }
+
+    /**
+     * The status an event leads to, or null if the status does not accept it.
+     *
+     * @param from the current status, or null for an order that has not been accepted yet
+     */
+    public static OrderStatus next(OrderStatus from, OrderEvent event) {
+        return (from == null ? INITIAL : TRANSITIONS[from.ordinal()])[event.ordinal()];
+    }
+
+    /**
+     * The statuses that accept an event, e.g. the open orders that can expire.
+     */
+    public static Set<OrderStatus> statusesAccepting(OrderEvent event) {
+        Set<OrderStatus> statuses = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            if (next(status, event) != null) {
+                statuses.add(status);
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * Whether no event can change the status any more.
+     */
+    public static boolean isTerminal(OrderStatus status) {
+        for (OrderStatus next : TRANSITIONS[status.ordinal()]) {
+            if (next != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPartlyFilled(Order order) {
+        return order.getFilledQuantity() != null && order.getFilledQuantity().signum() > 0;
+    }
+
+    private static void allow(OrderStatus[] row, OrderEvent event, OrderStatus to) {
+        row[event.ordinal()] = to;
+    }
+}
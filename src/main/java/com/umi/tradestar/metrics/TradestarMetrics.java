@@ -0,0 +1,208 @@
+package com.umi.tradestar.metrics;
+
+import com.umi.tradestar.exception.AuthenticationException;
+import com.umi.tradestar.exception.OrderProcessingException;
+import com.umi.tradestar.exception.ValidationException;
+import com.umi.tradestar.lifecycle.OrderEvent;
+import com.umi.tradestar.lifecycle.OrderEventListener;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.enums.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-registered meters for the order and authentication hot paths.
+ *
+ * All meters are created once at startup, so recording never looks up a meter by name or builds tags
+ * on the request path. Callers take {@link System#nanoTime()} before the timed section and pass the
+ * start to the {@code record} methods, which keeps recording allocation-free.
+ *
+ * Also records how long after JVM start the application was ready and accepted its first order; the
+ * latter bounds how long a failover takes, and counts committed order lifecycle events by {@link OrderEvent}.
+ *
+ * @author VrushankPatel
+ */
+@Component
+public class TradestarMetrics implements OrderEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradestarMetrics.class);
+
+    // Error codes that are raised directly in GlobalExceptionHandler or a filter rather than via an exception constant
+    private static final String[] HANDLER_ERROR_CODES = {
+            "AUTH005", "AUTH006", "AUTH007", "METHOD_NOT_SUPPORTED", "INTERNAL_ERROR", "RATE001"
+    };
+    private static final String UNKNOWN_ERROR_CODE = "OTHER";
+
+    private final Timer orderAccept;
+    private final Timer orderValidation;
+    private final Timer orderPersistence;
+    private final Timer orderCancel;
+    private final Timer jwtParse;
+    private final Timer userLookup;
+    private final Map<String, Counter> errorsByCode;
+    // By OrderEvent ordinal
+    private final Counter[] orderEvents;
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    // Milliseconds after JVM start, or -1 until it happened
+    private volatile long readyMillis = -1;
+    private volatile long firstOrderMillis = -1;
+
+    public TradestarMetrics(MeterRegistry registry) {
+        orderAccept = timer(registry, "tradestar.order.accept", "Order accepted, from validation to persisted");
+        orderValidation = timer(registry, "tradestar.order.validation", "Order validation");
+        orderPersistence = timer(registry, "tradestar.order.persistence", "Order insert or update");
+        orderCancel = timer(registry, "tradestar.order.cancel", "Order cancellation");
+        jwtParse = timer(registry, "tradestar.jwt.parse", "JWT signature check and claims parsing");
+        userLookup = timer(registry, "tradestar.user.lookup", "User lookup by email");
+
+        Map<String, Counter> counters = new HashMap<>();
+        for (Class<?> type : new Class<?>[]{OrderProcessingException.class, AuthenticationException.class, ValidationException.class}) {
+            for (String code : errorCodes(type)) {
+                counters.put(code, errorCounter(registry, code));
+            }
+        }
+        for (String code : HANDLER_ERROR_CODES) {
+            counters.putIfAbsent(code, errorCounter(registry, code));
+        }
+        counters.put(UNKNOWN_ERROR_CODE, errorCounter(registry, UNKNOWN_ERROR_CODE));
+        errorsByCode = Map.copyOf(counters);
+
+        orderEvents = new Counter[OrderEvent.values().length];
+        for (OrderEvent event : OrderEvent.values()) {
+            orderEvents[event.ordinal()] = Counter.builder("tradestar.order.events")
+                    .description("Order status transitions by event")
+                    .tag("event", event.name())
+                    .register(registry);
+        }
+
+        Gauge.builder("tradestar.startup.ready", this, metrics -> seconds(metrics.readyMillis))
+                .description("Time from JVM start until the application was ready")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("tradestar.startup.first-order", this, metrics -> seconds(metrics.firstOrderMillis))
+                .description("Time from JVM start until the first order was accepted")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    public void recordOrderAccept(long startNanos) {
+        orderAccept.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (firstOrderMillis < 0) {
+            recordFirstOrder();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recordReady() {
+        readyMillis = System.currentTimeMillis() - jvmStartMillis;
+        logger.info("Ready {} ms after JVM start", readyMillis);
+    }
+
+    private synchronized void recordFirstOrder() {
+        if (firstOrderMillis < 0) {
+            firstOrderMillis = System.currentTimeMillis() - jvmStartMillis;
+            logger.info("First order accepted {} ms after JVM start", firstOrderMillis);
+        }
+    }
+
+    public void recordOrderValidation(long startNanos) {
+        orderValidation.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOrderPersistence(long startNanos) {
+        orderPersistence.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOrderCancel(long startNanos) {
+        orderCancel.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordJwtParse(long startNanos) {
+        jwtParse.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUserLookup(long startNanos) {
+        userLookup.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Count an error response by its error code. Codes that were not known at startup are counted as {@code OTHER}.
+     */
+    public void recordError(String errorCode) {
+        Counter counter = errorCode != null ? errorsByCode.get(errorCode) : null;
+        (counter != null ? counter : errorsByCode.get(UNKNOWN_ERROR_CODE)).increment();
+    }
+
+    /**
+     * Count an order event once the current transaction, if any, has committed, so events of changes
+     * that were rolled back are not counted.
+     */
+    @Override
+    public void onOrderEvent(Order order, OrderEvent event, OrderStatus previous) {
+        Counter counter = orderEvents[event.ordinal()];
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counter.increment();
+                }
+            });
+        } else {
+            counter.increment();
+        }
+    }
+
+    private static double seconds(long millis) {
+        return millis < 0 ? Double.NaN : millis / 1000.0;
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+
+    private static Counter errorCounter(MeterRegistry registry, String code) {
+        return Counter.builder("tradestar.errors")
+                .description("Error responses by error code")
+                .tag("code", code)
+                .register(registry);
+    }
+
+    private static String[] errorCodes(Class<?> exceptionType) {
+        return Arrays.stream(exceptionType.getFields())
+                .filter(field -> field.getName().startsWith("ERROR_CODE_"))
+                .filter(field -> Modifier.isStatic(field.getModifiers()) && field.getType() == String.class)
+                .map(TradestarMetrics::constantValue)
+                .toArray(String[]::new);
+    }
+
+    private static String constantValue(Field field) {
+        try {
+            return (String) field.get(null);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Cannot read error code " + field.getName(), ex);
+        }
+    }
+}
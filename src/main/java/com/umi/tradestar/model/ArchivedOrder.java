@@ -0,0 +1,98 @@
+package com.umi.tradestar.model;
+
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderStatus;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.model.enums.TimeInForce;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class representing a closed order moved out of the orders table by the archiver.
+ * Rows keep the id they had in the orders table, and the trader as a plain id so the history can be
+ * read without joins. The history is only ever appended to and read by trader or symbol and creation time.
+ *
+ * @author VrushankPatel
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "orders_history", indexes = {
+        @Index(name = "idx_orders_history_trader_created", columnList = "trader_id, created_at"),
+        @Index(name = "idx_orders_history_symbol_created", columnList = "symbol_id, created_at"),
+        @Index(name = "idx_orders_history_trader_order_id", columnList = "trader_id, order_id")
+})
+public class ArchivedOrder {
+
+    @Id
+    private Long id; // Id the order had in the orders table
+
+    // Not unique: the history keeps every order it is given, including reuses of an id from before the
+    // live check against the history
+    @Column(name = "order_id")
+    private String orderId; // Client Order ID
+
+    @Column(name = "trader_id", nullable = false)
+    private Long traderId;
+
+    @Column(name = "symbol_id")
+    private Integer symbolId; // Id in the SymbolRegistry
+
+    @Enumerated(EnumType.STRING)
+    private OrderSide side;
+
+    @Enumerated(EnumType.STRING)
+    private OrderType orderType;
+
+    @Enumerated(EnumType.STRING)
+    private TimeInForce timeInForce;
+
+    private BigDecimal quantity;
+    private BigDecimal price;
+    private BigDecimal filledQuantity;
+    private BigDecimal averagePrice;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime archivedAt;
+
+    @Column(length = 1000)
+    private String fixMessage; // Original FIX message
+
+    /**
+     * The archived order in the shape of a live one, for answering order queries of its trader.
+     *
+     * @param trader the order's trader
+     * @return a detached order that must not be saved
+     */
+    public Order toOrder(User trader) {
+        return Order.builder()
+                .id(id)
+                .orderId(orderId)
+                .trader(trader)
+                .symbolId(symbolId)
+                .side(side)
+                .orderType(orderType)
+                .timeInForce(timeInForce)
+                .quantity(quantity)
+                .price(price)
+                .filledQuantity(filledQuantity)
+                .averagePrice(averagePrice)
+                .status(status)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .fixMessage(fixMessage)
+                .build();
+    }
+}
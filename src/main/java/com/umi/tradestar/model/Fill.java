@@ -0,0 +1,53 @@
+package com.umi.tradestar.model;
+
+import com.umi.tradestar.model.enums.OrderSide;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class representing one execution of an order, the ledger positions are rebuilt from.
+ * The order and trader are kept as plain ids so the ledger can be read without joins.
+ *
+ * @author VrushankPatel
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "fills", indexes = @Index(name = "idx_fills_trader", columnList = "trader_id"))
+public class Fill {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId; // Id of the filled order
+
+    @Column(name = "trader_id", nullable = false)
+    private Long traderId;
+
+    @Column(name = "symbol_id", nullable = false)
+    private Integer symbolId; // Id in the SymbolRegistry
+
+    @Enumerated(EnumType.STRING)
+    private OrderSide side;
+
+    private BigDecimal quantity;
+    private BigDecimal price;
+    private LocalDateTime executedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (executedAt == null) {
+            executedAt = LocalDateTime.now();
+        }
+    }
+}
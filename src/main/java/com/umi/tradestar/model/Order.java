@@ -3,6 +3,7 @@ package com.umi.tradestar.model;
 import com.umi.tradestar.model.enums.OrderSide;
 import com.umi.tradestar.model.enums.OrderStatus;
 import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.model.enums.TimeInForce;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,21 +24,28 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_trader_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_orders_status_updated", columnList = "status, updated_at")
+}, uniqueConstraints = @UniqueConstraint(name = "uk_orders_trader_order_id", columnNames = {"user_id", "order_id"}))
 public class Order {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true)
-    private String orderId; // Client Order ID
+    @Column(name = "order_id")
+    private String orderId; // Client Order ID, unique per trader
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User trader;
 
-    private String symbol;
+    @Column(name = "symbol_id")
+    private Integer symbolId; // Id in the SymbolRegistry
+
+    @Transient
+    private String symbol; // As sent by the client; only symbolId is stored
 
     @Enumerated(EnumType.STRING)
     private OrderSide side;
@@ -45,6 +53,9 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderType orderType;
 
+    @Enumerated(EnumType.STRING)
+    private TimeInForce timeInForce;
+
     private BigDecimal quantity;
     private BigDecimal price;
     private BigDecimal filledQuantity;
@@ -62,13 +73,16 @@ public class Order {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        updatedAt = createdAt;
         if (filledQuantity == null) {
             filledQuantity = BigDecimal.ZERO;
         }
         if (averagePrice == null) {
             averagePrice = BigDecimal.ZERO;
         }
+        if (timeInForce == null) {
+            timeInForce = TimeInForce.DAY;
+        }
     }
 
     @PreUpdate
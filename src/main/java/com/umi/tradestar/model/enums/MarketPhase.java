@@ -0,0 +1,24 @@
+package com.umi.tradestar.model.enums;
+
+/**
+ * Enum representing the phases of a trading session, in the order they occur during a day.
+ *
+ * @author VrushankPatel
+ */
+public enum MarketPhase {
+    PRE_OPEN(true),         // Orders are collected for the opening auction
+    OPENING_AUCTION(true),  // Opening auction call period
+    CONTINUOUS(true),       // Continuous trading
+    CLOSING_AUCTION(true),  // Closing auction call period
+    CLOSED(false);          // No new orders are accepted
+
+    private final boolean acceptingOrders;
+
+    MarketPhase(boolean acceptingOrders) {
+        this.acceptingOrders = acceptingOrders;
+    }
+
+    public boolean isAcceptingOrders() {
+        return acceptingOrders;
+    }
+}
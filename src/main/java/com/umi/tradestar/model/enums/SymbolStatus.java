@@ -0,0 +1,11 @@
+package com.umi.tradestar.model.enums;
+
+/**
+ * Enum representing the trading status of a symbol.
+ *
+ * @author VrushankPatel
+ */
+public enum SymbolStatus {
+    ACTIVE,  // Symbol accepts orders
+    HALTED   // Trading suspended, new orders are rejected
+}
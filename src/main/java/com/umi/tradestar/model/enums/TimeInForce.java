@@ -0,0 +1,11 @@
+package com.umi.tradestar.model.enums;
+
+/**
+ * Enum representing how long an order stays active.
+ *
+ * @author VrushankPatel
+ */
+public enum TimeInForce {
+    DAY,  // Expires when its symbol's market closes
+    GTC   // Good till cancelled
+}
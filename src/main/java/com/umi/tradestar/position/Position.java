@@ -0,0 +1,62 @@
+package com.umi.tradestar.position;
+
+import com.umi.tradestar.model.enums.OrderSide;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Net position of one trader in one symbol, kept with the average cost method.
+ *
+ * Fills that add to the position move the average cost; fills that reduce it realize
+ * {@code (price - averageCost)} per unit closed, with the sign of the position. A fill that flips the
+ * position from long to short or back opens the remainder at the fill price.
+ * Not thread-safe; {@link PositionKeeper} serializes updates per trader.
+ *
+ * @author VrushankPatel
+ */
+final class Position {
+
+    private final int symbolId;
+    private BigDecimal netQuantity = BigDecimal.ZERO;
+    private BigDecimal averageCost = BigDecimal.ZERO;
+    private BigDecimal realizedPnl = BigDecimal.ZERO;
+
+    Position(int symbolId) {
+        this.symbolId = symbolId;
+    }
+
+    void apply(OrderSide side, BigDecimal quantity, BigDecimal price) {
+        BigDecimal signed = side == OrderSide.BUY ? quantity : quantity.negate();
+        if (netQuantity.signum() == 0 || netQuantity.signum() == signed.signum()) {
+            BigDecimal held = netQuantity.abs();
+            averageCost = averageCost.multiply(held).add(price.multiply(quantity))
+                    .divide(held.add(quantity), MathContext.DECIMAL64);
+            netQuantity = netQuantity.add(signed);
+            return;
+        }
+        BigDecimal closed = quantity.min(netQuantity.abs());
+        BigDecimal pnlPerUnit = netQuantity.signum() > 0 ? price.subtract(averageCost) : averageCost.subtract(price);
+        realizedPnl = realizedPnl.add(pnlPerUnit.multiply(closed));
+        netQuantity = netQuantity.add(signed);
+        if (netQuantity.signum() == 0) {
+            averageCost = BigDecimal.ZERO;
+        } else if (netQuantity.signum() == signed.signum()) {
+            averageCost = price;
+        }
+    }
+
+    PositionSnapshot snapshot(BigDecimal lastPrice) {
+        BigDecimal unrealized = lastPrice == null || netQuantity.signum() == 0
+                ? BigDecimal.ZERO
+                : lastPrice.subtract(averageCost).multiply(netQuantity);
+        return PositionSnapshot.builder()
+                .symbolId(symbolId)
+                .netQuantity(netQuantity)
+                .averageCost(averageCost)
+                .lastPrice(lastPrice)
+                .realizedPnl(realizedPnl)
+                .unrealizedPnl(unrealized)
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.umi.tradestar.position;
+
+import com.umi.tradestar.model.Fill;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.repository.FillRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+
+/**
+ * In-memory positions per trader and symbol, updated incrementally from fills.
+ *
+ * Each trader's positions are an array indexed by symbol id, so applying a fill and reading a
+ * trader's positions never touch other traders or the orders table. Updates to one trader are
+ * serialized on that trader's book. The last trade price of each symbol, used for unrealized P&L,
+ * is the price of its latest fill. Positions are fed the fills themselves rather than order events,
+ * which carry an order's cumulative filled quantity and average price but not the fill that changed them.
+ *
+ * At startup the keeper is rebuilt from the fill ledger, streamed from a database cursor in execution
+ * order: each fill is applied to its trader's book as it is read, so only the books are held in memory,
+ * never the ledger.
+ *
+ * @author VrushankPatel
+ */
+public class PositionKeeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(PositionKeeper.class);
+
+    private final SymbolRegistry symbolRegistry;
+    private final FillRepository fillRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicReferenceArray<BigDecimal> lastPrices;
+    private volatile Map<Long, TraderBook> books = new ConcurrentHashMap<>();
+
+    public PositionKeeper(SymbolRegistry symbolRegistry, FillRepository fillRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.symbolRegistry = symbolRegistry;
+        this.fillRepository = fillRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.lastPrices = new AtomicReferenceArray<>(symbolRegistry.size());
+    }
+
+    /**
+     * Rebuild all positions from the fill ledger.
+     */
+    public void start() {
+        long started = System.nanoTime();
+        Long fills = transactionTemplate.execute(status -> {
+            try (Stream<Fill> ledger = fillRepository.streamLedger()) {
+                return rebuild(ledger);
+            }
+        });
+        logger.info("Rebuilt positions of {} traders from {} fills in {} ms", books.size(), fills,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Replace all positions with the ones the given fills produce.
+     *
+     * @param fills the ledger, in execution order
+     * @return number of fills applied
+     */
+    public long rebuild(Stream<Fill> fills) {
+        Map<Long, TraderBook> rebuilt = new ConcurrentHashMap<>();
+        long applied = 0;
+        for (Iterator<Fill> ledger = fills.iterator(); ledger.hasNext(); applied++) {
+            Fill fill = ledger.next();
+            rebuilt.computeIfAbsent(fill.getTraderId(), traderId -> new TraderBook(traderId, symbolRegistry.size()))
+                    .apply(fill);
+            lastPrices.set(fill.getSymbolId(), fill.getPrice());
+        }
+        books = rebuilt;
+        return applied;
+    }
+
+    /**
+     * Apply fills once the current transaction, if any, has committed, so positions never include
+     * fills that were rolled back.
+     */
+    public void record(List<Fill> fills) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fills.forEach(PositionKeeper.this::apply);
+                }
+            });
+        } else {
+            fills.forEach(this::apply);
+        }
+    }
+
+    void apply(Fill fill) {
+        books.computeIfAbsent(fill.getTraderId(), traderId -> new TraderBook(traderId, symbolRegistry.size())).apply(fill);
+        lastPrices.set(fill.getSymbolId(), fill.getPrice());
+    }
+
+    /**
+     * The trader's open and closed positions, in symbol id order.
+     */
+    public List<PositionSnapshot> positionsOf(Long traderId) {
+        TraderBook book = books.get(traderId);
+        return book == null ? List.of() : book.snapshot(lastPrices);
+    }
+
+    private static final class TraderBook {
+        private final Long traderId;
+        private final Position[] bySymbol;
+
+        TraderBook(Long traderId, int symbols) {
+            this.traderId = traderId;
+            this.bySymbol = new Position[symbols];
+        }
+
+        synchronized void apply(Fill fill) {
+            Position position = bySymbol[fill.getSymbolId()];
+            if (position == null) {
+                position = new Position(fill.getSymbolId());
+                bySymbol[fill.getSymbolId()] = position;
+            }
+            position.apply(fill.getSide(), fill.getQuantity(), fill.getPrice());
+        }
+
+        synchronized List<PositionSnapshot> snapshot(AtomicReferenceArray<BigDecimal> lastPrices) {
+            List<PositionSnapshot> positions = new ArrayList<>();
+            for (int symbolId = 0; symbolId < bySymbol.length; symbolId++) {
+                if (bySymbol[symbolId] != null) {
+                    positions.add(bySymbol[symbolId].snapshot(lastPrices.get(symbolId)));
+                }
+            }
+            return positions;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.umi.tradestar.position;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * A trader's position in one symbol at the time it was read, with unrealized P&L against the
+ * symbol's last trade price.
+ *
+ * @author VrushankPatel
+ */
+@Value
+@Builder
+public class PositionSnapshot {
+
+    int symbolId;
+    BigDecimal netQuantity; // Positive when long, negative when short
+    BigDecimal averageCost;
+    BigDecimal lastPrice; // Null until the symbol has traded
+    BigDecimal realizedPnl;
+    BigDecimal unrealizedPnl;
+}
@@ -0,0 +1,51 @@
+package com.umi.tradestar.ratelimit;
+
+import com.umi.tradestar.model.enums.Role;
+import lombok.Value;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A sustained request rate and the burst allowed on top of it.
+ *
+ * @author VrushankPatel
+ */
+@Value
+public class RateLimit {
+
+    int permitsPerSecond;
+    int burst;
+
+    public RateLimit(int permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || permitsPerSecond > 1_000_000_000 || burst <= 0) {
+            throw new IllegalArgumentException("Invalid rate limit " + permitsPerSecond + "/" + burst);
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+    }
+
+    /**
+     * Parse a comma separated list of {@code ROLE=permitsPerSecond/burst} entries, for example
+     * {@code TRADER=50/100,ADMIN=200/400}. Roles that are not listed are not limited.
+     */
+    public static Map<Role, RateLimit> parseByRole(String spec) {
+        Map<Role, RateLimit> limits = new EnumMap<>(Role.class);
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split("[=/]");
+            if (parts.length != 3) {
+                throw new IllegalStateException("Invalid rate limit, expected ROLE=permitsPerSecond/burst: " + entry);
+            }
+            try {
+                limits.put(Role.valueOf(parts[0].trim()),
+                        new RateLimit(Integer.parseInt(parts[1].trim()), Integer.parseInt(parts[2].trim())));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalStateException("Invalid rate limit: " + entry, ex);
+            }
+        }
+        return limits;
+    }
+}
@@ -0,0 +1,38 @@
+package com.umi.tradestar.ratelimit;
+
+/**
+ * Endpoints with their own per-trader rate limit, on top of the trader's limit across all endpoints.
+ *
+ * @author VrushankPatel
+ */
+public enum RateLimitedEndpoint {
+    ORDER_ENTRY("POST", "/api/v1/orders", false),
+    ORDER_CANCEL("DELETE", "/api/v1/orders/", true),
+    ORDER_QUERY("GET", "/api/v1/orders", true),
+    REPORTS("GET", "/api/v1/reports", true);
+
+    private static final RateLimitedEndpoint[] VALUES = values();
+
+    private final String method;
+    private final String path;
+    private final boolean prefix;
+
+    RateLimitedEndpoint(String method, String path, boolean prefix) {
+        this.method = method;
+        this.path = path;
+        this.prefix = prefix;
+    }
+
+    /**
+     * The endpoint a request is for, or {@code null} if it only counts against the trader's overall limit.
+     */
+    public static RateLimitedEndpoint match(String method, String uri) {
+        for (RateLimitedEndpoint endpoint : VALUES) {
+            if (endpoint.method.equals(method)
+                    && (endpoint.prefix ? uri.startsWith(endpoint.path) : uri.equals(endpoint.path))) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,175 @@
+package com.umi.tradestar.ratelimit;
+
+import com.umi.tradestar.model.enums.Role;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-trader request rate limits, by role.
+ *
+ * Every trader has a bucket across all endpoints and one per {@link RateLimitedEndpoint}, created on
+ * their first request and held in a single map keyed by the trader's username, so a check is one hash
+ * map read and a compare-and-set per bucket. A request refused by the overall bucket gives back the
+ * endpoint token it took, so only requests let through count against either limit. Traders idle for longer than the idle timeout are swept
+ * from the map; their buckets would be full again by then anyway. The map never holds more than
+ * {@code maxTraders}: when it is full, traders without buckets share one set of buckets per role until
+ * the next sweep makes room.
+ *
+ * @author VrushankPatel
+ */
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+    private static final RateLimitedEndpoint[] ENDPOINTS = RateLimitedEndpoint.values();
+
+    private final Map<Role, RateLimit> traderLimits;
+    private final Map<RateLimitedEndpoint, Map<Role, RateLimit>> endpointLimits;
+    private final ConcurrentHashMap<String, TraderBuckets> buckets;
+    private final Map<Role, TraderBuckets> overflow = new EnumMap<>(Role.class);
+    private final int maxTraders;
+    private final long idleNanos;
+    private final long sweepIntervalMillis;
+    private ScheduledExecutorService sweeper;
+
+    public RateLimiter(Map<Role, RateLimit> traderLimits, Map<RateLimitedEndpoint, Map<Role, RateLimit>> endpointLimits,
+                       int maxTraders, long idleMillis, long sweepIntervalMillis) {
+        this.traderLimits = traderLimits;
+        this.endpointLimits = endpointLimits;
+        this.buckets = new ConcurrentHashMap<>(Math.min(maxTraders, 1 << 16));
+        this.maxTraders = maxTraders;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.sweepIntervalMillis = sweepIntervalMillis;
+        for (Role role : Role.values()) {
+            overflow.put(role, newBuckets(role, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Limiter that lets every request through.
+     */
+    public static RateLimiter disabled() {
+        return new RateLimiter(Map.of(), Map.of(), 0, 0, 0);
+    }
+
+    /**
+     * Take a token for a request of a trader.
+     *
+     * @param trader   the trader's username
+     * @param role     the trader's role
+     * @param endpoint the endpoint requested, or {@code null} for one without its own limit
+     * @return 0 if the request may proceed, else how many nanoseconds until it would be let through
+     */
+    public long tryAcquire(String trader, Role role, RateLimitedEndpoint endpoint) {
+        return tryAcquire(trader, role, endpoint, System.nanoTime());
+    }
+
+    long tryAcquire(String trader, Role role, RateLimitedEndpoint endpoint, long nowNanos) {
+        if (maxTraders <= 0) {
+            return 0;
+        }
+        TraderBuckets trading = bucketsOf(trader, role, nowNanos);
+        trading.lastSeenNanos = nowNanos;
+        TokenBucket endpointBucket = endpoint != null ? trading.endpoints[endpoint.ordinal()] : null;
+        if (endpointBucket != null) {
+            long wait = endpointBucket.tryAcquire(nowNanos);
+            if (wait > 0) {
+                return wait;
+            }
+        }
+        long wait = trading.all != null ? trading.all.tryAcquire(nowNanos) : 0;
+        if (wait > 0 && endpointBucket != null) {
+            // Refused by the overall limit, so the request does not count against the endpoint
+            endpointBucket.release();
+        }
+        return wait;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private TraderBuckets bucketsOf(String trader, Role role, long nowNanos) {
+        TraderBuckets existing = buckets.get(trader);
+        if (existing != null && existing.role == role) {
+            return existing;
+        }
+        if (existing == null && buckets.size() >= maxTraders) {
+            return overflow.get(role);
+        }
+        // First request, or the trader's role changed since their buckets were created
+        TraderBuckets created = newBuckets(role, nowNanos);
+        if (existing == null) {
+            existing = buckets.putIfAbsent(trader, created);
+            return existing != null ? existing : created;
+        }
+        return buckets.replace(trader, existing, created) ? created : buckets.getOrDefault(trader, created);
+    }
+
+    private TraderBuckets newBuckets(Role role, long nowNanos) {
+        RateLimit all = traderLimits.get(role);
+        TokenBucket[] byEndpoint = new TokenBucket[ENDPOINTS.length];
+        for (RateLimitedEndpoint endpoint : ENDPOINTS) {
+            RateLimit limit = endpointLimits.getOrDefault(endpoint, Map.of()).get(role);
+            byEndpoint[endpoint.ordinal()] = limit != null ? new TokenBucket(limit) : null;
+        }
+        return new TraderBuckets(role, all != null ? new TokenBucket(all) : null, byEndpoint, nowNanos);
+    }
+
+    /**
+     * Forget the traders that sent no request for longer than the idle timeout.
+     */
+    public void sweep() {
+        sweep(System.nanoTime());
+    }
+
+    void sweep(long nowNanos) {
+        buckets.values().removeIf(trading -> nowNanos - trading.lastSeenNanos > idleNanos);
+    }
+
+    public synchronized void start() {
+        if (sweeper != null || maxTraders <= 0 || sweepIntervalMillis <= 0) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                sweep();
+            } catch (RuntimeException ex) {
+                logger.error("Rate limit sweep failed:", ex);
+            }
+        }, sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+
+    private static final class TraderBuckets {
+        private final Role role;
+        private final TokenBucket all;
+        private final TokenBucket[] endpoints;
+        // Written on every request without a CAS; racing writers all store a current enough time
+        private volatile long lastSeenNanos;
+
+        private TraderBuckets(Role role, TokenBucket all, TokenBucket[] endpoints, long lastSeenNanos) {
+            this.role = role;
+            this.all = all;
+            this.endpoints = endpoints;
+            this.lastSeenNanos = lastSeenNanos;
+        }
+    }
+}
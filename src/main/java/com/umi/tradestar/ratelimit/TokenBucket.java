@@ -0,0 +1,51 @@
+package com.umi.tradestar.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ *
+ * Instead of a token count and a refill time, the bucket keeps the single time at which it will next be
+ * full again, so taking a token is one compare-and-set and refilling needs no timer. A request is let
+ * through while that time is no more than {@code burst - 1} token intervals ahead of now.
+ *
+ * @author VrushankPatel
+ */
+public final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long toleranceNanos;
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(RateLimit limit) {
+        this.nanosPerToken = 1_000_000_000L / limit.getPermitsPerSecond();
+        this.toleranceNanos = nanosPerToken * (limit.getBurst() - 1);
+    }
+
+    /**
+     * Take a token.
+     *
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @return 0 if a token was taken, else how many nanoseconds until one is available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long from = Math.max(current, nowNanos);
+            long wait = from - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, from + nanosPerToken)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Give back a token taken by {@link #tryAcquire}, e.g. when another limit refused the request.
+     */
+    public void release() {
+        fullAt.addAndGet(-nanosPerToken);
+    }
+}
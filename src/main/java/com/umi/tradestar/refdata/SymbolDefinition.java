@@ -0,0 +1,48 @@
+package com.umi.tradestar.refdata;
+
+import com.umi.tradestar.model.enums.SymbolStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Reference data of one tradable symbol.
+ * Limit prices must be a multiple of the tick size and lie within the price band; quantities must
+ * be a multiple of the lot size.
+ *
+ * @author VrushankPatel
+ */
+@Value
+@Builder
+public class SymbolDefinition {
+
+    int id; // Dense id, the symbol's position in the registry
+    String symbol;
+    BigDecimal tickSize;
+    BigDecimal lotSize;
+    BigDecimal lowPrice;
+    BigDecimal highPrice;
+    SymbolStatus status;
+    String sessionGroup; // Trading session schedule the symbol follows
+    int sessionGroupId; // Dense id of the session group, in order of first appearance
+
+    /**
+     * Number of valid limit prices, from the low to the high price in tick steps.
+     */
+    public int priceLevels() {
+        return levelOf(highPrice) + 1;
+    }
+
+    /**
+     * The price as number of ticks above the low price.
+     */
+    public int levelOf(BigDecimal price) {
+        return price.subtract(lowPrice).divide(tickSize, MathContext.DECIMAL64).intValue();
+    }
+
+    public BigDecimal priceAt(int level) {
+        return lowPrice.add(tickSize.multiply(BigDecimal.valueOf(level)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.umi.tradestar.refdata;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+
+/**
+ * Fills in {@code orders.symbol_id} of orders stored before symbols had ids, from the symbol string in
+ * the legacy {@code orders.symbol} column. Does nothing on databases without that column.
+ *
+ * Rows are updated in batches of {@code batchSize}, each in its own transaction, so no single statement
+ * holds locks on the whole table. A batch must commit explicitly: with auto-commit off, as in the prod
+ * pool, an update outside a transaction is rolled back when its connection returns to the pool. Orders
+ * whose symbol is not in the registry keep a null id and are logged.
+ *
+ * @author VrushankPatel
+ */
+public class SymbolIdBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(SymbolIdBackfill.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SymbolRegistry symbolRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public SymbolIdBackfill(JdbcTemplate jdbcTemplate, SymbolRegistry symbolRegistry,
+                            PlatformTransactionManager transactionManager, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.symbolRegistry = symbolRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return number of orders given a symbol id
+     */
+    public long run() {
+        if (!hasLegacySymbolColumn()) {
+            return 0;
+        }
+        long filled = 0;
+        for (int id = 0; id < symbolRegistry.size(); id++) {
+            int symbolId = id;
+            String symbol = symbolRegistry.get(id).getSymbol();
+            int updated;
+            do {
+                Integer batch = transactionTemplate.execute(status -> jdbcTemplate.update(
+                        "update orders set symbol_id = ? where id in "
+                        + "(select id from orders where symbol_id is null and symbol = ? fetch first ? rows only)",
+                        symbolId, symbol, batchSize));
+                updated = batch != null ? batch : 0;
+                filled += updated;
+            } while (updated == batchSize);
+        }
+        Long unresolved = jdbcTemplate.queryForObject(
+                "select count(*) from orders where symbol_id is null and symbol is not null", Long.class);
+        if (filled > 0) {
+            logger.info("Filled in the symbol id of {} orders from the legacy symbol column", filled);
+        }
+        if (unresolved != null && unresolved > 0) {
+            logger.warn("{} orders have a symbol that is not in the symbol registry and no symbol id", unresolved);
+        }
+        return filled;
+    }
+
+    private boolean hasLegacySymbolColumn() {
+        Boolean present = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // Unquoted names are stored upper case by H2 and lower case by PostgreSQL
+            for (String[] names : new String[][]{{"orders", "symbol"}, {"ORDERS", "SYMBOL"}}) {
+                try (ResultSet columns = metaData.getColumns(null, null, names[0], names[1])) {
+                    if (columns.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(present);
+    }
+}
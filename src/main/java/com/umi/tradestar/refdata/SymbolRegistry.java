@@ -0,0 +1,163 @@
+package com.umi.tradestar.refdata;
+
+import com.umi.tradestar.exception.OrderProcessingException;
+import com.umi.tradestar.model.enums.SymbolStatus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable symbol master, loaded once at startup.
+ *
+ * Every symbol gets a dense int id, its row number in the symbol file, and internal code refers to
+ * symbols by that id. The symbol string is only looked up once per request, at ingress. Nodes of a
+ * cluster must load the same file so that they agree on the ids.
+ *
+ * @author VrushankPatel
+ */
+public class SymbolRegistry {
+
+    private static final String HEADER = "symbol,tickSize,lotSize,lowPrice,highPrice,status,sessionGroup";
+
+    private final SymbolDefinition[] definitions;
+    private final Map<String, SymbolDefinition> bySymbol;
+    private final List<String> sessionGroups;
+    private final int[][] symbolIdsBySessionGroup;
+
+    private SymbolRegistry(SymbolDefinition[] definitions) {
+        this.definitions = definitions;
+        Map<String, SymbolDefinition> index = new HashMap<>();
+        List<String> groups = new ArrayList<>();
+        for (SymbolDefinition definition : definitions) {
+            if (index.put(definition.getSymbol(), definition) != null) {
+                throw new IllegalArgumentException("Duplicate symbol " + definition.getSymbol());
+            }
+            if (definition.getSessionGroupId() == groups.size()) {
+                groups.add(definition.getSessionGroup());
+            } else if (!groups.get(definition.getSessionGroupId()).equals(definition.getSessionGroup())) {
+                throw new IllegalArgumentException("Session group ids must be assigned in order of first appearance, "
+                        + definition.getSymbol() + " has group " + definition.getSessionGroup() + " with id " + definition.getSessionGroupId());
+            }
+        }
+        this.bySymbol = Map.copyOf(index);
+        this.sessionGroups = List.copyOf(groups);
+        this.symbolIdsBySessionGroup = new int[groups.size()][];
+        for (int group = 0; group < groups.size(); group++) {
+            int groupId = group;
+            symbolIdsBySessionGroup[group] = Arrays.stream(definitions)
+                    .filter(definition -> definition.getSessionGroupId() == groupId)
+                    .mapToInt(SymbolDefinition::getId)
+                    .toArray();
+        }
+    }
+
+    /**
+     * Load a symbol file: a CSV with the header {@value #HEADER}, one symbol per line.
+     * Blank lines and lines starting with {@code #} are skipped.
+     */
+    public static SymbolRegistry load(InputStream csv) throws IOException {
+        List<SymbolDefinition> definitions = new ArrayList<>();
+        Map<String, Integer> groupIds = new HashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null || !HEADER.equals(header.trim())) {
+            throw new IOException("Symbol file must start with the header: " + HEADER);
+        }
+        String line;
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split(",", -1);
+            if (columns.length != 7) {
+                throw new IOException("Line " + lineNumber + " of the symbol file has " + columns.length + " columns");
+            }
+            try {
+                definitions.add(SymbolDefinition.builder()
+                        .id(definitions.size())
+                        .symbol(columns[0].trim())
+                        .tickSize(new BigDecimal(columns[1].trim()))
+                        .lotSize(new BigDecimal(columns[2].trim()))
+                        .lowPrice(new BigDecimal(columns[3].trim()))
+                        .highPrice(new BigDecimal(columns[4].trim()))
+                        .status(SymbolStatus.valueOf(columns[5].trim()))
+                        .sessionGroup(columns[6].trim())
+                        .sessionGroupId(groupIds.computeIfAbsent(columns[6].trim(), group -> groupIds.size()))
+                        .build());
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("Invalid line " + lineNumber + " of the symbol file: " + line, ex);
+            }
+        }
+        return new SymbolRegistry(definitions.toArray(new SymbolDefinition[0]));
+    }
+
+    /**
+     * Registry of the given definitions, whose ids must be 0 to n-1 in order.
+     */
+    public static SymbolRegistry of(List<SymbolDefinition> definitions) {
+        for (int i = 0; i < definitions.size(); i++) {
+            if (definitions.get(i).getId() != i) {
+                throw new IllegalArgumentException("Symbol ids must be dense and in order, " + definitions.get(i).getSymbol()
+                        + " has id " + definitions.get(i).getId() + " at position " + i);
+            }
+        }
+        return new SymbolRegistry(definitions.toArray(new SymbolDefinition[0]));
+    }
+
+    public int size() {
+        return definitions.length;
+    }
+
+    /**
+     * Session group names, indexed by session group id.
+     */
+    public List<String> getSessionGroups() {
+        return sessionGroups;
+    }
+
+    /**
+     * Ids of the symbols in a session group. The returned array must not be modified.
+     */
+    public int[] symbolIdsInSessionGroup(int sessionGroupId) {
+        return symbolIdsBySessionGroup[sessionGroupId];
+    }
+
+    public SymbolDefinition get(int symbolId) {
+        return definitions[symbolId];
+    }
+
+    /**
+     * The definition of a symbol string, as sent by clients.
+     *
+     * @throws OrderProcessingException if the symbol is not listed
+     */
+    public SymbolDefinition require(String symbol) {
+        SymbolDefinition definition = bySymbol.get(symbol);
+        if (definition == null) {
+            throw OrderProcessingException.unknownSymbol(symbol);
+        }
+        return definition;
+    }
+
+    /**
+     * The symbol string of an id, or null for a null or unknown id.
+     */
+    public String symbolOf(Integer symbolId) {
+        if (symbolId == null || symbolId < 0 || symbolId >= definitions.length) {
+            return null;
+        }
+        return definitions[symbolId].getSymbol();
+    }
+}
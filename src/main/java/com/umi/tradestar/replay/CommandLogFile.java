@@ -0,0 +1,96 @@
+package com.umi.tradestar.replay;
+
+import com.umi.tradestar.cluster.OrderCommand;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary format of recorded order command streams.
+ *
+ * The file starts with a header of magic number and format version, followed by one record per
+ * accepted command: the length of the encoded command and the bytes of {@link OrderCommand#encode()},
+ * the same encoding the order journal replicates.
+ *
+ * @author VrushankPatel
+ */
+public final class CommandLogFile {
+
+    static final int MAGIC = 0x5453434C; // "TSCL"
+    static final short VERSION = 1;
+
+    private CommandLogFile() {
+    }
+
+    /**
+     * Open a command log for appending, writing the header if the file is new or empty.
+     */
+    static DataOutputStream openForAppend(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        boolean empty = !Files.exists(path) || Files.size(path) == 0;
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+        if (empty) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+        }
+        return out;
+    }
+
+    static void write(DataOutputStream out, OrderCommand command) throws IOException {
+        byte[] payload = command.encode();
+        out.writeInt(payload.length);
+        out.write(payload);
+    }
+
+    /**
+     * Read every command of a recorded log, in the order they were accepted.
+     */
+    public static List<OrderCommand> read(Path path) throws IOException {
+        try (InputStream stream = Files.newInputStream(path)) {
+            return read(stream);
+        }
+    }
+
+    public static List<OrderCommand> read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an order command log");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported order command log version " + version);
+        }
+
+        List<OrderCommand> commands = new ArrayList<>();
+        while (true) {
+            int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException ex) {
+                return commands;
+            }
+            byte[] payload = new byte[length];
+            try {
+                in.readFully(payload);
+            } catch (EOFException ex) {
+                // A record cut short by a crash while it was being written
+                return commands;
+            }
+            commands.add(OrderCommand.decode(payload));
+        }
+    }
+}
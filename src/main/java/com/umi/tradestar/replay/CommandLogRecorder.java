@@ -0,0 +1,125 @@
+package com.umi.tradestar.replay;
+
+import com.umi.tradestar.cluster.OrderCommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records accepted order commands to a {@link CommandLogFile} so an incident can be replayed later.
+ *
+ * Inside a transaction a command is written only once the transaction commits, so the log holds
+ * exactly the commands whose effects were stored. Writes go to a buffered stream that is flushed
+ * periodically and on {@link #stop()}.
+ *
+ * @author VrushankPatel
+ */
+public class CommandLogRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandLogRecorder.class);
+
+    private final boolean enabled;
+    private final Path path;
+    private final long flushIntervalMillis;
+    private DataOutputStream out;
+    private ScheduledExecutorService flusher;
+
+    public CommandLogRecorder(Path path, long flushIntervalMillis) {
+        this(true, path, flushIntervalMillis);
+    }
+
+    private CommandLogRecorder(boolean enabled, Path path, long flushIntervalMillis) {
+        this.enabled = enabled;
+        this.path = path;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Recorder that records nothing.
+     */
+    public static CommandLogRecorder disabled() {
+        return new CommandLogRecorder(false, null, 0);
+    }
+
+    /**
+     * Record a command once the current transaction, if any, has committed.
+     */
+    public void record(OrderCommand command) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write(command);
+                }
+            });
+        } else {
+            write(command);
+        }
+    }
+
+    private synchronized void write(OrderCommand command) {
+        if (out == null) {
+            return;
+        }
+        try {
+            CommandLogFile.write(out, command);
+        } catch (IOException ex) {
+            logger.error("Could not record order command {} to {}:", command.getOrderId(), path, ex);
+        }
+    }
+
+    private synchronized void flush() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException ex) {
+            logger.error("Could not flush order command log {}:", path, ex);
+        }
+    }
+
+    public synchronized void start() {
+        if (!enabled || out != null) {
+            return;
+        }
+        try {
+            out = CommandLogFile.openForAppend(path);
+        } catch (IOException ex) {
+            logger.error("Cannot open order command log {}, recording disabled:", path, ex);
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "command-log-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Recording accepted order commands to {}", path);
+    }
+
+    public synchronized void stop() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdownNow();
+        flusher = null;
+        try {
+            out.close();
+        } catch (IOException ex) {
+            logger.warn("Could not close order command log {}:", path, ex);
+        }
+        out = null;
+    }
+}
@@ -0,0 +1,162 @@
+package com.umi.tradestar.replay;
+
+import com.umi.tradestar.cluster.OrderCommand;
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.model.enums.TimeInForce;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns FIX tag=value messages into the order commands they stand for, so FIX logs and stored
+ * {@code fixMessage}s can be replayed like a recorded command stream.
+ *
+ * NewOrderSingle (35=D) becomes a NEW command and OrderCancelRequest (35=F) a CANCEL of the order
+ * whose ClOrdID is in OrigClOrdID (41). Other message types are ignored. Fields may be separated by
+ * SOH or {@code |}, and anything before {@code 8=FIX} on a log line is skipped. The trader is taken
+ * from a numeric Account (1) and the timestamp from TransactTime (60) or SendingTime (52), in UTC.
+ *
+ * @author VrushankPatel
+ */
+public final class FixMessageParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixMessageParser.class);
+    private static final DateTimeFormatter UTC_TIMESTAMP = new DateTimeFormatterBuilder()
+            .appendPattern("yyyyMMdd-HH:mm:ss")
+            .optionalStart()
+            .appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true)
+            .optionalEnd()
+            .toFormatter();
+
+    private FixMessageParser() {
+    }
+
+    /**
+     * @return the command, or null if the message is not an order entry or cancel
+     * @throws IllegalArgumentException if the message is malformed or names an unknown symbol
+     */
+    public static OrderCommand parse(String message, SymbolRegistry symbolRegistry) {
+        int begin = message.indexOf("8=FIX");
+        if (begin < 0) {
+            return null;
+        }
+        String msgType = null;
+        String clOrdId = null;
+        String origClOrdId = null;
+        String symbol = null;
+        String side = null;
+        String quantity = null;
+        String ordType = null;
+        String price = null;
+        String timeInForce = null;
+        String account = null;
+        String sendingTime = null;
+        String transactTime = null;
+
+        for (String field : message.substring(begin).split("[\u0001|]")) {
+            int equals = field.indexOf('=');
+            if (equals <= 0) {
+                continue;
+            }
+            String value = field.substring(equals + 1);
+            switch (field.substring(0, equals)) {
+                case "35" -> msgType = value;
+                case "11" -> clOrdId = value;
+                case "41" -> origClOrdId = value;
+                case "55" -> symbol = value;
+                case "54" -> side = value;
+                case "38" -> quantity = value;
+                case "40" -> ordType = value;
+                case "44" -> price = value;
+                case "59" -> timeInForce = value;
+                case "1" -> account = value;
+                case "52" -> sendingTime = value;
+                case "60" -> transactTime = value;
+                default -> {
+                    // Not needed to re-drive the order
+                }
+            }
+        }
+
+        OrderCommand.Type type;
+        if ("D".equals(msgType)) {
+            type = OrderCommand.Type.NEW;
+        } else if ("F".equals(msgType)) {
+            type = OrderCommand.Type.CANCEL;
+        } else {
+            return null;
+        }
+        OrderCommand.OrderCommandBuilder command = OrderCommand.builder()
+                .type(type)
+                .symbolId(symbolRegistry.require(required(symbol, "Symbol(55)")).getId())
+                .traderId(account != null && !account.isEmpty() && account.chars().allMatch(Character::isDigit)
+                        ? Long.valueOf(account) : null)
+                .timestamp(timestamp(transactTime != null ? transactTime : sendingTime));
+        if (type == OrderCommand.Type.CANCEL) {
+            return command.orderId(required(origClOrdId, "OrigClOrdID(41)")).build();
+        }
+        OrderType orderType = "1".equals(ordType) ? OrderType.MARKET : OrderType.LIMIT;
+        return command
+                .orderId(required(clOrdId, "ClOrdID(11)"))
+                .side(switch (required(side, "Side(54)")) {
+                    case "1" -> OrderSide.BUY;
+                    case "2" -> OrderSide.SELL;
+                    default -> throw new IllegalArgumentException("Unsupported Side(54) " + side);
+                })
+                .orderType(orderType)
+                .timeInForce("1".equals(timeInForce) ? TimeInForce.GTC : TimeInForce.DAY)
+                .quantity(new BigDecimal(required(quantity, "OrderQty(38)")))
+                .price(orderType == OrderType.LIMIT ? new BigDecimal(required(price, "Price(44)")) : null)
+                .build();
+    }
+
+    /**
+     * Read the order commands of a FIX log with one message per line. Lines that cannot be parsed are
+     * logged and skipped.
+     */
+    public static List<OrderCommand> readLog(Path path, SymbolRegistry symbolRegistry) throws IOException {
+        List<OrderCommand> commands = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.ISO_8859_1)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                try {
+                    OrderCommand command = parse(line, symbolRegistry);
+                    if (command != null) {
+                        commands.add(command);
+                    }
+                } catch (RuntimeException ex) {
+                    logger.warn("Skipping line {} of {}: {}", lineNumber, path, ex.getMessage());
+                }
+            }
+        }
+        return commands;
+    }
+
+    private static String required(String value, String tag) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing " + tag);
+        }
+        return value;
+    }
+
+    private static long timestamp(String value) {
+        return value == null ? 0 : LocalDateTime.parse(value, UTC_TIMESTAMP).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,171 @@
+package com.umi.tradestar.replay;
+
+import com.umi.tradestar.cluster.OrderCommand;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.OrderStatus;
+import com.umi.tradestar.model.enums.TimeInForce;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.service.OrderService;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Re-drives a recorded stream of order commands through {@link OrderService} and checks that the
+ * replayed orders end up in the state the recording implies.
+ *
+ * Every recorded command was accepted when it was recorded, so each NEW must be accepted again
+ * with the recorded symbol, side, type, time in force, quantity and price, and end up open unless a
+ * later CANCEL of it is recorded, in which case it must end up cancelled. The replay assigns new
+ * order ids; recorded ids are mapped to the replayed orders.
+ *
+ * Commands are sent as fast as possible with {@code speed = 0}, or at their recorded pacing scaled
+ * by {@code speed} (1 is real time, 10 is ten times faster).
+ *
+ * @author VrushankPatel
+ */
+public class OrderReplayer {
+
+    public static final int MAX_REPORTED_MISMATCHES = 100;
+
+    private final OrderService orderService;
+    private final SymbolRegistry symbolRegistry;
+    private final LongFunction<User> traders;
+    private final Map<Long, UsernamePasswordAuthenticationToken> authentications = new HashMap<>();
+
+    /**
+     * @param traders resolves a recorded trader id, or -1 if none was recorded, to the user to replay as
+     */
+    public OrderReplayer(OrderService orderService, SymbolRegistry symbolRegistry, LongFunction<User> traders) {
+        this.orderService = orderService;
+        this.symbolRegistry = symbolRegistry;
+        this.traders = traders;
+    }
+
+    public ReplayReport replay(List<OrderCommand> commands, double speed) {
+        Map<String, Long> replayedIds = new LinkedHashMap<>();
+        Map<String, OrderCommand> newCommands = new HashMap<>();
+        Map<String, OrderStatus> expectedStatus = new HashMap<>();
+        Mismatches mismatches = new Mismatches();
+        long accepted = 0;
+        long rejected = 0;
+
+        long start = System.nanoTime();
+        long firstTimestamp = commands.isEmpty() ? 0 : commands.get(0).getTimestamp();
+        for (OrderCommand command : commands) {
+            if (speed > 0) {
+                waitUntil(start + (long) ((command.getTimestamp() - firstTimestamp) * 1_000_000L / speed));
+            }
+            SecurityContextHolder.getContext().setAuthentication(authenticationFor(command.getTraderId()));
+            try {
+                if (command.getType() == OrderCommand.Type.NEW) {
+                    replayedIds.put(command.getOrderId(), orderService.createOrder(toOrder(command)).getId());
+                    newCommands.put(command.getOrderId(), command);
+                    expectedStatus.put(command.getOrderId(), OrderStatus.NEW);
+                } else {
+                    Long id = replayedIds.get(command.getOrderId());
+                    if (id == null) {
+                        rejected++;
+                        mismatches.add("CANCEL " + command.getOrderId() + ": order was not replayed");
+                        continue;
+                    }
+                    orderService.cancelOrder(id);
+                    expectedStatus.put(command.getOrderId(), OrderStatus.CANCELLED);
+                }
+                accepted++;
+            } catch (RuntimeException ex) {
+                rejected++;
+                mismatches.add(command.getType() + " " + command.getOrderId() + " rejected: " + ex.getMessage());
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        for (Map.Entry<String, Long> entry : replayedIds.entrySet()) {
+            verify(entry.getKey(), orderService.getOrderById(entry.getValue()), newCommands.get(entry.getKey()),
+                    expectedStatus.get(entry.getKey()), mismatches);
+        }
+        SecurityContextHolder.clearContext();
+        return new ReplayReport(commands.size(), accepted, rejected, elapsed, mismatches.count, mismatches.reported);
+    }
+
+    private Order toOrder(OrderCommand command) {
+        Order order = new Order();
+        order.setSymbol(symbolRegistry.get(command.getSymbolId()).getSymbol());
+        order.setSide(command.getSide());
+        order.setOrderType(command.getOrderType());
+        order.setTimeInForce(command.getTimeInForce());
+        order.setQuantity(command.getQuantity());
+        order.setPrice(command.getPrice());
+        return order;
+    }
+
+    private static void verify(String recordedId, Order order, OrderCommand recorded, OrderStatus expected,
+                               Mismatches mismatches) {
+        List<String> differences = new ArrayList<>();
+        if (order.getStatus() != expected) {
+            differences.add("status " + order.getStatus() + " != " + expected);
+        }
+        if (!Objects.equals(order.getSymbolId(), recorded.getSymbolId())) {
+            differences.add("symbolId " + order.getSymbolId() + " != " + recorded.getSymbolId());
+        }
+        if (order.getSide() != recorded.getSide()) {
+            differences.add("side " + order.getSide() + " != " + recorded.getSide());
+        }
+        if (order.getOrderType() != recorded.getOrderType()) {
+            differences.add("orderType " + order.getOrderType() + " != " + recorded.getOrderType());
+        }
+        TimeInForce recordedTif = recorded.getTimeInForce() != null ? recorded.getTimeInForce() : TimeInForce.DAY;
+        if (order.getTimeInForce() != recordedTif) {
+            differences.add("timeInForce " + order.getTimeInForce() + " != " + recordedTif);
+        }
+        if (order.getQuantity().compareTo(recorded.getQuantity()) != 0) {
+            differences.add("quantity " + order.getQuantity() + " != " + recorded.getQuantity());
+        }
+        if (recorded.getPrice() != null && (order.getPrice() == null || order.getPrice().compareTo(recorded.getPrice()) != 0)) {
+            differences.add("price " + order.getPrice() + " != " + recorded.getPrice());
+        }
+        if (!differences.isEmpty()) {
+            mismatches.add(recordedId + ": " + String.join(", ", differences));
+        }
+    }
+
+    private UsernamePasswordAuthenticationToken authenticationFor(Long traderId) {
+        return authentications.computeIfAbsent(traderId != null ? traderId : -1L, id -> {
+            User trader = traders.apply(id);
+            return new UsernamePasswordAuthenticationToken(trader, null, trader.getAuthorities());
+        });
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            // Park for most of the gap and spin the last bit; parkNanos alone overshoots by ~50us
+            if (remaining > 100_000) {
+                LockSupport.parkNanos(remaining - 50_000);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private static final class Mismatches {
+        private final List<String> reported = new ArrayList<>();
+        private long count;
+
+        void add(String mismatch) {
+            count++;
+            if (reported.size() < MAX_REPORTED_MISMATCHES) {
+                reported.add(mismatch);
+            }
+        }
+    }
+}
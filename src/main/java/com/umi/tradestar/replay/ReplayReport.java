@@ -0,0 +1,30 @@
+package com.umi.tradestar.replay;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Outcome of an {@link OrderReplayer} run. {@code mismatches} describes at most the first
+ * {@link OrderReplayer#MAX_REPORTED_MISMATCHES} differences; {@code mismatchCount} counts all of them.
+ *
+ * @author VrushankPatel
+ */
+@Value
+public class ReplayReport {
+
+    long commands;
+    long accepted;
+    long rejected;
+    long elapsedNanos;
+    long mismatchCount;
+    List<String> mismatches;
+
+    public boolean isMatching() {
+        return mismatchCount == 0;
+    }
+
+    public double getCommandsPerSecond() {
+        return commands * 1e9 / Math.max(1, elapsedNanos);
+    }
+}
@@ -0,0 +1,108 @@
+package com.umi.tradestar.repository;
+
+import com.umi.tradestar.model.ArchivedOrder;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Repository interface for ArchivedOrder entity, the cold history of closed orders.
+ *
+ * @author VrushankPatel
+ */
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    /**
+     * Find the archived orders a trader created in a time range.
+     *
+     * @param traderId the trader's user id
+     * @param from     earliest creation time, inclusive
+     * @param to       latest creation time, exclusive
+     * @return matching orders, oldest first
+     */
+    @Query("select a from ArchivedOrder a where a.traderId = :traderId and a.createdAt >= :from and a.createdAt < :to "
+            + "order by a.createdAt, a.id")
+    List<ArchivedOrder> findByTraderCreatedBetween(@Param("traderId") Long traderId,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to);
+
+    /**
+     * Stream the archived orders a trader created in a time range from a database cursor, for exports.
+     * Rows are fetched in batches as the stream is read and are not dirty checked; the caller must
+     * read it inside a transaction, close it, and detach each order once done with it.
+     *
+     * @param traderId the trader's user id
+     * @param from     earliest creation time, inclusive
+     * @param to       latest creation time, exclusive
+     * @return matching orders, oldest first
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select a from ArchivedOrder a where a.traderId = :traderId and a.createdAt >= :from and a.createdAt < :to "
+            + "order by a.createdAt, a.id")
+    Stream<ArchivedOrder> streamByTraderCreatedBetween(@Param("traderId") Long traderId,
+                                                       @Param("from") LocalDateTime from,
+                                                       @Param("to") LocalDateTime to);
+
+    /**
+     * Stream the archived orders of a symbol created in a time range from a database cursor, for exports.
+     * Same contract as {@link #streamByTraderCreatedBetween}.
+     *
+     * @param symbolId the symbol's id in the SymbolRegistry
+     * @param from     earliest creation time, inclusive
+     * @param to       latest creation time, exclusive
+     * @return matching orders, oldest first
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select a from ArchivedOrder a where a.symbolId = :symbolId and a.createdAt >= :from and a.createdAt < :to "
+            + "order by a.createdAt, a.id")
+    Stream<ArchivedOrder> streamBySymbolCreatedBetween(@Param("symbolId") Integer symbolId,
+                                                       @Param("from") LocalDateTime from,
+                                                       @Param("to") LocalDateTime to);
+
+    /**
+     * Whether a trader has an archived order with a client order ID.
+     *
+     * @param traderId the trader's user id
+     * @param orderId  the client order ID
+     * @return true if the trader used the ID on an archived order
+     */
+    boolean existsByTraderIdAndOrderId(Long traderId, String orderId);
+
+    /**
+     * Copy orders from the orders table into the history in one statement, keeping their ids.
+     * Orders whose id is already in the history are skipped.
+     *
+     * @param ids        ids of the orders to copy
+     * @param archivedAt archive timestamp to set
+     * @return number of orders copied
+     */
+    @Modifying
+    @Query("insert into ArchivedOrder (id, orderId, traderId, symbolId, side, orderType, timeInForce, quantity, "
+            + "price, filledQuantity, averagePrice, status, createdAt, updatedAt, archivedAt, fixMessage) "
+            + "select o.id, o.orderId, o.trader.id, o.symbolId, o.side, o.orderType, o.timeInForce, o.quantity, "
+            + "o.price, o.filledQuantity, o.averagePrice, o.status, o.createdAt, o.updatedAt, :archivedAt, o.fixMessage "
+            + "from Order o where o.id in :ids and not exists (select a.id from ArchivedOrder a where a.id = o.id)")
+    int copyFromOrders(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
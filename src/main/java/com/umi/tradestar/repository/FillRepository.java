@@ -0,0 +1,39 @@
+package com.umi.tradestar.repository;
+
+import com.umi.tradestar.model.Fill;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Repository interface for the fill ledger.
+ *
+ * @author VrushankPatel
+ */
+@Repository
+public interface FillRepository extends JpaRepository<Fill, Long> {
+
+    /**
+     * Stream every fill in the order they were executed from a database cursor. The fills are built
+     * by the query rather than loaded as entities, so the persistence context does not grow with the
+     * ledger. Must be called in a transaction and the stream closed.
+     *
+     * @return the whole ledger, oldest first
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new com.umi.tradestar.model.Fill(f.id, f.orderId, f.traderId, f.symbolId, f.side, f.quantity, "
+            + "f.price, f.executedAt) from Fill f order by f.id")
+    Stream<Fill> streamLedger();
+}
@@ -1,11 +1,30 @@
 package com.umi.tradestar.repository;
 
+import com.umi.tradestar.analytics.ClosedOrderRow;
 import com.umi.tradestar.model.Order;
 import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.OrderStatus;
+import com.umi.tradestar.model.enums.TimeInForce;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository interface for Order entity.
@@ -25,18 +44,173 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByTrader(User trader);
 
     /**
-     * Find order by its unique client order ID.
+     * Find the orders a trader created in a time range.
+     *
+     * @param trader the user who placed the orders
+     * @param from   earliest creation time, inclusive
+     * @param to     latest creation time, exclusive
+     * @return matching orders, oldest first
+     */
+    @Query("select o from Order o where o.trader = :trader and o.createdAt >= :from and o.createdAt < :to "
+            + "order by o.createdAt, o.id")
+    List<Order> findByTraderCreatedBetween(@Param("trader") User trader,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    /**
+     * Stream the orders a trader created in a time range from a database cursor, for exports.
+     * Rows are fetched in batches as the stream is read and are not dirty checked; the caller must
+     * read it inside a transaction, close it, and detach each order once done with it.
+     *
+     * @param trader the user who placed the orders
+     * @param from   earliest creation time, inclusive
+     * @param to     latest creation time, exclusive
+     * @return matching orders, oldest first
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select o from Order o where o.trader = :trader and o.createdAt >= :from and o.createdAt < :to "
+            + "order by o.createdAt, o.id")
+    Stream<Order> streamByTraderCreatedBetween(@Param("trader") User trader,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    /**
+     * Stream the orders of a symbol created in a time range from a database cursor, for exports.
+     * Same contract as {@link #streamByTraderCreatedBetween}.
      *
-     * @param orderId the client order ID
-     * @return the order if found
+     * @param symbolId the symbol's id in the SymbolRegistry
+     * @param from     earliest creation time, inclusive
+     * @param to       latest creation time, exclusive
+     * @return matching orders, oldest first
      */
-    Order findByOrderId(String orderId);
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select o from Order o where o.symbolId = :symbolId and o.createdAt >= :from and o.createdAt < :to "
+            + "order by o.createdAt, o.id")
+    Stream<Order> streamBySymbolCreatedBetween(@Param("symbolId") Integer symbolId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
 
     /**
      * Find all orders for a specific symbol.
      *
-     * @param symbol the trading symbol
+     * @param symbolId the symbol's id in the SymbolRegistry
      * @return list of orders for the symbol
      */
-    List<Order> findBySymbol(String symbol);
-}
\ No newline at end of file
+    List<Order> findBySymbolId(Integer symbolId);
+
+    /**
+     * Lock an order, e.g. to check and change its status without racing a fill, cancel or expiry.
+     *
+     * @param id the order's id
+     * @return the order, locked until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.id = :id")
+    Optional<Order> lockById(@Param("id") Long id);
+
+    /**
+     * Lock the orders of a symbol in the given statuses, oldest first, e.g. the orders an auction
+     * uncrosses, so a concurrent cancel or expiry waits for the auction instead of being overwritten.
+     *
+     * @param symbolId the symbol's id in the SymbolRegistry
+     * @param statuses statuses to include
+     * @return matching orders in arrival order, locked until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.symbolId = :symbolId and o.status in :statuses order by o.id")
+    List<Order> lockBySymbolIdAndStatusIn(@Param("symbolId") Integer symbolId,
+                                          @Param("statuses") Collection<OrderStatus> statuses);
+
+    /**
+     * Lock the next batch of open orders of the given symbols and time in force, e.g. the DAY orders to
+     * expire at the close, in id order.
+     *
+     * @param symbolIds    the symbols' ids in the SymbolRegistry
+     * @param timeInForce  only orders with this time in force are returned
+     * @param openStatuses statuses that count as open
+     * @param afterId      id of the last order of the previous batch
+     * @param page         batch size, as the first page
+     * @return the next batch of open orders, locked until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.symbolId in :symbolIds and o.timeInForce = :timeInForce "
+            + "and o.status in :openStatuses and o.id > :afterId order by o.id")
+    List<Order> lockOpenOrdersAfter(@Param("symbolIds") Collection<Integer> symbolIds,
+                                    @Param("timeInForce") TimeInForce timeInForce,
+                                    @Param("openStatuses") Collection<OrderStatus> openStatuses,
+                                    @Param("afterId") long afterId,
+                                    Pageable page);
+
+    /**
+     * Move orders that are still in one of the given statuses to a new status in one statement.
+     * Clears the persistence context, so orders loaded before are detached and keep their old state.
+     *
+     * @param ids       ids of the orders to update
+     * @param statuses  statuses the orders may be moved from
+     * @param newStatus the status to set
+     * @param updatedAt the update timestamp to set
+     * @return number of orders updated
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Order o set o.status = :newStatus, o.updatedAt = :updatedAt "
+            + "where o.id in :ids and o.status in :statuses")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("statuses") Collection<OrderStatus> statuses,
+                     @Param("newStatus") OrderStatus newStatus,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Read the analytics columns of orders that closed after a watermark, in update time and id order.
+     * Orders without a symbol id, stored before symbols had ids with a symbol the backfill could not
+     * resolve, are left out, as analytics aggregates by symbol id.
+     *
+     * @param statuses      statuses that count as closed
+     * @param afterTime     update time of the last exported order
+     * @param afterId       id of the last exported order, for orders updated at the same time
+     * @param until         only orders updated up to this time
+     * @param page          batch size, as the first page
+     * @return the next batch of closed orders
+     */
+    @Query("select o.id as id, o.symbolId as symbolId, o.side as side, o.status as status, o.price as price, "
+            + "o.quantity as quantity, o.filledQuantity as filledQuantity, o.averagePrice as averagePrice, "
+            + "o.updatedAt as updatedAt from Order o "
+            + "where o.status in :statuses and o.symbolId is not null and o.updatedAt <= :until "
+            + "and (o.updatedAt > :afterTime or (o.updatedAt = :afterTime and o.id > :afterId)) "
+            + "order by o.updatedAt, o.id")
+    List<ClosedOrderRow> findClosedAfter(@Param("statuses") Collection<OrderStatus> statuses,
+                                         @Param("afterTime") LocalDateTime afterTime,
+                                         @Param("afterId") long afterId,
+                                         @Param("until") LocalDateTime until,
+                                         Pageable page);
+
+    /**
+     * Find the ids of orders in the given statuses that were last updated before a time, oldest ids first.
+     *
+     * @param statuses statuses to include
+     * @param before   only orders updated before this time
+     * @param page     batch size, as the first page
+     * @return ids of the matching orders
+     */
+    @Query("select o.id from Order o where o.status in :statuses and o.updatedAt < :before order by o.id")
+    List<Long> findIdsUpdatedBefore(@Param("statuses") Collection<OrderStatus> statuses,
+                                    @Param("before") LocalDateTime before,
+                                    Pageable page);
+
+    /**
+     * Delete orders by id in one statement.
+     *
+     * @param ids ids of the orders to delete
+     * @return number of orders deleted
+     */
+    @Modifying
+    @Query("delete from Order o where o.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
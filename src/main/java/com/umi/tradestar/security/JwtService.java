@@ -1,10 +1,15 @@
 package com.umi.tradestar.security;
 
+import com.umi.tradestar.metrics.TradestarMetrics;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -21,14 +26,26 @@ import java.util.function.Function;
  * @author VrushankPatel
  */
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+    /**
+     * The user's {@link Role}, so requests can be rate limited by role before the user is looked up.
+     */
+    public static final String ROLE_CLAIM = "role";
+
+    private final TradestarMetrics metrics;
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    // Built on first use from the injected secret; both are immutable and thread-safe
+    private volatile Key signInKey;
+    private volatile JwtParser parser;
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -38,53 +55,98 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * The user's role, or {@link Role#TRADER} for a token issued without one.
+     */
+    public Role extractRole(Claims claims) {
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (role != null) {
+            for (Role candidate : Role.values()) {
+                if (candidate.name().equals(role)) {
+                    return candidate;
+                }
+            }
+        }
+        return Role.TRADER;
+    }
+
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user && user.getRole() != null) {
+            claims.put(ROLE_CLAIM, user.getRole().name());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        long now = System.currentTimeMillis();
         return Jwts
                 .builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + jwtExpiration))
                 .signWith(getSignInKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Same as {@link #isTokenValid(String, UserDetails)} for a token whose claims are already parsed.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().getTime() < System.currentTimeMillis();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Claims extractAllClaims(String token) {
+        long start = System.nanoTime();
+        try {
+            return getParser()
+                    .parseClaimsJws(token)
+                    .getBody();
+        } finally {
+            metrics.recordJwtParse(start);
+        }
+    }
+
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts
+                    .parserBuilder()
+                    .setSigningKey(getSignInKey())
+                    .build();
+            parser = current;
+        }
+        return current;
     }
 
     private Key getSignInKey() {
-        try {
-            byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-            return Keys.hmacShaKeyFor(keyBytes);
-        } catch (io.jsonwebtoken.security.WeakKeyException ex) {
-            // Log the error for debugging purposes
-            logger.error("JWT key is too weak. Using a secure key instead.", ex);
-            // Generate a secure key using the recommended method
-            return Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        Key current = signInKey;
+        return current != null ? current : createSignInKey();
+    }
+
+    private synchronized Key createSignInKey() {
+        // Checked again so that a generated fallback key is shared by every caller
+        if (signInKey == null) {
+            try {
+                byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+                signInKey = Keys.hmacShaKeyFor(keyBytes);
+            } catch (io.jsonwebtoken.security.WeakKeyException ex) {
+                // Log the error for debugging purposes
+                logger.error("JWT key is too weak. Using a secure key instead.", ex);
+                // Generate a secure key using the recommended method
+                signInKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+            }
         }
+        return signInKey;
     }
     
     private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(JwtService.class);
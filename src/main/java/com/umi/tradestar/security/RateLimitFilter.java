@@ -0,0 +1,90 @@
+package com.umi.tradestar.security;
+
+import com.umi.tradestar.metrics.TradestarMetrics;
+import com.umi.tradestar.model.enums.Role;
+import com.umi.tradestar.ratelimit.RateLimitedEndpoint;
+import com.umi.tradestar.ratelimit.RateLimiter;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits authenticated requests per trader and endpoint.
+ *
+ * Runs before {@link JwtAuthenticationFilter} and identifies the trader from the token alone, so a
+ * rejected request is answered with a 429 before the user is looked up in the database. The parsed
+ * claims are left on the request for {@link JwtAuthenticationFilter} to reuse. Requests without a
+ * bearer token, or with one that does not parse, are passed on unchanged.
+ *
+ * @author VrushankPatel
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String ERROR_CODE_RATE_LIMITED = "RATE001";
+
+    private final JwtService jwtService;
+    private final RateLimiter rateLimiter;
+    private final TradestarMetrics metrics;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        final String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(authHeader.substring(7));
+        } catch (JwtException ex) {
+            // Left for JwtAuthenticationFilter to reject
+            filterChain.doFilter(request, response);
+            return;
+        }
+        request.setAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE, claims);
+
+        long wait = rateLimiter.tryAcquire(claims.getSubject(), jwtService.extractRole(claims),
+                RateLimitedEndpoint.match(request.getMethod(), request.getRequestURI()));
+        if (wait > 0) {
+            reject(response, wait);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        metrics.recordError(ERROR_CODE_RATE_LIMITED);
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // Same fields as GlobalExceptionHandler's error responses
+        response.getWriter().write("{\"timestamp\":\"" + LocalDateTime.now()
+                + "\",\"status\":" + status.value()
+                + ",\"error\":\"" + status.getReasonPhrase()
+                + "\",\"errorCode\":\"" + ERROR_CODE_RATE_LIMITED
+                + "\",\"message\":\"Rate limit exceeded, retry after " + retryAfterSeconds + "s\"}");
+    }
+}
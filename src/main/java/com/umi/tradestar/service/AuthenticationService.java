@@ -1,5 +1,7 @@
 package com.umi.tradestar.service;
 
+import com.umi.tradestar.audit.AuditEventType;
+import com.umi.tradestar.audit.AuditLog;
 import com.umi.tradestar.model.User;
 import com.umi.tradestar.model.enums.Role;
 import com.umi.tradestar.repository.UserRepository;
@@ -17,6 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service class handling user authentication operations including registration and login.
+ * Registrations, logins, failed logins and account enabling and disabling are recorded in the {@link AuditLog}.
  *
  * @author VrushankPatel
  */
@@ -28,6 +31,7 @@ public class AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final AuditLog auditLog;
 
     /**
      * Registers a new user in the system.
@@ -50,6 +54,7 @@ public class AuthenticationService {
                 .build();
 
         userRepository.save(user);
+        auditLog.record(AuditEventType.REGISTER, user.getId(), user.getEmail());
         return RegisterResponse.builder()
                 .message("User registered successfully")
                 .email(user.getEmail())
@@ -78,14 +83,18 @@ public class AuthenticationService {
             
             // Check if the user account is enabled
             if (!user.isEnabled()) {
+                auditLog.record(AuditEventType.LOGIN_FAILED, user.getId(), user.getEmail());
                 throw com.umi.tradestar.exception.AuthenticationException.userDisabled();
             }
             
             var jwtToken = jwtService.generateToken(user);
+            auditLog.record(AuditEventType.LOGIN, user.getId(), user.getEmail());
             return AuthenticationResponse.builder()
                     .token(jwtToken)
                     .build();
         } catch (org.springframework.security.authentication.BadCredentialsException ex) {
+            // Unknown users fail the same way, so there is no trader id to record
+            auditLog.record(AuditEventType.LOGIN_FAILED, 0, request.getEmail());
             // Wrap Spring Security's BadCredentialsException in our custom AuthenticationException
             throw com.umi.tradestar.exception.AuthenticationException.invalidCredentials();
         }
@@ -100,6 +109,9 @@ public class AuthenticationService {
     @Transactional
     public boolean enableUser(String email) {
         int updated = userRepository.updateEnabledStatus(email, true);
+        if (updated > 0) {
+            recordAccountChange(AuditEventType.USER_ENABLED, email);
+        }
         return updated > 0;
     }
     
@@ -112,6 +124,14 @@ public class AuthenticationService {
     @Transactional
     public boolean disableUser(String email) {
         int updated = userRepository.updateEnabledStatus(email, false);
+        if (updated > 0) {
+            recordAccountChange(AuditEventType.USER_DISABLED, email);
+        }
         return updated > 0;
     }
+
+    private void recordAccountChange(AuditEventType type, String email) {
+        long userId = userRepository.findByEmail(email).map(User::getId).orElse(0L);
+        auditLog.record(type, userId, email);
+    }
 }
\ No newline at end of file
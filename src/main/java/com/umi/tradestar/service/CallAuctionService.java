@@ -0,0 +1,174 @@
+package com.umi.tradestar.service;
+
+import com.umi.tradestar.auction.CallAuction;
+import com.umi.tradestar.cluster.ClusterCoordinator;
+import com.umi.tradestar.lifecycle.OrderEvent;
+import com.umi.tradestar.lifecycle.OrderStateMachine;
+import com.umi.tradestar.model.Fill;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.enums.MarketPhase;
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderStatus;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.position.PositionKeeper;
+import com.umi.tradestar.refdata.SymbolDefinition;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.repository.FillRepository;
+import com.umi.tradestar.repository.OrderRepository;
+import com.umi.tradestar.session.SessionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs the opening and closing call auctions of a session group.
+ *
+ * When a group leaves {@code OPENING_AUCTION} or {@code CLOSING_AUCTION}, the open orders of each
+ * symbol this node owns are uncrossed at a single equilibrium price with {@link CallAuction}, and the
+ * fills are written to {@code filledQuantity} and {@code averagePrice}, recorded in the fill ledger
+ * and applied to positions. The symbol's open orders stay locked until the auction commits, so a
+ * cancel or expiry racing it waits and then sees the filled quantities. It runs before the other
+ * session listeners, so the closing auction executes before DAY orders expire.
+ *
+ * @author VrushankPatel
+ */
+@Service
+@org.springframework.core.annotation.Order(Ordered.HIGHEST_PRECEDENCE)
+public class CallAuctionService implements SessionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CallAuctionService.class);
+    private static final Set<OrderStatus> AUCTION_STATUSES = EnumSet.of(OrderStatus.NEW, OrderStatus.PARTIALLY_FILLED);
+
+    private final OrderRepository orderRepository;
+    private final FillRepository fillRepository;
+    private final SymbolRegistry symbolRegistry;
+    private final ClusterCoordinator clusterCoordinator;
+    private final PositionKeeper positionKeeper;
+    private final OrderStateMachine stateMachine;
+    // Last auction price level per symbol id, the tie-break reference for the next auction
+    private final int[] referenceLevels;
+
+    public CallAuctionService(OrderRepository orderRepository, FillRepository fillRepository,
+                              SymbolRegistry symbolRegistry, ClusterCoordinator clusterCoordinator,
+                              PositionKeeper positionKeeper, OrderStateMachine stateMachine) {
+        this.orderRepository = orderRepository;
+        this.fillRepository = fillRepository;
+        this.symbolRegistry = symbolRegistry;
+        this.clusterCoordinator = clusterCoordinator;
+        this.positionKeeper = positionKeeper;
+        this.stateMachine = stateMachine;
+        this.referenceLevels = new int[symbolRegistry.size()];
+        Arrays.fill(referenceLevels, CallAuction.NO_REFERENCE);
+    }
+
+    @Override
+    @Transactional
+    public void onPhaseChange(int sessionGroupId, MarketPhase previous, MarketPhase current) {
+        if (previous != MarketPhase.OPENING_AUCTION && previous != MarketPhase.CLOSING_AUCTION) {
+            return;
+        }
+        for (int symbolId : symbolRegistry.symbolIdsInSessionGroup(sessionGroupId)) {
+            if (clusterCoordinator.isLocalOwner(symbolId)) {
+                runAuction(symbolRegistry.get(symbolId), previous);
+            }
+        }
+    }
+
+    /**
+     * Uncross the open orders of one symbol and save the filled ones.
+     *
+     * @return number of orders that received a fill
+     */
+    int runAuction(SymbolDefinition symbol, MarketPhase auctionPhase) {
+        long start = System.nanoTime();
+        List<Order> orders = orderRepository.lockBySymbolIdAndStatusIn(symbol.getId(), AUCTION_STATUSES);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        CallAuction auction = new CallAuction(symbol.priceLevels(), orders.size());
+        for (Order order : orders) {
+            BigDecimal open = order.getQuantity().subtract(filledOrZero(order));
+            auction.add(order.getSide() == OrderSide.BUY,
+                    order.getOrderType() == OrderType.MARKET ? CallAuction.MARKET : symbol.levelOf(order.getPrice()),
+                    open.divide(symbol.getLotSize(), MathContext.DECIMAL64).longValue());
+        }
+        if (!auction.uncross(referenceLevels[symbol.getId()])) {
+            logger.info("{} of {}: {} orders did not cross", auctionPhase, symbol.getSymbol(), orders.size());
+            return 0;
+        }
+        recordReferenceLevel(symbol.getId(), auction.getPriceLevel());
+
+        BigDecimal price = symbol.priceAt(auction.getPriceLevel());
+        List<Order> filled = new ArrayList<>();
+        List<Fill> fills = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            long lots = auction.filled(i);
+            if (lots > 0) {
+                Order order = orders.get(i);
+                BigDecimal quantity = symbol.getLotSize().multiply(BigDecimal.valueOf(lots));
+                applyFill(order, quantity, price);
+                filled.add(order);
+                fills.add(Fill.builder()
+                        .orderId(order.getId())
+                        .traderId(order.getTrader().getId())
+                        .symbolId(symbol.getId())
+                        .side(order.getSide())
+                        .quantity(quantity)
+                        .price(price)
+                        .build());
+            }
+        }
+        orderRepository.saveAll(filled);
+        positionKeeper.record(fillRepository.saveAll(fills));
+        logger.info("{} of {}: {} executed at {} ({} orders filled, imbalance {}) in {} us", auctionPhase,
+                symbol.getSymbol(), symbol.getLotSize().multiply(BigDecimal.valueOf(auction.getVolume())), price,
+                filled.size(), auction.getImbalance(), (System.nanoTime() - start) / 1_000);
+        return filled.size();
+    }
+
+    /**
+     * Make the auction's price level the reference for the next auction once the current transaction,
+     * if any, has committed, so a rolled back auction leaves the reference where it was.
+     */
+    private void recordReferenceLevel(int symbolId, int priceLevel) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    referenceLevels[symbolId] = priceLevel;
+                }
+            });
+        } else {
+            referenceLevels[symbolId] = priceLevel;
+        }
+    }
+
+    int referenceLevelOf(int symbolId) {
+        return referenceLevels[symbolId];
+    }
+
+    private void applyFill(Order order, BigDecimal quantity, BigDecimal price) {
+        BigDecimal previous = filledOrZero(order);
+        BigDecimal total = previous.add(quantity);
+        BigDecimal notional = previous.signum() == 0 ? BigDecimal.ZERO : order.getAveragePrice().multiply(previous);
+        order.setAveragePrice(notional.add(price.multiply(quantity)).divide(total, MathContext.DECIMAL64));
+        order.setFilledQuantity(total);
+        stateMachine.apply(order, total.compareTo(order.getQuantity()) >= 0 ? OrderEvent.FILL : OrderEvent.PARTIAL_FILL);
+    }
+
+    private static BigDecimal filledOrZero(Order order) {
+        return order.getFilledQuantity() != null ? order.getFilledQuantity() : BigDecimal.ZERO;
+    }
+}
@@ -1,5 +1,6 @@
 package com.umi.tradestar.service;
 
+import com.umi.tradestar.metrics.TradestarMetrics;
 import com.umi.tradestar.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,10 +19,16 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final TradestarMetrics metrics;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + username));
+        long start = System.nanoTime();
+        try {
+            return userRepository.findByEmail(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + username));
+        } finally {
+            metrics.recordUserLookup(start);
+        }
     }
 }
\ No newline at end of file
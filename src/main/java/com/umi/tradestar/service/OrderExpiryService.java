@@ -0,0 +1,101 @@
+package com.umi.tradestar.service;
+
+import com.umi.tradestar.lifecycle.OrderEvent;
+import com.umi.tradestar.lifecycle.OrderStateMachine;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.enums.MarketPhase;
+import com.umi.tradestar.model.enums.OrderStatus;
+import com.umi.tradestar.model.enums.TimeInForce;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.repository.OrderRepository;
+import com.umi.tradestar.session.SessionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Expires the open DAY orders of a session group when its market closes.
+ *
+ * Orders are expired in batches of {@value #BATCH_SIZE}, each in its own transaction: the batch is
+ * locked, moved to EXPIRED with one UPDATE, and each order's expiry is then emitted through the state
+ * machine. Only one batch is in memory at a time, however many orders are open at the close.
+ *
+ * @author VrushankPatel
+ */
+@Service
+public class OrderExpiryService implements SessionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExpiryService.class);
+    private static final Set<OrderStatus> OPEN_STATUSES = OrderStateMachine.statusesAccepting(OrderEvent.EXPIRE);
+    private static final int BATCH_SIZE = 1000;
+
+    private final OrderRepository orderRepository;
+    private final SymbolRegistry symbolRegistry;
+    private final OrderStateMachine stateMachine;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderExpiryService(OrderRepository orderRepository, SymbolRegistry symbolRegistry,
+                              OrderStateMachine stateMachine, PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.symbolRegistry = symbolRegistry;
+        this.stateMachine = stateMachine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Each batch commits on its own, even if the session scheduler calls in a transaction
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void onPhaseChange(int sessionGroupId, MarketPhase previous, MarketPhase current) {
+        if (current != MarketPhase.CLOSED) {
+            return;
+        }
+        List<Integer> symbolIds = Arrays.stream(symbolRegistry.symbolIdsInSessionGroup(sessionGroupId)).boxed().toList();
+        long expired = 0;
+        long afterId = 0;
+        while (true) {
+            long lastId = afterId;
+            List<Order> batch = transactionTemplate.execute(status -> expireBatch(symbolIds, lastId));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            expired += batch.size();
+            afterId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+        logger.info("Expired {} DAY orders of session group {}", expired,
+                symbolRegistry.getSessionGroups().get(sessionGroupId));
+    }
+
+    private List<Order> expireBatch(List<Integer> symbolIds, long afterId) {
+        List<Order> batch = orderRepository.lockOpenOrdersAfter(symbolIds, TimeInForce.DAY, OPEN_STATUSES, afterId,
+                PageRequest.of(0, BATCH_SIZE));
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (Order order : batch) {
+            ids.add(order.getId());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // Locked above, so every order of the batch is still open
+        orderRepository.updateStatus(ids, OPEN_STATUSES, OrderStatus.EXPIRED, now);
+        // The update detached the batch, so setting the status here only emits the event
+        for (Order order : batch) {
+            order.setUpdatedAt(now);
+            stateMachine.apply(order, OrderEvent.EXPIRE);
+        }
+        return batch;
+    }
+}
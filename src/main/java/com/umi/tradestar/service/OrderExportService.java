@@ -0,0 +1,130 @@
+package com.umi.tradestar.service;
+
+import com.umi.tradestar.archive.OrderArchiver;
+import com.umi.tradestar.exception.ValidationException;
+import com.umi.tradestar.export.OrderCsvWriter;
+import com.umi.tradestar.model.ArchivedOrder;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.refdata.SymbolDefinition;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.repository.ArchivedOrderRepository;
+import com.umi.tradestar.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Service class for CSV exports of order history, live and archived, of a trader or a symbol.
+ *
+ * Unlike {@link OrderHistoryService}, an export never holds its result in memory: orders are read from
+ * database cursors in fetch-size batches, written to the output stream and detached from the
+ * persistence context one at a time, so memory use does not grow with the number of rows. The live and
+ * archived cursors are both in creation order and are merged as they are read.
+ *
+ * An export runs in one read-only transaction, on the replica when there is one, and holds its
+ * connection until the last row is written.
+ *
+ * @author VrushankPatel
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderExportService {
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderArchiver orderArchiver;
+    private final SymbolRegistry symbolRegistry;
+    private final EntityManager entityManager;
+
+    /**
+     * Check an export range before the response is started, while errors can still be reported.
+     */
+    public static void checkRange(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw ValidationException.invalidInput("to", "must be after 'from'");
+        }
+    }
+
+    /**
+     * Write the orders a trader created in a time range, live and archived, oldest first.
+     *
+     * @param from earliest creation time, inclusive
+     * @param to   latest creation time, exclusive
+     * @return number of orders written
+     */
+    @Transactional(readOnly = true)
+    public long exportTraderOrders(User trader, LocalDateTime from, LocalDateTime to, OutputStream out)
+            throws IOException {
+        checkRange(from, to);
+        try (Stream<Order> live = orderRepository.streamByTraderCreatedBetween(trader, from, to);
+             Stream<ArchivedOrder> archived = orderArchiver.mayHoldArchived(from)
+                     ? archivedOrderRepository.streamByTraderCreatedBetween(trader.getId(), from, to)
+                     : Stream.empty()) {
+            return write(live, archived, order -> trader, out);
+        }
+    }
+
+    /**
+     * Write the orders of a symbol created in a time range, live and archived, oldest first.
+     *
+     * @param from earliest creation time, inclusive
+     * @param to   latest creation time, exclusive
+     * @return number of orders written
+     */
+    @Transactional(readOnly = true)
+    public long exportSymbolOrders(SymbolDefinition symbol, LocalDateTime from, LocalDateTime to, OutputStream out)
+            throws IOException {
+        checkRange(from, to);
+        try (Stream<Order> live = orderRepository.streamBySymbolCreatedBetween(symbol.getId(), from, to);
+             Stream<ArchivedOrder> archived = orderArchiver.mayHoldArchived(from)
+                     ? archivedOrderRepository.streamBySymbolCreatedBetween(symbol.getId(), from, to)
+                     : Stream.empty()) {
+            // Only the id is written, so the trader is not loaded
+            return write(live, archived, order -> User.builder().id(order.getTraderId()).build(), out);
+        }
+    }
+
+    private long write(Stream<Order> live, Stream<ArchivedOrder> archived, Function<ArchivedOrder, User> traderOf,
+                       OutputStream out) throws IOException {
+        OrderCsvWriter csv = new OrderCsvWriter(out, symbolRegistry);
+        csv.writeHeader();
+        Iterator<Order> liveRows = live.iterator();
+        Iterator<ArchivedOrder> archivedRows = archived.iterator();
+        Order nextLive = next(liveRows);
+        ArchivedOrder nextArchived = next(archivedRows);
+        long rows = 0;
+        // Long-lived orders can still be live while younger ones are already archived
+        while (nextLive != null || nextArchived != null) {
+            if (nextArchived == null || (nextLive != null && isBefore(nextLive, nextArchived))) {
+                csv.write(nextLive);
+                entityManager.detach(nextLive);
+                nextLive = next(liveRows);
+            } else {
+                csv.write(nextArchived.toOrder(traderOf.apply(nextArchived)));
+                entityManager.detach(nextArchived);
+                nextArchived = next(archivedRows);
+            }
+            rows++;
+        }
+        csv.flush();
+        return rows;
+    }
+
+    private static boolean isBefore(Order live, ArchivedOrder archived) {
+        int byTime = live.getCreatedAt().compareTo(archived.getCreatedAt());
+        return byTime != 0 ? byTime < 0 : live.getId() < archived.getId();
+    }
+
+    private static <T> T next(Iterator<T> rows) {
+        return rows.hasNext() ? rows.next() : null;
+    }
+}
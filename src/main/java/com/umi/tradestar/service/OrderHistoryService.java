@@ -0,0 +1,71 @@
+package com.umi.tradestar.service;
+
+import com.umi.tradestar.archive.OrderArchiver;
+import com.umi.tradestar.exception.ValidationException;
+import com.umi.tradestar.model.ArchivedOrder;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.repository.ArchivedOrderRepository;
+import com.umi.tradestar.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Service class for order queries over a time range, which span the orders table and the order history.
+ * The history is only read when the range reaches back far enough to hold archived orders.
+ * Queries run in read-only transactions, so Hibernate keeps no snapshots for dirty checking.
+ *
+ * @author VrushankPatel
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderHistoryService {
+
+    private static final Comparator<Order> BY_CREATION = Comparator.comparing(Order::getCreatedAt)
+            .thenComparing(Order::getId);
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderArchiver orderArchiver;
+
+    /**
+     * Orders of the current trader created in a time range, live and archived, oldest first.
+     *
+     * @param from earliest creation time, inclusive
+     * @param to   latest creation time, exclusive
+     */
+    @Transactional(readOnly = true)
+    public List<Order> getOrdersByTrader(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw ValidationException.invalidInput("to", "must be after 'from'");
+        }
+        User trader = getCurrentUser();
+        List<Order> live = orderRepository.findByTraderCreatedBetween(trader, from, to);
+        if (!orderArchiver.mayHoldArchived(from)) {
+            return live;
+        }
+        List<ArchivedOrder> archived = archivedOrderRepository.findByTraderCreatedBetween(trader.getId(), from, to);
+        if (archived.isEmpty()) {
+            return live;
+        }
+        List<Order> orders = new ArrayList<>(archived.size() + live.size());
+        for (ArchivedOrder order : archived) {
+            orders.add(order.toOrder(trader));
+        }
+        orders.addAll(live);
+        // Long-lived orders can still be live while younger ones are already archived
+        orders.sort(BY_CREATION);
+        return orders;
+    }
+
+    private User getCurrentUser() {
+        return (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    }
+}
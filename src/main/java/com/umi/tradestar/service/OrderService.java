@@ -1,87 +1,278 @@
 package com.umi.tradestar.service;
 
+import com.umi.tradestar.cluster.ClusterCoordinator;
+import com.umi.tradestar.cluster.OrderCommand;
+import com.umi.tradestar.dedup.ClientOrderIdCache;
+import com.umi.tradestar.exception.OrderProcessingException;
+import com.umi.tradestar.exception.ValidationException;
+import com.umi.tradestar.lifecycle.OrderEvent;
+import com.umi.tradestar.lifecycle.OrderStateMachine;
+import com.umi.tradestar.metrics.TradestarMetrics;
 import com.umi.tradestar.model.Order;
 import com.umi.tradestar.model.User;
-import com.umi.tradestar.model.enums.OrderStatus;
+import com.umi.tradestar.model.enums.SymbolStatus;
+import com.umi.tradestar.model.enums.TimeInForce;
+import com.umi.tradestar.refdata.SymbolDefinition;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.replay.CommandLogRecorder;
+import com.umi.tradestar.repository.ArchivedOrderRepository;
 import com.umi.tradestar.repository.OrderRepository;
-import lombok.RequiredArgsConstructor;
+import com.umi.tradestar.session.TradingSessionScheduler;
+import com.umi.tradestar.tracing.OrderStage;
+import com.umi.tradestar.tracing.OrderTraceRecorder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 /**
  * Service class for handling order-related operations in the trading system.
  * Manages order creation, validation, and lifecycle.
  *
+ * The order journal leads the database: a new order or cancel is journaled to a quorum first, outside
+ * any transaction so no pooled connection waits on the followers, and then stored in a short transaction
+ * of its own. If storing it fails, a revoking entry is journaled, so the journal never holds a change the
+ * database does not.
+ *
  * @author VrushankPatel
  */
 @Service
-@RequiredArgsConstructor
 public class OrderService {
 
+    private static final int MAX_CLIENT_ORDER_ID_LENGTH = 64;
+
     private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ClusterCoordinator clusterCoordinator;
+    private final SymbolRegistry symbolRegistry;
+    private final TradingSessionScheduler sessionScheduler;
+    private final TradestarMetrics metrics;
+    private final OrderTraceRecorder traceRecorder;
+    private final CommandLogRecorder commandLog;
+    private final ClientOrderIdCache clientOrderIds;
+    private final OrderStateMachine stateMachine;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderService(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository,
+                        ClusterCoordinator clusterCoordinator, SymbolRegistry symbolRegistry,
+                        TradingSessionScheduler sessionScheduler, TradestarMetrics metrics,
+                        OrderTraceRecorder traceRecorder, CommandLogRecorder commandLog,
+                        ClientOrderIdCache clientOrderIds, OrderStateMachine stateMachine,
+                        PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.clusterCoordinator = clusterCoordinator;
+        this.symbolRegistry = symbolRegistry;
+        this.sessionScheduler = sessionScheduler;
+        this.metrics = metrics;
+        this.traceRecorder = traceRecorder;
+        this.commandLog = commandLog;
+        this.clientOrderIds = clientOrderIds;
+        this.stateMachine = stateMachine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // The change commits when it is stored, even if a caller runs in a transaction of its own
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
-    @Transactional
+    /**
+     * Create an order. An order that carries a client order id already used by the same trader
+     * within the dedup window is not created again; the order created the first time is returned.
+     */
     public Order createOrder(Order order) {
-        validateOrder(order);
+        long start = System.nanoTime();
+        User trader = getCurrentUser();
+        String clientOrderId = order.getOrderId();
+        if (clientOrderId == null) {
+            return create(order, trader, start);
+        }
+        validateClientOrderId(clientOrderId);
+        Order original = clientOrderIds.claim(clientOrderId, trader.getId());
+        if (original != null) {
+            return original;
+        }
+        Order created = null;
+        try {
+            // Used before the dedup window or a restart on an order archived since, which the unique
+            // constraint of the orders table no longer sees; a live duplicate is refused when it is stored
+            if (archivedOrderRepository.existsByTraderIdAndOrderId(trader.getId(), clientOrderId)) {
+                throw OrderProcessingException.duplicateClientOrderId(clientOrderId);
+            }
+            created = create(order, trader, start);
+            return created;
+        } finally {
+            clientOrderIds.settle(clientOrderId, trader.getId(), created);
+        }
+    }
+
+    private Order create(Order order, User trader, long start) {
+        SymbolDefinition symbol = validateOrder(order);
+        metrics.recordOrderValidation(start);
+        traceRecorder.stamp(OrderStage.VALIDATED);
+        clusterCoordinator.ensureLocalOwner(symbol);
+        traceRecorder.stamp(OrderStage.RISK);
         
         // Set initial order properties
-        order.setOrderId(generateOrderId());
-        order.setStatus(OrderStatus.NEW);
+        order.setSymbolId(symbol.getId());
+        if (order.getTimeInForce() == null) {
+            order.setTimeInForce(TimeInForce.DAY);
+        }
+        if (order.getOrderId() == null) {
+            order.setOrderId(generateOrderId());
+        }
         order.setFilledQuantity(BigDecimal.ZERO);
         order.setAveragePrice(BigDecimal.ZERO);
-        order.setTrader(getCurrentUser());
+        order.setTrader(trader);
         
-        return orderRepository.save(order);
+        // Not acknowledged until a quorum of the cluster has journaled it
+        OrderCommand command = OrderCommand.newOrder(order);
+        clusterCoordinator.replicate(command);
+        traceRecorder.stamp(OrderStage.ENGINE_ACCEPT);
+        long persistStart = System.nanoTime();
+        Order saved;
+        try {
+            saved = store(command, () -> {
+                // Accepted in the transaction that stores it, so listeners see only orders that commit
+                stateMachine.accept(order);
+                return orderRepository.save(order);
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Used on a stored order outside the dedup window, or claimed at the same time on another node
+            throw OrderProcessingException.duplicateClientOrderId(order.getOrderId());
+        }
+        metrics.recordOrderPersistence(persistStart);
+        metrics.recordOrderAccept(start);
+        traceRecorder.bindOrder(saved.getId());
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByTrader() {
         return orderRepository.findByTrader(getCurrentUser());
     }
 
+    @Transactional(readOnly = true)
     public Order getOrderById(Long id) {
         return orderRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found"));
     }
 
-    @Transactional
     public Order cancelOrder(Long id) {
+        long start = System.nanoTime();
         Order order = getOrderById(id);
+        traceRecorder.bindOrder(order.getId());
         validateOrderCancellation(order);
+        traceRecorder.stamp(OrderStage.VALIDATED);
+        if (order.getSymbolId() == null) {
+            // Stored before symbols had ids, with a symbol the backfill could not resolve
+            throw OrderProcessingException.unknownSymbolOfOrder(order.getOrderId());
+        }
+        clusterCoordinator.ensureLocalOwner(symbolRegistry.get(order.getSymbolId()));
+        traceRecorder.stamp(OrderStage.RISK);
         
-        order.setStatus(OrderStatus.CANCELLED);
-        return orderRepository.save(order);
+        OrderCommand command = OrderCommand.cancel(order);
+        clusterCoordinator.replicate(command);
+        traceRecorder.stamp(OrderStage.ENGINE_ACCEPT);
+        long persistStart = System.nanoTime();
+        Order saved = store(command, () -> {
+            // Read again, locked, in the transaction that stores the cancel, so a fill or expiry
+            // committed since the check above refuses the cancel instead of being overwritten
+            Order current = orderRepository.lockById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+            stateMachine.apply(current, OrderEvent.CANCEL);
+            return orderRepository.save(current);
+        });
+        metrics.recordOrderPersistence(persistStart);
+        metrics.recordOrderCancel(start);
+        return saved;
     }
 
-    private void validateOrder(Order order) {
+    /**
+     * Store the change of a journaled command in its own transaction and record the command once it
+     * has committed. If the change is not stored, the command is revoked in the journal.
+     */
+    private Order store(OrderCommand command, Supplier<Order> change) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Order stored = change.get();
+                commandLog.record(command);
+                return stored;
+            });
+        } catch (RuntimeException ex) {
+            clusterCoordinator.revoke(command);
+            throw ex;
+        }
+    }
+
+    private SymbolDefinition validateOrder(Order order) {
         if (order.getQuantity().compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Order quantity must be positive");
         }
         
-        if (order.getSymbol() == null || order.getSymbol().trim().isEmpty()) {
+        if (order.getSymbol() == null || order.getSymbol().isBlank()) {
             throw new IllegalArgumentException("Symbol is required");
         }
-        
-        // Add more validation rules as needed
+
+        SymbolDefinition symbol = symbolRegistry.require(order.getSymbol());
+        if (symbol.getStatus() == SymbolStatus.HALTED) {
+            throw OrderProcessingException.symbolHalted(symbol.getSymbol());
+        }
+        if (!sessionScheduler.phaseOf(symbol).isAcceptingOrders()) {
+            throw OrderProcessingException.marketClosed();
+        }
+        if (order.getQuantity().remainder(symbol.getLotSize()).signum() != 0) {
+            throw OrderProcessingException.invalidQuantity("must be a multiple of the lot size " + symbol.getLotSize());
+        }
+        BigDecimal price = order.getPrice();
+        if (price != null) {
+            if (price.remainder(symbol.getTickSize()).signum() != 0) {
+                throw OrderProcessingException.invalidPrice("must be a multiple of the tick size " + symbol.getTickSize());
+            }
+            if (price.compareTo(symbol.getLowPrice()) < 0 || price.compareTo(symbol.getHighPrice()) > 0) {
+                throw OrderProcessingException.priceOutOfBand(symbol.getSymbol(), price.toPlainString(),
+                        symbol.getLowPrice().toPlainString(), symbol.getHighPrice().toPlainString());
+            }
+        }
+        return symbol;
+    }
+
+    private static void validateClientOrderId(String clientOrderId) {
+        if (clientOrderId.isBlank() || clientOrderId.length() > MAX_CLIENT_ORDER_ID_LENGTH) {
+            throw ValidationException.invalidInput("orderId",
+                    "must be 1 to " + MAX_CLIENT_ORDER_ID_LENGTH + " characters");
+        }
     }
 
     private void validateOrderCancellation(Order order) {
-        if (order.getStatus() == OrderStatus.FILLED || order.getStatus() == OrderStatus.CANCELLED) {
-            throw new IllegalStateException("Cannot cancel order in " + order.getStatus() + " state");
+        if (OrderStateMachine.next(order.getStatus(), OrderEvent.CANCEL) == null) {
+            throw OrderProcessingException.invalidOrderStatus(String.valueOf(order.getStatus()),
+                    OrderStateMachine.statusesAccepting(OrderEvent.CANCEL) + " to cancel");
         }
         
-        if (!order.getTrader().equals(getCurrentUser())) {
+        // Compared by id, which a lazy trader answers without being loaded
+        if (!order.getTrader().getId().equals(getCurrentUser().getId())) {
             throw new IllegalStateException("Not authorized to cancel this order");
         }
     }
 
-    private String generateOrderId() {
-        return UUID.randomUUID().toString();
+    /**
+     * A random version 4 UUID. Order ids only need to be unique, not unpredictable, so this draws from
+     * {@link ThreadLocalRandom} rather than the shared {@code SecureRandom} behind {@link UUID#randomUUID()}.
+     */
+    private static String generateOrderId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(mostSigBits, leastSigBits).toString();
     }
 
     private User getCurrentUser() {
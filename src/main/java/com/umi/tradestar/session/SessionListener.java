@@ -0,0 +1,18 @@
+package com.umi.tradestar.session;
+
+import com.umi.tradestar.model.enums.MarketPhase;
+
+/**
+ * Notified of market phase transitions, on the scheduler thread and in phase order.
+ *
+ * @author VrushankPatel
+ */
+public interface SessionListener {
+
+    /**
+     * @param sessionGroupId the session group whose phase changed
+     * @param previous       the phase that ended
+     * @param current        the phase that started
+     */
+    void onPhaseChange(int sessionGroupId, MarketPhase previous, MarketPhase current);
+}
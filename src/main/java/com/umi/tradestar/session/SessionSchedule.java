@@ -0,0 +1,104 @@
+package com.umi.tradestar.session;
+
+import com.umi.tradestar.model.enums.MarketPhase;
+import lombok.Builder;
+import lombok.Value;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Daily phase timetable of a session group, in the group's local time zone.
+ * Markets are closed on weekends; exchange holidays are not modelled.
+ *
+ * @author VrushankPatel
+ */
+@Value
+@Builder
+public class SessionSchedule {
+
+    private static final String HEADER = "sessionGroup,timeZone,preOpen,openingAuction,continuous,closingAuction,close";
+
+    String sessionGroup;
+    ZoneId timeZone;
+    LocalTime preOpen;
+    LocalTime openingAuction;
+    LocalTime continuous;
+    LocalTime closingAuction;
+    LocalTime close;
+
+    public MarketPhase phaseAt(Instant instant) {
+        ZonedDateTime local = instant.atZone(timeZone);
+        DayOfWeek day = local.getDayOfWeek();
+        if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
+            return MarketPhase.CLOSED;
+        }
+        LocalTime time = local.toLocalTime();
+        if (time.isBefore(preOpen)) {
+            return MarketPhase.CLOSED;
+        } else if (time.isBefore(openingAuction)) {
+            return MarketPhase.PRE_OPEN;
+        } else if (time.isBefore(continuous)) {
+            return MarketPhase.OPENING_AUCTION;
+        } else if (time.isBefore(closingAuction)) {
+            return MarketPhase.CONTINUOUS;
+        } else if (time.isBefore(close)) {
+            return MarketPhase.CLOSING_AUCTION;
+        }
+        return MarketPhase.CLOSED;
+    }
+
+    /**
+     * Load session schedules: a CSV with the header {@value #HEADER}, times as {@code HH:mm}.
+     * Blank lines and lines starting with {@code #} are skipped.
+     *
+     * @return schedules by session group name
+     */
+    public static Map<String, SessionSchedule> load(InputStream csv) throws IOException {
+        Map<String, SessionSchedule> schedules = new LinkedHashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null || !HEADER.equals(header.trim())) {
+            throw new IOException("Session file must start with the header: " + HEADER);
+        }
+        String line;
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split(",", -1);
+            if (columns.length != 7) {
+                throw new IOException("Line " + lineNumber + " of the session file has " + columns.length + " columns");
+            }
+            try {
+                SessionSchedule schedule = SessionSchedule.builder()
+                        .sessionGroup(columns[0].trim())
+                        .timeZone(ZoneId.of(columns[1].trim()))
+                        .preOpen(LocalTime.parse(columns[2].trim()))
+                        .openingAuction(LocalTime.parse(columns[3].trim()))
+                        .continuous(LocalTime.parse(columns[4].trim()))
+                        .closingAuction(LocalTime.parse(columns[5].trim()))
+                        .close(LocalTime.parse(columns[6].trim()))
+                        .build();
+                schedules.put(schedule.getSessionGroup(), schedule);
+            } catch (DateTimeException ex) {
+                throw new IOException("Invalid line " + lineNumber + " of the session file: " + line, ex);
+            }
+        }
+        return schedules;
+    }
+}
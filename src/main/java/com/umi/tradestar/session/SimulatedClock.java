@@ -0,0 +1,46 @@
+package com.umi.tradestar.session;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Clock that only moves when told to, so a trading day can be replayed in a test without waiting for it.
+ *
+ * @author VrushankPatel
+ */
+public class SimulatedClock extends Clock {
+
+    private final AtomicReference<Instant> now;
+    private final ZoneId zone;
+
+    public SimulatedClock(Instant start, ZoneId zone) {
+        this.now = new AtomicReference<>(start);
+        this.zone = zone;
+    }
+
+    public void advance(Duration duration) {
+        now.accumulateAndGet(null, (current, ignored) -> current.plus(duration));
+    }
+
+    public void set(Instant instant) {
+        now.set(instant);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new SimulatedClock(now.get(), zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return now.get();
+    }
+}
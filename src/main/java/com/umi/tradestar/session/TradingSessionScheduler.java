@@ -0,0 +1,147 @@
+package com.umi.tradestar.session;
+
+import com.umi.tradestar.model.enums.MarketPhase;
+import com.umi.tradestar.refdata.SymbolDefinition;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Drives the market phase of every session group from its {@link SessionSchedule}.
+ *
+ * A background thread compares the clock with the schedules and publishes phase changes into an
+ * array indexed by session group id, so the order path only does a volatile read to find out
+ * whether a symbol's market is open. Phases are always stepped through in order, so listeners see
+ * every transition even if the clock jumped over a phase. A scheduler without schedules keeps every
+ * market in continuous trading.
+ *
+ * @author VrushankPatel
+ */
+public class TradingSessionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradingSessionScheduler.class);
+    private static final MarketPhase[] PHASES = MarketPhase.values();
+
+    private final SymbolRegistry symbolRegistry;
+    private final SessionSchedule[] schedules;
+    private final AtomicReferenceArray<MarketPhase> phases;
+    private final Clock clock;
+    private final List<SessionListener> listeners;
+    private final long tickIntervalMillis;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param schedulesByGroup schedules by session group name; every group used in the registry needs one
+     */
+    public TradingSessionScheduler(SymbolRegistry symbolRegistry, Map<String, SessionSchedule> schedulesByGroup,
+                                   Clock clock, List<SessionListener> listeners, long tickIntervalMillis) {
+        this.symbolRegistry = symbolRegistry;
+        List<String> groups = symbolRegistry.getSessionGroups();
+        this.schedules = new SessionSchedule[groups.size()];
+        this.phases = new AtomicReferenceArray<>(groups.size());
+        for (int group = 0; group < groups.size(); group++) {
+            SessionSchedule schedule = schedulesByGroup.get(groups.get(group));
+            if (schedule == null) {
+                throw new IllegalStateException("No session schedule for session group " + groups.get(group));
+            }
+            schedules[group] = schedule;
+            // Start in the current phase without notifying, there is nothing to catch up on
+            phases.set(group, schedule.phaseAt(clock.instant()));
+        }
+        this.clock = clock;
+        this.listeners = List.copyOf(listeners);
+        this.tickIntervalMillis = tickIntervalMillis;
+    }
+
+    private TradingSessionScheduler() {
+        this.symbolRegistry = null;
+        this.schedules = new SessionSchedule[0];
+        this.phases = new AtomicReferenceArray<>(0);
+        this.clock = Clock.systemUTC();
+        this.listeners = List.of();
+        this.tickIntervalMillis = 0;
+    }
+
+    /**
+     * Scheduler that keeps every market in continuous trading.
+     */
+    public static TradingSessionScheduler alwaysOpen() {
+        return new TradingSessionScheduler();
+    }
+
+    public boolean isEnabled() {
+        return symbolRegistry != null;
+    }
+
+    public MarketPhase phaseOf(SymbolDefinition symbol) {
+        return symbolRegistry == null ? MarketPhase.CONTINUOUS : phases.get(symbol.getSessionGroupId());
+    }
+
+    public MarketPhase phaseOfGroup(int sessionGroupId) {
+        return symbolRegistry == null ? MarketPhase.CONTINUOUS : phases.get(sessionGroupId);
+    }
+
+    /**
+     * Bring every session group's phase up to date with the clock.
+     * Runs periodically once started, and can be driven directly with a {@link SimulatedClock} in tests.
+     */
+    public synchronized void tick() {
+        Instant now = clock.instant();
+        for (int group = 0; group < schedules.length; group++) {
+            MarketPhase target = schedules[group].phaseAt(now);
+            MarketPhase current = phases.get(group);
+            while (current != target) {
+                MarketPhase next = PHASES[(current.ordinal() + 1) % PHASES.length];
+                phases.set(group, next);
+                logger.info("Session group {} moved from {} to {}", schedules[group].getSessionGroup(), current, next);
+                notifyListeners(group, current, next);
+                current = next;
+            }
+        }
+    }
+
+    private void notifyListeners(int group, MarketPhase previous, MarketPhase current) {
+        for (SessionListener listener : listeners) {
+            try {
+                listener.onPhaseChange(group, previous, current);
+            } catch (RuntimeException ex) {
+                logger.error("Session listener {} failed on {} -> {} of session group {}:",
+                        listener.getClass().getSimpleName(), previous, current, schedules[group].getSessionGroup(), ex);
+            }
+        }
+    }
+
+    public synchronized void start() {
+        if (symbolRegistry == null || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trading-session");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (RuntimeException ex) {
+                logger.error("Trading session tick failed:", ex);
+            }
+        }, tickIntervalMillis, tickIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
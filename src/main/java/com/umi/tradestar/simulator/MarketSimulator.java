@@ -0,0 +1,90 @@
+package com.umi.tradestar.simulator;
+
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderType;
+import lombok.Value;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives an {@link OrderFlowGenerator} into a sink, either as fast as the sink accepts events or
+ * paced so each event is delivered at its simulated timestamp in wall-clock time.
+ *
+ * With pacing, events are delivered late rather than dropped when the sink falls behind, so the
+ * flow stays identical and the lag shows up in {@link Result#getMaxLagNanos()}.
+ *
+ * @author VrushankPatel
+ */
+public final class MarketSimulator {
+
+    private MarketSimulator() {
+    }
+
+    public static Result run(OrderFlowGenerator generator, OrderFlowSink sink, long events, boolean paced) {
+        long start = System.nanoTime();
+        long maxLag = 0;
+        if (!paced) {
+            generator.generate(events, sink);
+        } else {
+            PacingSink pacing = new PacingSink(sink, start);
+            for (long n = 0; n < events; n++) {
+                generator.next(pacing);
+            }
+            maxLag = pacing.maxLag;
+        }
+        return new Result(events, System.nanoTime() - start, maxLag);
+    }
+
+    /**
+     * Outcome of a simulation run. {@code maxLagNanos} is how far behind its scheduled time the latest
+     * event was delivered, and 0 when not paced.
+     */
+    @Value
+    public static class Result {
+        long events;
+        long elapsedNanos;
+        long maxLagNanos;
+
+        public double getEventsPerSecond() {
+            return events * 1e9 / Math.max(1, elapsedNanos);
+        }
+    }
+
+    private static final class PacingSink implements OrderFlowSink {
+        private final OrderFlowSink delegate;
+        private final long start;
+        private long maxLag;
+
+        PacingSink(OrderFlowSink delegate, long start) {
+            this.delegate = delegate;
+            this.start = start;
+        }
+
+        @Override
+        public void onNewOrder(long timestampNanos, long orderSeq, int symbolId,
+                               OrderSide side, OrderType type, int priceLevel, long lots) {
+            waitFor(timestampNanos);
+            delegate.onNewOrder(timestampNanos, orderSeq, symbolId, side, type, priceLevel, lots);
+        }
+
+        @Override
+        public void onCancel(long timestampNanos, long orderSeq) {
+            waitFor(timestampNanos);
+            delegate.onCancel(timestampNanos, orderSeq);
+        }
+
+        private void waitFor(long timestampNanos) {
+            long deadline = start + timestampNanos;
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > 0) {
+                // Park for most of the gap and spin the last bit; parkNanos alone overshoots by ~50us
+                if (remaining > 100_000) {
+                    LockSupport.parkNanos(remaining - 50_000);
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+            maxLag = Math.max(maxLag, -remaining);
+        }
+    }
+}
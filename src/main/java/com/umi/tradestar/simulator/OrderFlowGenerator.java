@@ -0,0 +1,124 @@
+package com.umi.tradestar.simulator;
+
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.refdata.SymbolDefinition;
+import com.umi.tradestar.refdata.SymbolRegistry;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Seeded generator of synthetic order flow.
+ *
+ * Events arrive as a Poisson process: the simulated time between two events is exponentially
+ * distributed with mean {@code 1 / eventsPerSecond}. Each event either cancels a random live order
+ * or places a new order on a random symbol. The symbol's mid price takes a random-walk step with
+ * every new order, limit prices scatter around the mid with buys centred a tick below it and sells a
+ * tick above, so part of the flow crosses. Sizes are log-normal in lots.
+ *
+ * All state is primitive and nothing is allocated per event. The generator does not observe what
+ * the sink does with the orders, so the flow depends only on the profile and the seed.
+ * Not thread-safe; use one generator per thread.
+ *
+ * @author VrushankPatel
+ */
+public final class OrderFlowGenerator {
+
+    private final OrderFlowProfile profile;
+    private final SplittableRandom random;
+    private final int[] symbolIds;
+    private final int[] levelCount;
+    private final double[] mid;
+    private final double meanGapNanos;
+    // Live order sequences that cancels pick from, as a ring
+    private final long[] live;
+    private int liveHead;
+    private int liveCount;
+    private long nextOrderSeq;
+    private double timeNanos;
+    private long events;
+
+    public OrderFlowGenerator(OrderFlowProfile profile, SymbolRegistry symbolRegistry) {
+        this.profile = profile;
+        this.random = new SplittableRandom(profile.getSeed());
+        this.symbolIds = profile.getSymbols().isEmpty()
+                ? IntStream.range(0, symbolRegistry.size()).toArray()
+                : profile.getSymbols().stream().mapToInt(symbol -> symbolRegistry.require(symbol).getId()).toArray();
+        this.levelCount = new int[symbolIds.length];
+        this.mid = new double[symbolIds.length];
+        for (int i = 0; i < symbolIds.length; i++) {
+            SymbolDefinition symbol = symbolRegistry.get(symbolIds[i]);
+            levelCount[i] = symbol.priceLevels();
+            mid[i] = clamp(symbol.levelOf(profile.getStartPrice().max(symbol.getLowPrice())), levelCount[i]);
+        }
+        this.meanGapNanos = 1_000_000_000d / profile.getEventsPerSecond();
+        this.live = new long[profile.getMaxLiveOrders()];
+    }
+
+    /**
+     * Emit the next event.
+     *
+     * @return its simulated timestamp, in nanoseconds since the start of the flow
+     */
+    public long next(OrderFlowSink sink) {
+        // Inverse transform of an exponential; 1 - u keeps the log argument in (0, 1]
+        timeNanos += -Math.log(1 - random.nextDouble()) * meanGapNanos;
+        long timestamp = (long) timeNanos;
+        events++;
+
+        if (random.nextDouble() < profile.getCancelRatio() && liveCount > 0) {
+            sink.onCancel(timestamp, removeLive(random.nextInt(liveCount)));
+            return timestamp;
+        }
+
+        int i = random.nextInt(symbolIds.length);
+        mid[i] = clamp(mid[i] + random.nextGaussian() * profile.getMidStepTicks(), levelCount[i]);
+        boolean buy = random.nextBoolean();
+        OrderType type = random.nextDouble() < profile.getMarketOrderRatio() ? OrderType.MARKET : OrderType.LIMIT;
+        double center = buy ? mid[i] - 1 : mid[i] + 1;
+        int level = (int) clamp(Math.rint(center + random.nextGaussian() * profile.getLimitSpreadTicks()), levelCount[i]);
+        long lots = Math.max(1, Math.round(profile.getSizeMedianLots() * Math.exp(random.nextGaussian() * profile.getSizeSigma())));
+
+        long orderSeq = nextOrderSeq++;
+        if (liveCount == live.length) {
+            // Stop tracking the head; that order just rests and is never cancelled
+            removeLive(0);
+        }
+        live[(liveHead + liveCount++) % live.length] = orderSeq;
+        sink.onNewOrder(timestamp, orderSeq, symbolIds[i], buy ? OrderSide.BUY : OrderSide.SELL, type, level, lots);
+        return timestamp;
+    }
+
+    /**
+     * Emit {@code count} events as fast as possible, ignoring their timestamps.
+     */
+    public void generate(long count, OrderFlowSink sink) {
+        for (long n = 0; n < count; n++) {
+            next(sink);
+        }
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    public long getOrders() {
+        return nextOrderSeq;
+    }
+
+    private long removeLive(int offset) {
+        // Swap the chosen order to the head and pop the head
+        int head = liveHead;
+        int chosen = (head + offset) % live.length;
+        long orderSeq = live[chosen];
+        live[chosen] = live[head];
+        liveHead = (head + 1) % live.length;
+        liveCount--;
+        return orderSeq;
+    }
+
+    private static double clamp(double level, int levels) {
+        return Math.max(0, Math.min(levels - 1, level));
+    }
+}
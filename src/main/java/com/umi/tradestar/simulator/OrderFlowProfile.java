@@ -0,0 +1,50 @@
+package com.umi.tradestar.simulator;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Parameters of a synthetic order flow. The same profile and seed always produce the same flow.
+ *
+ * @author VrushankPatel
+ */
+@Value
+@Builder
+public class OrderFlowProfile {
+
+    @Builder.Default
+    long seed = 42;
+
+    @Builder.Default
+    double eventsPerSecond = 1_000; // Mean rate of the Poisson arrivals, orders and cancels together
+
+    @Builder.Default
+    List<String> symbols = List.of(); // Empty for every symbol in the registry
+
+    @Builder.Default
+    BigDecimal startPrice = new BigDecimal("100.00"); // Initial mid price, clamped to each symbol's band
+
+    @Builder.Default
+    double midStepTicks = 1.0; // Standard deviation of the mid price's random walk per order on the symbol
+
+    @Builder.Default
+    double limitSpreadTicks = 10.0; // Standard deviation of limit prices around the mid
+
+    @Builder.Default
+    double cancelRatio = 0.3; // Share of events that cancel a live order
+
+    @Builder.Default
+    double marketOrderRatio = 0.05; // Share of new orders that are market orders
+
+    @Builder.Default
+    double sizeMedianLots = 100; // Order sizes are log-normal with this median
+
+    @Builder.Default
+    double sizeSigma = 0.8; // and this shape
+
+    @Builder.Default
+    int maxLiveOrders = 100_000; // Live orders tracked for cancels; beyond that the longest tracked ones are never cancelled
+}
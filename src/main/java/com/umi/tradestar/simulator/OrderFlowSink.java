@@ -0,0 +1,34 @@
+package com.umi.tradestar.simulator;
+
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderType;
+
+/**
+ * Receives the events of an {@link OrderFlowGenerator}.
+ *
+ * Events are passed as primitives so that generating into a sink does not allocate. Prices are
+ * price levels, the number of ticks above the symbol's low price (see
+ * {@link com.umi.tradestar.refdata.SymbolDefinition#priceAt(int)}).
+ *
+ * @author VrushankPatel
+ */
+public interface OrderFlowSink {
+
+    /**
+     * @param timestampNanos simulated time since the start of the flow
+     * @param orderSeq       the generator's sequence number of the order, referenced by later cancels
+     * @param symbolId       the symbol's id in the SymbolRegistry
+     * @param side           buy or sell
+     * @param type           market or limit
+     * @param priceLevel     the limit price level; not meaningful for market orders
+     * @param lots           quantity in lots
+     */
+    void onNewOrder(long timestampNanos, long orderSeq, int symbolId, OrderSide side, OrderType type,
+                    int priceLevel, long lots);
+
+    /**
+     * @param timestampNanos simulated time since the start of the flow
+     * @param orderSeq       the sequence number of an earlier order; it may already be filled or rejected
+     */
+    void onCancel(long timestampNanos, long orderSeq);
+}
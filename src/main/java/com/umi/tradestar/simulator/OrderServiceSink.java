@@ -0,0 +1,96 @@
+package com.umi.tradestar.simulator;
+
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.refdata.SymbolDefinition;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.service.OrderService;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Submits generated flow into {@link OrderService} as one trader, through the same validation,
+ * replication and persistence as orders arriving over REST.
+ *
+ * Rejected orders and cancels are counted rather than thrown, so a run continues through closed
+ * markets or orders that were already filled.
+ *
+ * @author VrushankPatel
+ */
+public class OrderServiceSink implements OrderFlowSink {
+
+    private final OrderService orderService;
+    private final SymbolRegistry symbolRegistry;
+    private final Authentication authentication;
+    private final Map<Long, Long> orderIdsBySeq = new HashMap<>();
+    private long accepted;
+    private long rejected;
+    private long cancelled;
+    private long cancelsRejected;
+
+    public OrderServiceSink(OrderService orderService, SymbolRegistry symbolRegistry, User trader) {
+        this.orderService = orderService;
+        this.symbolRegistry = symbolRegistry;
+        this.authentication = new UsernamePasswordAuthenticationToken(trader, null, trader.getAuthorities());
+    }
+
+    @Override
+    public void onNewOrder(long timestampNanos, long orderSeq, int symbolId, OrderSide side, OrderType type,
+                           int priceLevel, long lots) {
+        SymbolDefinition symbol = symbolRegistry.get(symbolId);
+        Order order = new Order();
+        order.setSymbol(symbol.getSymbol());
+        order.setSide(side);
+        order.setOrderType(type);
+        order.setQuantity(symbol.getLotSize().multiply(BigDecimal.valueOf(lots)));
+        if (type == OrderType.LIMIT) {
+            order.setPrice(symbol.priceAt(priceLevel));
+        }
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        try {
+            orderIdsBySeq.put(orderSeq, orderService.createOrder(order).getId());
+            accepted++;
+        } catch (RuntimeException ex) {
+            rejected++;
+        }
+    }
+
+    @Override
+    public void onCancel(long timestampNanos, long orderSeq) {
+        Long id = orderIdsBySeq.remove(orderSeq);
+        if (id == null) {
+            cancelsRejected++;
+            return;
+        }
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        try {
+            orderService.cancelOrder(id);
+            cancelled++;
+        } catch (RuntimeException ex) {
+            cancelsRejected++;
+        }
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    public long getCancelsRejected() {
+        return cancelsRejected;
+    }
+}
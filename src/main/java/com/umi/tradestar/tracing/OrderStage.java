@@ -0,0 +1,24 @@
+package com.umi.tradestar.tracing;
+
+/**
+ * Points on an order's path through Tradestar at which a {@link System#nanoTime()} stamp is taken.
+ * Declared in path order.
+ *
+ * @author VrushankPatel
+ */
+public enum OrderStage {
+    /** Request reached the order controller, after authentication and before admission control */
+    INGRESS,
+    /** Order or cancel request passed validation */
+    VALIDATED,
+    /** Pre-trade checks passed; currently the symbol ownership check */
+    RISK,
+    /** Order command accepted into the (replicated) order journal */
+    ENGINE_ACCEPT,
+    /** Transaction that inserted or updated the order row committed */
+    PERSISTED,
+    /** Response about to be returned by the controller */
+    RESPONSE;
+
+    static final OrderStage[] VALUES = values();
+}
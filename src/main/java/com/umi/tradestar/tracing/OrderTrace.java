@@ -0,0 +1,47 @@
+package com.umi.tradestar.tracing;
+
+import com.umi.tradestar.cluster.OrderCommand;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Copy of one recorded order trace.
+ * Stage offsets are nanoseconds since {@link OrderStage#INGRESS}; stages the request never reached,
+ * for example because it was rejected, are left out.
+ *
+ * @author VrushankPatel
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderTrace {
+
+    private long sequence;
+    private long orderId;
+    private OrderCommand.Type type;
+    private Map<OrderStage, Long> stageOffsetsNanos;
+    private long totalNanos;
+
+    /**
+     * Build a trace from absolute {@link System#nanoTime()} stamps indexed by stage, 0 meaning not reached.
+     */
+    static OrderTrace fromStamps(long sequence, long orderId, OrderCommand.Type type, long[] stamps) {
+        long ingress = stamps[OrderStage.INGRESS.ordinal()];
+        Map<OrderStage, Long> offsets = new EnumMap<>(OrderStage.class);
+        long last = 0;
+        for (OrderStage stage : OrderStage.VALUES) {
+            long stamp = stamps[stage.ordinal()];
+            if (stamp != 0) {
+                offsets.put(stage, stamp - ingress);
+                last = Math.max(last, stamp - ingress);
+            }
+        }
+        return new OrderTrace(sequence, orderId, type, offsets, last);
+    }
+}
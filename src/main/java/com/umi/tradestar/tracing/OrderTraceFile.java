@@ -0,0 +1,112 @@
+package com.umi.tradestar.tracing;
+
+import com.umi.tradestar.cluster.OrderCommand;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary format of exported order traces.
+ *
+ * The file starts with a header of magic number, format version and the number of stages, followed
+ * by fixed size records: sequence, order id, command type, and for every {@link OrderStage} in
+ * declaration order the offset from {@link OrderStage#INGRESS} in nanoseconds, or -1 if the stage
+ * was not reached. All values are big-endian as written by {@link DataOutputStream}.
+ *
+ * @author VrushankPatel
+ */
+public final class OrderTraceFile {
+
+    static final int MAGIC = 0x54535452; // "TSTR"
+    static final short VERSION = 1;
+
+    private OrderTraceFile() {
+    }
+
+    /**
+     * Open a trace file for appending, writing the header if the file is new or empty.
+     */
+    static DataOutputStream openForAppend(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        boolean empty = !Files.exists(path) || Files.size(path) == 0;
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+        if (empty) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeByte(OrderStage.VALUES.length);
+        }
+        return out;
+    }
+
+    static void write(DataOutputStream out, OrderTrace trace) throws IOException {
+        out.writeLong(trace.getSequence());
+        out.writeLong(trace.getOrderId());
+        out.writeByte(trace.getType().ordinal());
+        for (OrderStage stage : OrderStage.VALUES) {
+            Long offset = trace.getStageOffsetsNanos().get(stage);
+            out.writeLong(offset == null ? -1 : offset);
+        }
+    }
+
+    /**
+     * Read every trace of an exported file.
+     */
+    public static List<OrderTrace> read(Path path) throws IOException {
+        try (InputStream stream = Files.newInputStream(path)) {
+            return read(stream);
+        }
+    }
+
+    public static List<OrderTrace> read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an order trace file");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported order trace file version " + version);
+        }
+        int stages = in.readUnsignedByte();
+        if (stages > OrderStage.VALUES.length) {
+            throw new IOException("Trace file has " + stages + " stages, this version knows " + OrderStage.VALUES.length);
+        }
+
+        List<OrderTrace> traces = new ArrayList<>();
+        while (true) {
+            long sequence;
+            try {
+                sequence = in.readLong();
+            } catch (EOFException ex) {
+                return traces;
+            }
+            long orderId = in.readLong();
+            OrderCommand.Type type = OrderCommand.Type.values()[in.readUnsignedByte()];
+            Map<OrderStage, Long> offsets = new EnumMap<>(OrderStage.class);
+            long total = 0;
+            for (int stage = 0; stage < stages; stage++) {
+                long offset = in.readLong();
+                if (offset >= 0) {
+                    offsets.put(OrderStage.VALUES[stage], offset);
+                    total = Math.max(total, offset);
+                }
+            }
+            traces.add(new OrderTrace(sequence, orderId, type, offsets, total));
+        }
+    }
+}
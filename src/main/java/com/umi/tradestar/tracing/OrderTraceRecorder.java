@@ -0,0 +1,291 @@
+package com.umi.tradestar.tracing;
+
+import com.umi.tradestar.cluster.OrderCommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ring buffer of per-order lifecycle traces.
+ *
+ * A trace is started with {@link #begin} on the request thread, which claims the next slot of the
+ * ring and remembers it in a thread local, so code further down the call chain can {@link #stamp}
+ * stages without passing anything around. All stamps live in preallocated primitive arrays; tracing
+ * an order does not allocate and does not touch the {@code Order} entity. Old traces are overwritten
+ * once the ring wraps.
+ *
+ * Readers copy a slot optimistically and discard the copy if the slot was reused meanwhile. When
+ * export is enabled, every {@code sampleEvery}-th trace is appended to a local binary file (see
+ * {@link OrderTraceFile}) by a background thread.
+ *
+ * @author VrushankPatel
+ */
+public class OrderTraceRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderTraceRecorder.class);
+
+    private static final int STAGES = OrderStage.VALUES.length;
+    private static final long NOT_TRACING = -1;
+    private static final long EMPTY = -1;
+
+    private final boolean enabled;
+    private final int capacity;
+    private final int mask;
+    private final long[] stamps;
+    private final long[] orderIds;
+    private final byte[] types;
+    // Sequence of the trace held by each slot, or writing(sequence) while that trace is still open
+    private final AtomicLongArray slotSequences;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final ThreadLocal<long[]> currentSequence = ThreadLocal.withInitial(() -> new long[]{NOT_TRACING});
+
+    private final int sampleEvery;
+    private final Path exportPath;
+    private final long exportIntervalMillis;
+    private ScheduledExecutorService exporter;
+    private DataOutputStream exportStream;
+    private long exportCursor;
+
+    /**
+     * @param capacity             number of traces kept, rounded up to a power of two
+     * @param sampleEvery          export every n-th trace; 0 disables the export
+     * @param exportPath           file the sampled traces are appended to
+     * @param exportIntervalMillis how often sampled traces are written out
+     */
+    public OrderTraceRecorder(int capacity, int sampleEvery, Path exportPath, long exportIntervalMillis) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Trace capacity must be positive: " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.enabled = true;
+        this.capacity = size;
+        this.mask = this.capacity - 1;
+        this.stamps = new long[this.capacity * STAGES];
+        this.orderIds = new long[this.capacity];
+        this.types = new byte[this.capacity];
+        this.slotSequences = new AtomicLongArray(this.capacity);
+        for (int slot = 0; slot < this.capacity; slot++) {
+            slotSequences.set(slot, EMPTY);
+        }
+        this.sampleEvery = sampleEvery;
+        this.exportPath = exportPath;
+        this.exportIntervalMillis = exportIntervalMillis;
+    }
+
+    private OrderTraceRecorder() {
+        this.enabled = false;
+        this.capacity = 0;
+        this.mask = 0;
+        this.stamps = new long[0];
+        this.orderIds = new long[0];
+        this.types = new byte[0];
+        this.slotSequences = new AtomicLongArray(0);
+        this.sampleEvery = 0;
+        this.exportPath = null;
+        this.exportIntervalMillis = 0;
+    }
+
+    /**
+     * Recorder that ignores every call.
+     */
+    public static OrderTraceRecorder disabled() {
+        return new OrderTraceRecorder();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Start a trace on the current thread and stamp {@link OrderStage#INGRESS}.
+     * Must be paired with {@link #end()}, normally in a {@code finally} block.
+     */
+    public void begin(OrderCommand.Type type) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        long sequence = nextSequence.getAndIncrement();
+        int slot = slot(sequence);
+        slotSequences.set(slot, writing(sequence));
+        // Keep the plain writes below from becoming visible before the slot is marked as being written
+        VarHandle.storeStoreFence();
+        int base = slot * STAGES;
+        Arrays.fill(stamps, base, base + STAGES, 0L);
+        stamps[base + OrderStage.INGRESS.ordinal()] = now;
+        orderIds[slot] = 0;
+        types[slot] = (byte) type.ordinal();
+        currentSequence.get()[0] = sequence;
+    }
+
+    /**
+     * Stamp a stage of the trace open on the current thread, if any.
+     */
+    public void stamp(OrderStage stage) {
+        if (!enabled) {
+            return;
+        }
+        long sequence = currentSequence.get()[0];
+        if (sequence != NOT_TRACING) {
+            stamps[slot(sequence) * STAGES + stage.ordinal()] = System.nanoTime();
+        }
+    }
+
+    /**
+     * Attach the order's database id to the trace open on the current thread, once it is known.
+     */
+    public void bindOrder(Long orderId) {
+        if (!enabled || orderId == null) {
+            return;
+        }
+        long sequence = currentSequence.get()[0];
+        if (sequence != NOT_TRACING) {
+            orderIds[slot(sequence)] = orderId;
+        }
+    }
+
+    /**
+     * Stamp {@link OrderStage#RESPONSE} and close the trace open on the current thread.
+     */
+    public void end() {
+        if (!enabled) {
+            return;
+        }
+        long[] current = currentSequence.get();
+        long sequence = current[0];
+        if (sequence == NOT_TRACING) {
+            return;
+        }
+        int slot = slot(sequence);
+        stamps[slot * STAGES + OrderStage.RESPONSE.ordinal()] = System.nanoTime();
+        // Volatile write publishes the stamps to readers
+        slotSequences.set(slot, sequence);
+        current[0] = NOT_TRACING;
+    }
+
+    /**
+     * Completed traces of an order still held in the ring, oldest first.
+     */
+    public List<OrderTrace> find(long orderId) {
+        List<OrderTrace> traces = new ArrayList<>();
+        for (int slot = 0; slot < capacity; slot++) {
+            if (orderIds[slot] == orderId) {
+                OrderTrace trace = copy(slot);
+                if (trace != null && trace.getOrderId() == orderId) {
+                    traces.add(trace);
+                }
+            }
+        }
+        traces.sort(Comparator.comparingLong(OrderTrace::getSequence));
+        return traces;
+    }
+
+    private OrderTrace copy(int slot) {
+        long sequence = slotSequences.get(slot);
+        if (sequence < 0) {
+            return null;
+        }
+        long orderId = orderIds[slot];
+        byte type = types[slot];
+        long[] row = Arrays.copyOfRange(stamps, slot * STAGES, (slot + 1) * STAGES);
+        VarHandle.loadLoadFence();
+        if (slotSequences.get(slot) != sequence) {
+            return null;
+        }
+        return OrderTrace.fromStamps(sequence, orderId, OrderCommand.Type.values()[type], row);
+    }
+
+    /**
+     * Write sampled traces completed since the last call to the export file.
+     * Runs periodically once started, and can be called directly in tests.
+     */
+    public synchronized void exportSampled() throws IOException {
+        if (exportStream == null) {
+            return;
+        }
+        long head = nextSequence.get();
+        // Anything older than one lap of the ring has been overwritten already
+        exportCursor = Math.max(exportCursor, head - capacity);
+        while (exportCursor < head) {
+            long sequence = exportCursor;
+            if (sequence % sampleEvery == 0) {
+                int slot = slot(sequence);
+                long state = slotSequences.get(slot);
+                if (state == writing(sequence) && head - sequence < capacity / 2) {
+                    // Still in flight; pick it up on the next round
+                    break;
+                }
+                OrderTrace trace = state == sequence ? copy(slot) : null;
+                if (trace != null && trace.getSequence() == sequence) {
+                    OrderTraceFile.write(exportStream, trace);
+                }
+            }
+            exportCursor++;
+        }
+        exportStream.flush();
+    }
+
+    public synchronized void start() {
+        if (!enabled || sampleEvery <= 0 || exporter != null) {
+            return;
+        }
+        try {
+            exportStream = OrderTraceFile.openForAppend(exportPath);
+        } catch (IOException ex) {
+            logger.error("Cannot open order trace export file {}, export disabled:", exportPath, ex);
+            return;
+        }
+        exporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-trace-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        exporter.scheduleWithFixedDelay(() -> {
+            try {
+                exportSampled();
+            } catch (IOException | RuntimeException ex) {
+                logger.error("Order trace export failed:", ex);
+            }
+        }, exportIntervalMillis, exportIntervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Exporting 1 in {} order traces to {}", sampleEvery, exportPath);
+    }
+
+    public synchronized void stop() {
+        if (exporter == null) {
+            return;
+        }
+        exporter.shutdownNow();
+        exporter = null;
+        try {
+            exportSampled();
+            exportStream.close();
+        } catch (IOException ex) {
+            logger.warn("Could not close order trace export file {}:", exportPath, ex);
+        }
+        exportStream = null;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    private static long writing(long sequence) {
+        return -2 - sequence;
+    }
+}
@@ -0,0 +1,27 @@
+package com.umi.tradestar.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO class for the closed orders and executed volume of one symbol on one day.
+ *
+ * @author VrushankPatel
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailyVolumeResponse {
+
+    private String symbol;
+    private LocalDate day;
+    private long orders;
+    private BigDecimal volume;
+    private BigDecimal notional;
+}
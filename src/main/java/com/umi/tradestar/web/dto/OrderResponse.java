@@ -0,0 +1,43 @@
+package com.umi.tradestar.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderStatus;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.model.enums.TimeInForce;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO class for orders returned by the order endpoints.
+ * Carries the trader's id only, and leaves out the original FIX message.
+ *
+ * @author VrushankPatel
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderResponse {
+
+    private Long id;
+    private String orderId;
+    private Long traderId;
+    private String symbol;
+    private OrderSide side;
+    private OrderType orderType;
+    private TimeInForce timeInForce;
+    private BigDecimal quantity;
+    private BigDecimal price;
+    private BigDecimal filledQuantity;
+    private BigDecimal averagePrice;
+    private OrderStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
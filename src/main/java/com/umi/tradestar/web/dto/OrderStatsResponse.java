@@ -0,0 +1,31 @@
+package com.umi.tradestar.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO class for the outcome counts, fill ratio and cancel rate of one symbol's closed orders.
+ *
+ * @author VrushankPatel
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderStatsResponse {
+
+    private String symbol;
+    private long orders;
+    private long filled;
+    private long cancelled;
+    private long expired;
+    private long rejected;
+    private BigDecimal quantity;
+    private BigDecimal filledQuantity;
+    private double fillRatio;
+    private double cancelRate;
+}
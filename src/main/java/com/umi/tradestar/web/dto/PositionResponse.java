@@ -0,0 +1,29 @@
+package com.umi.tradestar.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO class for a trader's position in one symbol, returned by the positions endpoint.
+ *
+ * @author VrushankPatel
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PositionResponse {
+
+    private String symbol;
+    private BigDecimal netQuantity;
+    private BigDecimal averageCost;
+    private BigDecimal lastPrice;
+    private BigDecimal realizedPnl;
+    private BigDecimal unrealizedPnl;
+}
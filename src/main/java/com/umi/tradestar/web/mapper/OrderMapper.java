@@ -0,0 +1,27 @@
+package com.umi.tradestar.web.mapper;
+
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.web.dto.OrderResponse;
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+/**
+ * Maps order entities to response DTOs.
+ * Only the trader's id is read, which Hibernate answers from a lazy proxy without loading the user.
+ * The symbol is resolved from the stored symbol id through the {@link SymbolRegistry}.
+ *
+ * @author VrushankPatel
+ */
+@Mapper(componentModel = "spring", uses = SymbolRegistry.class, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
+public interface OrderMapper {
+
+    @Mapping(target = "traderId", source = "trader.id")
+    @Mapping(target = "symbol", source = "symbolId")
+    OrderResponse toResponse(Order order);
+
+    List<OrderResponse> toResponses(List<Order> orders);
+}
@@ -0,0 +1,24 @@
+package com.umi.tradestar.web.mapper;
+
+import com.umi.tradestar.position.PositionSnapshot;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.web.dto.PositionResponse;
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+/**
+ * Maps position snapshots to response DTOs, resolving the symbol through the {@link SymbolRegistry}.
+ *
+ * @author VrushankPatel
+ */
+@Mapper(componentModel = "spring", uses = SymbolRegistry.class, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
+public interface PositionMapper {
+
+    @Mapping(target = "symbol", source = "symbolId")
+    PositionResponse toResponse(PositionSnapshot position);
+
+    List<PositionResponse> toResponses(List<PositionSnapshot> positions);
+}
@@ -0,0 +1,31 @@
+package com.umi.tradestar.web.mapper;
+
+import com.umi.tradestar.analytics.DailyVolume;
+import com.umi.tradestar.analytics.OrderStats;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.web.dto.DailyVolumeResponse;
+import com.umi.tradestar.web.dto.OrderStatsResponse;
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+/**
+ * Maps analytics results to response DTOs, resolving symbols through the {@link SymbolRegistry}.
+ *
+ * @author VrushankPatel
+ */
+@Mapper(componentModel = "spring", uses = SymbolRegistry.class, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
+public interface ReportMapper {
+
+    @Mapping(target = "symbol", source = "symbolId")
+    DailyVolumeResponse toResponse(DailyVolume volume);
+
+    @Mapping(target = "symbol", source = "symbolId")
+    OrderStatsResponse toResponse(OrderStats stats);
+
+    List<DailyVolumeResponse> toVolumeResponses(List<DailyVolume> volumes);
+
+    List<OrderStatsResponse> toStatsResponses(List<OrderStats> stats);
+}
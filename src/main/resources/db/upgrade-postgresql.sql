@@ -0,0 +1,87 @@
+-- Upgrades a PostgreSQL database created by Tradestar 1.0.0 to the current schema.
+-- The prod profile runs with spring.jpa.hibernate.ddl-auto=none, so run this once before starting the
+-- new version:
+--
+--     psql "$POSTGRES_URL" -v ON_ERROR_STOP=1 -f upgrade-postgresql.sql
+--
+-- Every statement can be run again. On start, the application fills in orders.symbol_id from the old
+-- orders.symbol column (see SymbolIdBackfill); that column is no longer written and can be dropped once
+-- the log no longer reports orders without a symbol id.
+
+begin;
+
+-- Symbol ids (SymbolRegistry)
+alter table orders add column if not exists symbol_id integer;
+do $$
+begin
+    -- New orders no longer write the old column
+    if exists (select 1 from information_schema.columns where table_name = 'orders' and column_name = 'symbol') then
+        alter table orders alter column symbol drop not null;
+    end if;
+end $$;
+
+-- Time in force; orders from before it never expired, so they are kept good till cancelled
+alter table orders add column if not exists time_in_force varchar(255)
+    check (time_in_force in ('DAY', 'GTC'));
+update orders set time_in_force = 'GTC' where time_in_force is null;
+
+-- Client order ids are unique per trader instead of across all traders
+do $$
+declare
+    constraint_name text;
+begin
+    for constraint_name in
+        select c.conname
+        from pg_constraint c
+        join pg_attribute a on a.attrelid = c.conrelid and a.attnum = c.conkey[1]
+        where c.conrelid = 'orders'::regclass and c.contype = 'u'
+          and array_length(c.conkey, 1) = 1 and a.attname = 'order_id'
+    loop
+        execute format('alter table orders drop constraint %I', constraint_name);
+    end loop;
+    if not exists (select 1 from pg_constraint where conname = 'uk_orders_trader_order_id') then
+        alter table orders add constraint uk_orders_trader_order_id unique (user_id, order_id);
+    end if;
+end $$;
+
+create index if not exists idx_orders_trader_created on orders (user_id, created_at);
+create index if not exists idx_orders_status_updated on orders (status, updated_at);
+
+-- Order history (OrderArchiver); ids are those the orders had in the orders table
+create table if not exists orders_history (
+    id bigint not null primary key,
+    order_id varchar(255),
+    trader_id bigint not null,
+    symbol_id integer,
+    side varchar(255) check (side in ('BUY', 'SELL')),
+    order_type varchar(255) check (order_type in ('MARKET', 'LIMIT')),
+    time_in_force varchar(255) check (time_in_force in ('DAY', 'GTC')),
+    quantity numeric(38, 2),
+    price numeric(38, 2),
+    filled_quantity numeric(38, 2),
+    average_price numeric(38, 2),
+    status varchar(255) check (status in ('NEW', 'PARTIALLY_FILLED', 'FILLED', 'CANCELLED', 'REJECTED',
+                                          'EXPIRED', 'PENDING_CANCEL', 'PENDING_REPLACE')),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    archived_at timestamp(6),
+    fix_message varchar(1000)
+);
+create index if not exists idx_orders_history_trader_created on orders_history (trader_id, created_at);
+create index if not exists idx_orders_history_symbol_created on orders_history (symbol_id, created_at);
+create index if not exists idx_orders_history_trader_order_id on orders_history (trader_id, order_id);
+
+-- Fill ledger (PositionKeeper)
+create table if not exists fills (
+    id bigint generated by default as identity primary key,
+    order_id bigint not null,
+    trader_id bigint not null,
+    symbol_id integer not null,
+    side varchar(255) check (side in ('BUY', 'SELL')),
+    quantity numeric(38, 2),
+    price numeric(38, 2),
+    executed_at timestamp(6)
+);
+create index if not exists idx_fills_trader on fills (trader_id);
+
+commit;
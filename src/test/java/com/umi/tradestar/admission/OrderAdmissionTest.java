@@ -0,0 +1,109 @@
+package com.umi.tradestar.admission;
+
+import com.umi.tradestar.exception.OrderOverloadException;
+import com.umi.tradestar.exception.OrderProcessingException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderAdmissionTest {
+
+    @Test
+    void queuedCancels_AreAdmittedBeforeQueuedNewOrders() throws Exception {
+        OrderAdmission admission = new OrderAdmission(1, 1, 1, 0.5, 60_000, 5_000, 10);
+        List<String> admitted = new ArrayList<>();
+        OrderAdmission.Permit running = admission.acquire(OrderAdmission.Priority.NEW_ORDER);
+
+        CompletableFuture<Void> newOrder = CompletableFuture.runAsync(() -> admit(admission, OrderAdmission.Priority.NEW_ORDER, "new", admitted));
+        waitForQueued(admission, 1);
+        CompletableFuture<Void> cancel = CompletableFuture.runAsync(() -> admit(admission, OrderAdmission.Priority.CANCEL, "cancel", admitted));
+        waitForQueued(admission, 2);
+        running.close();
+
+        CompletableFuture.allOf(newOrder, cancel).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("cancel", "new"), admitted);
+    }
+
+    @Test
+    void requestsBeyondQueueBudgetOrQueueSize_AreShed() throws Exception {
+        OrderAdmission admission = new OrderAdmission(1, 1, 1, 0.5, 60_000, 200, 1);
+        OrderAdmission.Permit running = admission.acquire(OrderAdmission.Priority.NEW_ORDER);
+
+        OrderOverloadException timedOut = assertThrows(OrderOverloadException.class,
+                () -> admission.acquire(OrderAdmission.Priority.NEW_ORDER));
+        assertEquals(OrderProcessingException.ERROR_CODE_OVERLOADED, timedOut.getErrorCode());
+
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> assertThrows(OrderOverloadException.class,
+                () -> admission.acquire(OrderAdmission.Priority.CANCEL)));
+        waitForQueued(admission, 1);
+        // The cancel queue is full, so a second cancel is shed without waiting
+        assertThrows(OrderOverloadException.class, () -> admission.acquire(OrderAdmission.Priority.CANCEL));
+        queued.get(5, TimeUnit.SECONDS);
+        running.close();
+        assertEquals(0, admission.getInFlight());
+    }
+
+    @Test
+    void databaseSlowdown_ShrinksLimitAndBoundsLatency() throws Exception {
+        // 32 clients against a database that takes 20ms per order with a 5ms latency target
+        OrderAdmission admission = new OrderAdmission(16, 2, 16, 0.9, 5, 50, 1_000);
+        ExecutorService clients = Executors.newFixedThreadPool(32);
+        AtomicInteger shed = new AtomicInteger();
+        List<Future<Long>> latencies = new ArrayList<>();
+        for (int i = 0; i < 320; i++) {
+            latencies.add(clients.submit(() -> {
+                long start = System.nanoTime();
+                try (OrderAdmission.Permit permit = admission.acquire(OrderAdmission.Priority.NEW_ORDER)) {
+                    Thread.sleep(20);
+                } catch (OrderOverloadException ex) {
+                    shed.incrementAndGet();
+                }
+                return System.nanoTime() - start;
+            }));
+        }
+        long worst = 0;
+        for (Future<Long> latency : latencies) {
+            worst = Math.max(worst, latency.get(30, TimeUnit.SECONDS));
+        }
+        clients.shutdown();
+
+        assertTrue(admission.getLimit() < 16, "limit " + admission.getLimit());
+        assertTrue(shed.get() > 0);
+        // Queue budget plus one database call, with slack for a loaded build machine
+        assertTrue(worst < TimeUnit.MILLISECONDS.toNanos(50 + 20 + 500), "worst latency " + worst);
+    }
+
+    @Test
+    void disabledAdmission_NeverQueues() {
+        OrderAdmission admission = OrderAdmission.disabled();
+        for (int i = 0; i < 100; i++) {
+            admission.acquire(OrderAdmission.Priority.NEW_ORDER);
+        }
+        assertEquals(0, admission.getInFlight());
+    }
+
+    private static void admit(OrderAdmission admission, OrderAdmission.Priority priority, String name, List<String> admitted) {
+        try (OrderAdmission.Permit permit = admission.acquire(priority)) {
+            synchronized (admitted) {
+                admitted.add(name);
+            }
+        }
+    }
+
+    private static void waitForQueued(OrderAdmission admission, int queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (admission.getQueued() < queued && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(queued, admission.getQueued());
+    }
+}
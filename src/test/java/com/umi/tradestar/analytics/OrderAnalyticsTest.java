@@ -0,0 +1,137 @@
+package com.umi.tradestar.analytics;
+
+import com.umi.tradestar.exception.ValidationException;
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderAnalyticsTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 3, 4);
+    private static final int ROWS = 300_000; // several fork-join chunks
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void aggregations_OverChunks_MatchRowByRowTotals() throws Exception {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            OrderStatus status = i % 4 == 0 ? OrderStatus.CANCELLED : OrderStatus.FILLED;
+            BigDecimal filled = status == OrderStatus.FILLED ? BigDecimal.valueOf(100) : BigDecimal.ZERO;
+            rows.add(new Row(i + 1L, i % 3, OrderSide.values()[i % 2], status, new BigDecimal("150.25"),
+                    BigDecimal.valueOf(100), filled, status == OrderStatus.FILLED ? new BigDecimal("150.25") : BigDecimal.ZERO,
+                    MONDAY.atStartOfDay().plusSeconds(i)));
+        }
+        try (OrderColumnStore store = OrderColumnStore.open(tempDir)) {
+            store.append(rows.subList(0, 1_000));
+            store.append(rows.subList(1_000, ROWS));
+        }
+
+        // Reopening must drop an append that never reached the watermark
+        try (FileChannel symbols = FileChannel.open(tempDir.resolve("symbol.col"), StandardOpenOption.APPEND)) {
+            symbols.write(ByteBuffer.allocate(4 * 10));
+        }
+        try (OrderColumnStore store = OrderColumnStore.open(tempDir)) {
+            assertEquals(ROWS, store.rows());
+            assertEquals(ROWS, store.getWatermarkId());
+            OrderAnalytics analytics = new OrderAnalytics(store, 3, ForkJoinPool.commonPool());
+
+            // 300k seconds cover Monday to Thursday
+            List<DailyVolume> volumes = analytics.dailyVolume(MONDAY, MONDAY.plusDays(7));
+            assertEquals(3 * 4, volumes.size());
+            assertEquals(ROWS, volumes.stream().mapToLong(DailyVolume::getOrders).sum());
+            long filledOrders = rows.stream().filter(row -> row.status == OrderStatus.FILLED).count();
+            assertEquals(BigDecimal.valueOf(filledOrders * 100),
+                    volumes.stream().map(DailyVolume::getVolume).reduce(BigDecimal.ZERO, BigDecimal::add));
+            DailyVolume first = volumes.get(0);
+            assertEquals(MONDAY, first.getDay());
+            long mondaySymbol0 = rows.stream().filter(row -> row.symbolId == 0
+                    && row.updatedAt.toLocalDate().equals(MONDAY)).count();
+            assertEquals(mondaySymbol0, first.getOrders());
+
+            List<OrderStats> stats = analytics.orderStats(MONDAY, MONDAY.plusDays(1));
+            assertEquals(3, stats.size());
+            OrderStats symbol0 = stats.get(0);
+            assertEquals(mondaySymbol0, symbol0.getOrders());
+            assertEquals(0.25, symbol0.getCancelRate(), 0.001);
+            assertEquals(0.75, symbol0.getFillRatio(), 0.001);
+            assertEquals(symbol0.getOrders(), symbol0.getFilled() + symbol0.getCancelled());
+        }
+    }
+
+    @Test
+    void dailyVolume_RangeTooLongForTheSymbols_Rejected() throws Exception {
+        try (OrderColumnStore store = OrderColumnStore.open(tempDir)) {
+            OrderAnalytics analytics = new OrderAnalytics(store, 10_000, ForkJoinPool.commonPool());
+
+            assertTrue(analytics.dailyVolume(MONDAY, MONDAY.plusDays(7)).isEmpty());
+            assertThrows(ValidationException.class, () -> analytics.dailyVolume(MONDAY, MONDAY.plusDays(30)));
+            assertTrue(analytics.orderStats(MONDAY, MONDAY.plusDays(30)).isEmpty());
+        }
+    }
+
+    private record Row(Long id, Integer symbolId, OrderSide side, OrderStatus status, BigDecimal price,
+                       BigDecimal quantity, BigDecimal filledQuantity, BigDecimal averagePrice,
+                       LocalDateTime updatedAt) implements ClosedOrderRow {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Integer getSymbolId() {
+            return symbolId;
+        }
+
+        @Override
+        public OrderSide getSide() {
+            return side;
+        }
+
+        @Override
+        public OrderStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        @Override
+        public BigDecimal getQuantity() {
+            return quantity;
+        }
+
+        @Override
+        public BigDecimal getFilledQuantity() {
+            return filledQuantity;
+        }
+
+        @Override
+        public BigDecimal getAveragePrice() {
+            return averagePrice;
+        }
+
+        @Override
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.umi.tradestar.archive;
+
+import com.umi.tradestar.TradestarApplication;
+import com.umi.tradestar.config.TestSecurityConfig;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderStatus;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.model.enums.Role;
+import com.umi.tradestar.repository.ArchivedOrderRepository;
+import com.umi.tradestar.repository.OrderRepository;
+import com.umi.tradestar.repository.UserRepository;
+import com.umi.tradestar.service.OrderHistoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = {TradestarApplication.class, TestSecurityConfig.class})
+class OrderArchiverTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void closedOrders_MovedInBatchesAndStillQueryable() throws Exception {
+        User trader = userRepository.save(User.builder().firstName("Archive").lastName("Trader")
+                .email("archive-trader@example.com").password("secret").role(Role.TRADER).enabled(true).build());
+        OrderStatus[] statuses = {OrderStatus.FILLED, OrderStatus.NEW, OrderStatus.CANCELLED, OrderStatus.EXPIRED,
+                OrderStatus.PARTIALLY_FILLED};
+        for (OrderStatus status : statuses) {
+            orderRepository.save(Order.builder().orderId("archive-" + status).trader(trader).symbolId(0)
+                    .side(OrderSide.BUY).orderType(OrderType.LIMIT).quantity(BigDecimal.TEN)
+                    .price(new BigDecimal("100")).status(status).build());
+        }
+        Thread.sleep(5);
+
+        // No retention and batches of two, so the three closed orders take two batches
+        OrderArchiver archiver = new OrderArchiver(orderRepository, archivedOrderRepository,
+                new TransactionTemplate(transactionManager), 0, 2, 0, 0);
+        assertEquals(3, archiver.archiveClosedOrders());
+        assertEquals(0, archiver.archiveClosedOrders());
+
+        List<Order> live = orderRepository.findByTrader(trader);
+        assertEquals(2, live.size());
+        assertTrue(live.stream().noneMatch(order -> order.getStatus() == OrderStatus.FILLED));
+        assertEquals(3, archivedOrderRepository.findByTraderCreatedBetween(trader.getId(),
+                LocalDateTime.now().minusDays(1), LocalDateTime.now()).size());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(trader, null, trader.getAuthorities()));
+        OrderHistoryService history = new OrderHistoryService(orderRepository, archivedOrderRepository, archiver);
+        List<Order> orders = history.getOrdersByTrader(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1));
+        assertEquals(statuses.length, orders.size());
+        for (int i = 0; i < statuses.length; i++) {
+            assertEquals(statuses[i], orders.get(i).getStatus());
+            assertEquals(trader.getId(), orders.get(i).getTrader().getId());
+        }
+    }
+
+    @Test
+    void reusedClientOrderId_ArchivedAgainWithoutStallingArchiving() throws Exception {
+        User trader = userRepository.save(User.builder().firstName("Reuse").lastName("Trader")
+                .email("reuse-trader@example.com").password("secret").role(Role.TRADER).enabled(true).build());
+        OrderArchiver archiver = new OrderArchiver(orderRepository, archivedOrderRepository,
+                new TransactionTemplate(transactionManager), 0, 10, 0, 0);
+
+        // Stored directly, as orders taken before the live check against the history could be
+        for (int i = 0; i < 2; i++) {
+            orderRepository.save(Order.builder().orderId("reused").trader(trader).symbolId(0)
+                    .side(OrderSide.BUY).orderType(OrderType.LIMIT).quantity(BigDecimal.TEN)
+                    .price(new BigDecimal("100")).status(OrderStatus.FILLED).build());
+            Thread.sleep(5);
+            archiver.archiveClosedOrders();
+            assertTrue(orderRepository.findByTrader(trader).isEmpty());
+        }
+        assertEquals(2, archivedOrderRepository.findByTraderCreatedBetween(trader.getId(),
+                LocalDateTime.now().minusDays(1), LocalDateTime.now()).size());
+        assertTrue(archivedOrderRepository.existsByTraderIdAndOrderId(trader.getId(), "reused"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.umi.tradestar.auction;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Uncrossing on a small book with prices 98..104, one level per price unit.
+ */
+class CallAuctionTest {
+
+    private static int level(int price) {
+        return price - 98;
+    }
+
+    @Test
+    void uncross_PicksMaxVolumeThenMinImbalance_AndFillsByPriceTimePriority() {
+        CallAuction auction = new CallAuction(7, 8);
+        int b1 = auction.add(true, level(102), 100);
+        int b2 = auction.add(true, level(101), 200);
+        int b3 = auction.add(true, CallAuction.MARKET, 50);
+        int b4 = auction.add(true, level(100), 300);
+        int s1 = auction.add(false, level(99), 150);
+        int s2 = auction.add(false, level(100), 200);
+        int s3 = auction.add(false, level(101), 100);
+        int s4 = auction.add(false, level(103), 400);
+
+        // 100 and 101 both execute 350; 101 leaves the smaller imbalance (450 - 350 vs 650 - 350)
+        assertTrue(auction.uncross(CallAuction.NO_REFERENCE));
+        assertEquals(level(101), auction.getPriceLevel());
+        assertEquals(350, auction.getVolume());
+        assertEquals(100, auction.getImbalance());
+
+        assertEquals(100, auction.filled(b1));
+        assertEquals(200, auction.filled(b2));
+        assertEquals(50, auction.filled(b3));
+        assertEquals(0, auction.filled(b4));
+        assertEquals(150, auction.filled(s1));
+        assertEquals(200, auction.filled(s2));
+        assertEquals(0, auction.filled(s3));
+        assertEquals(0, auction.filled(s4));
+    }
+
+    @Test
+    void uncross_SplitsMarginalLevelInArrivalOrder_AndUsesReferenceOnTies() {
+        CallAuction auction = new CallAuction(7, 2);
+        int first = auction.add(true, level(101), 60);
+        int second = auction.add(true, level(101), 60);
+        int sell = auction.add(false, level(99), 100);
+
+        // Every level from 99 to 101 executes 100 with imbalance 20; the reference picks 100
+        assertTrue(auction.uncross(level(100)));
+        assertEquals(level(100), auction.getPriceLevel());
+        assertEquals(60, auction.filled(first));
+        assertEquals(40, auction.filled(second));
+        assertEquals(100, auction.filled(sell));
+
+        auction.clear();
+        auction.add(true, level(99), 10);
+        auction.add(false, level(100), 10);
+        assertFalse(auction.uncross(CallAuction.NO_REFERENCE));
+        assertEquals(-1, auction.getPriceLevel());
+    }
+}
@@ -0,0 +1,92 @@
+package com.umi.tradestar.audit;
+
+import com.umi.tradestar.lifecycle.OrderEvent;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void events_AreFoundByTraderAndTime() {
+        long start = System.currentTimeMillis();
+        AuditLog auditLog = new AuditLog(tempDir, 1_000, 4_096, 1 << 20, 50);
+        auditLog.start();
+        auditLog.record(AuditEventType.LOGIN, 7, "seven@example.com");
+        auditLog.record(AuditEventType.LOGIN, 8, "eight@example.com");
+        auditLog.onOrderEvent(order(42L, 7L, "CL-1"), OrderEvent.ACCEPT, null);
+        auditLog.stop();
+        long end = System.currentTimeMillis() + 1;
+
+        List<AuditEvent> seven = auditLog.find(7L, start, end, 100);
+        assertEquals(2, seven.size());
+        assertEquals(AuditEventType.LOGIN, seven.get(0).getType());
+        assertEquals(AuditEventType.ORDER_ACCEPT, seven.get(1).getType());
+        assertEquals(42L, seven.get(1).getOrderId());
+        assertEquals("CL-1", seven.get(1).getDetail());
+
+        assertEquals(3, auditLog.find(null, start, end, 100).size());
+        assertEquals(1, auditLog.find(null, start, end, 1).size());
+        assertTrue(auditLog.find(7L, end, end + 1_000, 100).isEmpty());
+        assertEquals(3, auditLog.getWritten());
+    }
+
+    @Test
+    void segmentsRollOver_AndRestartAppendsANewSegment() throws Exception {
+        AuditLog auditLog = new AuditLog(tempDir, 10_000, 256, 1_024, 1_000);
+        auditLog.start();
+        for (int i = 0; i < 2_000; i++) {
+            auditLog.record(AuditEventType.LOGIN, i % 50, "trader" + (i % 50) + "@example.com");
+        }
+        auditLog.stop();
+        long segments = countIndexFiles();
+        assertTrue(segments > 1, "segments " + segments);
+
+        AuditLog restarted = new AuditLog(tempDir, 10_000, 256, 1_024, 1_000);
+        restarted.start();
+        restarted.record(AuditEventType.USER_DISABLED, 3, "trader3@example.com");
+        restarted.stop();
+
+        assertEquals(segments + 1, countIndexFiles());
+        List<AuditEvent> trader3 = restarted.find(3L, 0, Long.MAX_VALUE, 1_000);
+        assertEquals(41, trader3.size());
+        assertEquals(AuditEventType.USER_DISABLED, trader3.get(40).getType());
+    }
+
+    @Test
+    void fullQueue_DropsEventsWithoutBlocking() {
+        AuditLog auditLog = new AuditLog(tempDir, 2, 4_096, 1 << 20, 50);
+        for (int i = 0; i < 5; i++) {
+            auditLog.record(AuditEventType.LOGIN_FAILED, 0, "nobody@example.com");
+        }
+        assertEquals(2, auditLog.getQueued());
+        assertEquals(3, auditLog.getDropped());
+    }
+
+    private long countIndexFiles() throws Exception {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(file -> file.toString().endsWith(".idx")).count();
+        }
+    }
+
+    private static Order order(Long id, Long traderId, String clientOrderId) {
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderId(clientOrderId);
+        order.setTrader(User.builder().id(traderId).build());
+        order.setStatus(OrderStatus.NEW);
+        return order;
+    }
+}
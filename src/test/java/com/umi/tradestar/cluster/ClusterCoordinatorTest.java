@@ -0,0 +1,276 @@
+package com.umi.tradestar.cluster;
+
+import com.umi.tradestar.exception.OrderProcessingException;
+import com.umi.tradestar.exception.SymbolOwnershipException;
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.refdata.SymbolDefinition;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs several cluster nodes inside one JVM over the loopback transport.
+ */
+class ClusterCoordinatorTest {
+
+    private static final long HEARTBEAT_MILLIS = 20;
+    private static final long FAILURE_TIMEOUT_MILLIS = 100;
+
+    private static SymbolRegistry symbols;
+
+    private final LoopbackClusterTransport transport = new LoopbackClusterTransport();
+    private final ExecutorService replicationExecutor = Executors.newCachedThreadPool();
+    private final List<ClusterCoordinator> nodes = new ArrayList<>();
+
+    @BeforeAll
+    static void loadSymbols() throws Exception {
+        symbols = SymbolRegistry.load(ClusterCoordinatorTest.class.getResourceAsStream("/reference/symbols.csv"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ClusterCoordinator::stop);
+        replicationExecutor.shutdownNow();
+    }
+
+    @Test
+    void ownership_IsConsistentAcrossNodes_AndNonOwnerRedirects() {
+        startCluster(3);
+
+        for (int symbolId = 0; symbolId < symbols.size(); symbolId++) {
+            SymbolDefinition symbol = symbols.get(symbolId);
+            String owner = nodes.get(0).getMembership().ownerOf(symbolId).getNodeId();
+            for (ClusterCoordinator node : nodes) {
+                assertEquals(owner, node.getMembership().ownerOf(symbolId).getNodeId());
+                if (node.getMembership().isSelf(owner)) {
+                    assertDoesNotThrow(() -> node.ensureLocalOwner(symbol));
+                } else {
+                    SymbolOwnershipException ex = assertThrows(SymbolOwnershipException.class,
+                            () -> node.ensureLocalOwner(symbol));
+                    assertEquals("http://" + owner, ex.getOwnerBaseUrl());
+                }
+            }
+        }
+    }
+
+    @Test
+    void replicate_CommitsOnQuorum_AndFollowersHoldTheEntry() {
+        startCluster(3);
+        ClusterCoordinator owner = ownerOf("AAPL");
+
+        owner.replicate(command("AAPL", "order-1"));
+
+        // The leader returns as soon as one of the two followers acknowledged
+        String leaderId = owner.getMembership().getSelf().getNodeId();
+        long followersHoldingEntry = nodes.stream()
+                .filter(node -> node != owner)
+                .filter(node -> node.getJournal().lastIndex(leaderId) >= 1)
+                .count();
+        assertTrue(followersHoldingEntry >= 1);
+        assertEquals("order-1", OrderCommand.decode(
+                owner.getJournal().committedEntries(leaderId, 1, 1).get(0).getPayload()).getOrderId());
+    }
+
+    @Test
+    void replicate_WithoutQuorum_Fails() {
+        startCluster(3);
+        ClusterCoordinator owner = ownerOf("AAPL");
+        long term = owner.getMembership().getTerm();
+        nodes.stream()
+                .filter(node -> node != owner)
+                .forEach(node -> transport.takeDown(node.getMembership().getSelf().getNodeId()));
+
+        OrderProcessingException ex = assertThrows(OrderProcessingException.class,
+                () -> owner.replicate(command("AAPL", "order-1")));
+        assertEquals(OrderProcessingException.ERROR_CODE_REPLICATION_FAILED, ex.getErrorCode());
+        // Only this journal takes the entry back; the cluster term is left to membership changes
+        assertEquals(term, owner.getMembership().getTerm());
+    }
+
+    @Test
+    void revoke_JournalsThatTheCommandWasNotStored() {
+        startCluster(3);
+        ClusterCoordinator owner = ownerOf("AAPL");
+        String leaderId = owner.getMembership().getSelf().getNodeId();
+        OrderCommand command = command("AAPL", "order-1");
+
+        owner.replicate(command);
+        owner.revoke(command);
+
+        List<JournalEntry> entries = owner.getJournal().committedEntries(leaderId, 1, 10);
+        assertEquals(2, entries.size());
+        OrderCommand revoked = OrderCommand.decode(entries.get(1).getPayload());
+        assertEquals(OrderCommand.Type.REVOKE, revoked.getType());
+        assertEquals("order-1", revoked.getOrderId());
+    }
+
+    @Test
+    void append_AssignsTheNextIndexWhileAnEarlierAppendWaitsForItsQuorum() throws Exception {
+        CountDownLatch firstSent = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicBoolean holdNext = new AtomicBoolean(true);
+        ClusterTransport slowFirstAppend = new ClusterTransport() {
+            @Override
+            public AppendResponse append(String targetNodeId, AppendRequest request) {
+                if (holdNext.getAndSet(false)) {
+                    firstSent.countDown();
+                    try {
+                        releaseFirst.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return transport.append(targetNodeId, request);
+            }
+
+            @Override
+            public void heartbeat(String targetNodeId, Heartbeat heartbeat) {
+                transport.heartbeat(targetNodeId, heartbeat);
+            }
+        };
+        // Two nodes, so every append needs the one follower
+        startCluster(2, slowFirstAppend);
+        ClusterCoordinator owner = ownerOf("AAPL");
+        String leaderId = owner.getMembership().getSelf().getNodeId();
+        ExecutorService appenders = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = appenders.submit(() -> owner.replicate(command("AAPL", "order-1")));
+            assertTrue(firstSent.await(1, TimeUnit.SECONDS));
+            Future<?> second = appenders.submit(() -> owner.replicate(command("AAPL", "order-2")));
+
+            long deadline = System.nanoTime() + 1_000_000_000L;
+            while (owner.getJournal().lastIndex(leaderId) < 2 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertEquals(2, owner.getJournal().lastIndex(leaderId));
+            assertEquals(0, owner.getJournal().commitIndex(leaderId));
+
+            releaseFirst.countDown();
+            first.get(1, TimeUnit.SECONDS);
+            second.get(1, TimeUnit.SECONDS);
+            assertEquals(2, owner.getJournal().commitIndex(leaderId));
+        } finally {
+            releaseFirst.countDown();
+            appenders.shutdownNow();
+        }
+    }
+
+    @Test
+    void ownerFailure_MovesSymbolToSurvivor_AndFencesOldOwner() throws InterruptedException {
+        startCluster(3);
+        nodes.forEach(ClusterCoordinator::start);
+        ClusterCoordinator failed = ownerOf("AAPL");
+        String failedId = failed.getMembership().getSelf().getNodeId();
+        failed.replicate(command("AAPL", "before-failover"));
+        // Let a heartbeat carry the commit index to the followers
+        Thread.sleep(HEARTBEAT_MILLIS * 3);
+
+        long failedAt = System.nanoTime();
+        transport.takeDown(failedId);
+        failed.stop();
+
+        ClusterCoordinator newOwner = null;
+        while (newOwner == null && System.nanoTime() - failedAt < 5_000_000_000L) {
+            for (ClusterCoordinator node : nodes) {
+                if (node != failed && node.getMembership().isLocalOwner(aapl())) {
+                    try {
+                        node.replicate(command("AAPL", "after-failover"));
+                        newOwner = node;
+                    } catch (OrderProcessingException ex) {
+                        // Peers have not converged on the new view yet
+                    }
+                }
+            }
+            Thread.sleep(5);
+        }
+        long failoverMillis = (System.nanoTime() - failedAt) / 1_000_000;
+        System.out.printf("Failover of AAPL from %s: %d ms (failure timeout %d ms)%n",
+                failedId, failoverMillis, FAILURE_TIMEOUT_MILLIS);
+
+        assertNotNull(newOwner, "no survivor took over AAPL");
+        // The survivor still holds the failed node's journal for recovery
+        assertFalse(newOwner.getJournal().committedEntries(failedId, 1, 10).isEmpty());
+
+        // The old owner comes back without having seen the new view and must not be able to commit
+        transport.bringUp(failedId);
+        assertThrows(OrderProcessingException.class, () -> failed.replicate(command("AAPL", "stale")));
+    }
+
+    @Test
+    void quorumAppendThroughput_AcrossClusterSizes() {
+        for (int size = 1; size <= 3; size++) {
+            nodes.forEach(ClusterCoordinator::stop);
+            nodes.clear();
+            startCluster(size);
+            ClusterCoordinator owner = ownerOf("AAPL");
+            int appends = 20_000;
+            OrderCommand command = command("AAPL", "throughput");
+
+            long start = System.nanoTime();
+            for (int i = 0; i < appends; i++) {
+                owner.replicate(command);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d node(s): %.0f quorum appends/s over loopback%n", size, appends / seconds);
+            assertEquals(appends, owner.getJournal().lastIndex(owner.getMembership().getSelf().getNodeId()));
+        }
+    }
+
+    private void startCluster(int size) {
+        startCluster(size, transport);
+    }
+
+    private void startCluster(int size, ClusterTransport outbound) {
+        List<ClusterMember> members = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            members.add(new ClusterMember("node-" + i, "http://node-" + i));
+        }
+        for (ClusterMember self : members) {
+            ClusterMembership membership = new ClusterMembership(self, members, FAILURE_TIMEOUT_MILLIS);
+            ReplicatedJournal journal = new ReplicatedJournal(membership, outbound, replicationExecutor, 200, 1_000);
+            ClusterCoordinator coordinator = new ClusterCoordinator(membership, journal, outbound, HEARTBEAT_MILLIS);
+            transport.register(self.getNodeId(), coordinator);
+            nodes.add(coordinator);
+        }
+    }
+
+    private ClusterCoordinator ownerOf(String symbol) {
+        int symbolId = symbols.require(symbol).getId();
+        return nodes.stream()
+                .filter(node -> node.getMembership().isLocalOwner(symbolId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static int aapl() {
+        return symbols.require("AAPL").getId();
+    }
+
+    private static OrderCommand command(String symbol, String orderId) {
+        return OrderCommand.builder()
+                .type(OrderCommand.Type.NEW)
+                .orderId(orderId)
+                .symbolId(symbols.require(symbol).getId())
+                .side(OrderSide.BUY)
+                .orderType(OrderType.LIMIT)
+                .quantity(BigDecimal.TEN)
+                .price(new BigDecimal("101.25"))
+                .traderId(1L)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+}
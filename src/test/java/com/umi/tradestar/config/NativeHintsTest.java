@@ -0,0 +1,36 @@
+package com.umi.tradestar.config;
+
+import com.umi.tradestar.exception.OrderProcessingException;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsTest() {
+        new NativeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    // jjwt-impl and jjwt-jackson are runtime dependencies, so their types are named rather than referenced
+    @Test
+    void jjwtImplementationIsReachable() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtParserBuilder"))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of("io.jsonwebtoken.jackson.io.JacksonDeserializer"))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Deserializer").test(hints));
+    }
+
+    @Test
+    void errorCodesAndReferenceDataAreIncluded() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(OrderProcessingException.class)
+                .withMemberCategory(MemberCategory.PUBLIC_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("reference/symbols.csv").test(hints));
+    }
+}
@@ -0,0 +1,110 @@
+package com.umi.tradestar.datasource;
+
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.Role;
+import com.umi.tradestar.session.SimulatedClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and the replica; each knows its own name.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final SimulatedClock clock = new SimulatedClock(Instant.parse("2024-03-01T10:00:00Z"), ZoneOffset.UTC);
+    private JdbcTemplate jdbc;
+    private TransactionTemplate writes;
+    private TransactionTemplate reads;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource primary = h2("primary");
+        DriverManagerDataSource replica = h2("replica");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, 2_000, clock);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        writes = new TransactionTemplate(transactionManager);
+        reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactions_GoToReplica_WritesToPrimary() {
+        signIn(1L);
+        assertEquals("replica", reads.execute(status -> node()));
+        writes.executeWithoutResult(status -> jdbc.update("update node set writes = writes + 1"));
+        assertEquals(1, primaryWrites());
+    }
+
+    @Test
+    void readsFollowingOwnWrite_StickToPrimaryWithinLagThreshold() {
+        signIn(1L);
+        writes.executeWithoutResult(status -> node());
+        assertEquals("primary", reads.execute(status -> node()));
+
+        // Another trader did not write, so it reads from the replica
+        signIn(2L);
+        assertEquals("replica", reads.execute(status -> node()));
+
+        signIn(1L);
+        clock.advance(Duration.ofMillis(2_001));
+        assertEquals("replica", reads.execute(status -> node()));
+    }
+
+    @Test
+    void rolledBackWrite_DoesNotPinReadsToPrimary() {
+        signIn(1L);
+        writes.executeWithoutResult(status -> {
+            node();
+            status.setRollbackOnly();
+        });
+        assertEquals("replica", reads.execute(status -> node()));
+    }
+
+    private String node() {
+        return jdbc.queryForObject("select name from node", String.class);
+    }
+
+    private int primaryWrites() {
+        return new JdbcTemplate(dataSource("primary")).queryForObject("select writes from node", Integer.class);
+    }
+
+    private static void signIn(Long traderId) {
+        User trader = User.builder().id(traderId).email("trader" + traderId + "@example.com").role(Role.TRADER).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(trader, null, trader.getAuthorities()));
+    }
+
+    private static DriverManagerDataSource dataSource(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static DriverManagerDataSource h2(String name) {
+        DriverManagerDataSource dataSource = dataSource(name);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists node (name varchar(16), writes int)");
+        jdbc.update("delete from node");
+        jdbc.update("insert into node values (?, 0)", name);
+        return dataSource;
+    }
+}
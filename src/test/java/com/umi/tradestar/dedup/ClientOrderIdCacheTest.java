@@ -0,0 +1,62 @@
+package com.umi.tradestar.dedup;
+
+import com.umi.tradestar.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientOrderIdCacheTest {
+
+    @Test
+    void resubmission_ReturnsOriginalOrderOfSameTraderOnly() {
+        ClientOrderIdCache cache = new ClientOrderIdCache(60_000, 100, 0);
+        Order original = Order.builder().id(7L).orderId("A-1").build();
+
+        assertNull(cache.claim("A-1", 1L));
+        cache.settle("A-1", 1L, original);
+        assertSame(original, cache.claim("A-1", 1L));
+        // Ids are per trader, so another trader claims the same id for an order of their own
+        Order otherTraders = Order.builder().id(8L).orderId("A-1").build();
+        assertNull(cache.claim("A-1", 2L));
+        cache.settle("A-1", 2L, otherTraders);
+        assertSame(otherTraders, cache.claim("A-1", 2L));
+        assertNull(cache.claim("A-2", 1L));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void pendingClaim_SettledByOutcome() throws Exception {
+        ClientOrderIdCache cache = new ClientOrderIdCache(60_000, 5_000, 0);
+        Order first = Order.builder().orderId("B-1").build();
+
+        assertNull(cache.claim("B-1", 1L));
+        CompletableFuture<Order> resubmission = CompletableFuture.supplyAsync(() -> cache.claim("B-1", 1L));
+        Thread.sleep(50);
+        assertFalse(resubmission.isDone());
+        cache.settle("B-1", 1L, null);
+        // The first submission was not stored, so the resubmission claims the id itself
+        assertNull(resubmission.get(5, TimeUnit.SECONDS));
+
+        resubmission = CompletableFuture.supplyAsync(() -> cache.claim("B-1", 1L));
+        Thread.sleep(50);
+        assertFalse(resubmission.isDone());
+        cache.settle("B-1", 1L, first);
+        assertSame(first, resubmission.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void expiredIds_AreSweptAndCanBeClaimedAgain() throws Exception {
+        ClientOrderIdCache cache = new ClientOrderIdCache(1, 100, 0);
+        Order original = new Order();
+        assertNull(cache.claim("C-1", 1L));
+        cache.settle("C-1", 1L, original);
+        Thread.sleep(5);
+        assertSame(original, cache.claim("C-1", 1L));
+        cache.sweep();
+        assertEquals(0, cache.size());
+        assertNull(cache.claim("C-1", 1L));
+    }
+}
@@ -0,0 +1,67 @@
+package com.umi.tradestar.lifecycle;
+
+import com.umi.tradestar.exception.OrderProcessingException;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStateMachineTest {
+
+    private final List<String> events = new ArrayList<>();
+    private final OrderStateMachine stateMachine = new OrderStateMachine(List.of(
+            (order, event, previous) -> events.add(previous + " " + event + " " + order.getStatus())));
+
+    @Test
+    void fillsAndCancel_AreEmittedInOrder() {
+        Order order = new Order();
+        order.setStatus(OrderStatus.FILLED); // As submitted by a client; ignored on accept
+        stateMachine.accept(order);
+        stateMachine.apply(order, OrderEvent.PARTIAL_FILL);
+        stateMachine.apply(order, OrderEvent.CANCEL);
+
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+        assertEquals(List.of("null ACCEPT NEW", "NEW PARTIAL_FILL PARTIALLY_FILLED",
+                "PARTIALLY_FILLED CANCEL CANCELLED"), events);
+    }
+
+    @Test
+    void refusedCancel_ReturnsToOpenStatusKeepingFills() {
+        Order order = new Order();
+        stateMachine.accept(order);
+        stateMachine.apply(order, OrderEvent.CANCEL_REQUEST);
+        assertEquals(OrderStatus.PENDING_CANCEL, stateMachine.apply(order, OrderEvent.PARTIAL_FILL));
+
+        order.setFilledQuantity(BigDecimal.ONE);
+        assertEquals(OrderStatus.PARTIALLY_FILLED, stateMachine.apply(order, OrderEvent.CANCEL_REJECT));
+    }
+
+    @Test
+    void terminalStatuses_RefuseEveryEventWithoutNotifying() {
+        for (OrderStatus terminal : EnumSet.of(OrderStatus.FILLED, OrderStatus.CANCELLED, OrderStatus.REJECTED,
+                OrderStatus.EXPIRED)) {
+            assertTrue(OrderStateMachine.isTerminal(terminal));
+            Order order = new Order();
+            order.setStatus(terminal);
+            for (OrderEvent event : OrderEvent.values()) {
+                OrderProcessingException ex = assertThrows(OrderProcessingException.class,
+                        () -> stateMachine.apply(order, event));
+                assertEquals(OrderProcessingException.ERROR_CODE_INVALID_ORDER_STATUS, ex.getErrorCode());
+            }
+            assertEquals(terminal, order.getStatus());
+        }
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void everyOpenStatus_CanExpire() {
+        assertEquals(EnumSet.of(OrderStatus.NEW, OrderStatus.PARTIALLY_FILLED, OrderStatus.PENDING_CANCEL,
+                OrderStatus.PENDING_REPLACE), OrderStateMachine.statusesAccepting(OrderEvent.EXPIRE));
+    }
+}
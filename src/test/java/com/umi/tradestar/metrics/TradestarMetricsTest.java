@@ -0,0 +1,82 @@
+package com.umi.tradestar.metrics;
+
+import com.umi.tradestar.exception.OrderProcessingException;
+import com.umi.tradestar.lifecycle.OrderEvent;
+import com.umi.tradestar.model.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TradestarMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TradestarMetrics metrics = new TradestarMetrics(registry);
+
+    @Test
+    void errorCountersArePreRegisteredForKnownCodes() {
+        assertNotNull(registry.find("tradestar.errors").tag("code", OrderProcessingException.ERROR_CODE_MARKET_CLOSED).counter());
+        assertNotNull(registry.find("tradestar.errors").tag("code", "AUTH005").counter());
+    }
+
+    @Test
+    void unknownErrorCodesAreCountedAsOther() {
+        metrics.recordError("NOT_A_CODE");
+        metrics.recordError(null);
+        metrics.recordError(OrderProcessingException.ERROR_CODE_MARKET_CLOSED);
+
+        assertEquals(2.0, registry.get("tradestar.errors").tag("code", "OTHER").counter().count());
+        assertEquals(1.0, registry.get("tradestar.errors")
+                .tag("code", OrderProcessingException.ERROR_CODE_MARKET_CLOSED).counter().count());
+    }
+
+    @Test
+    void timersRecordElapsedTimeFromStart() {
+        metrics.recordOrderAccept(System.nanoTime() - 2_000_000);
+
+        assertEquals(1, registry.get("tradestar.order.accept").timer().count());
+    }
+
+    @Test
+    void firstOrderTimeIsRecordedOnce() {
+        assertTrue(Double.isNaN(registry.get("tradestar.startup.first-order").gauge().value()));
+
+        metrics.recordOrderAccept(System.nanoTime());
+        double firstOrder = registry.get("tradestar.startup.first-order").gauge().value();
+        metrics.recordOrderAccept(System.nanoTime());
+
+        assertFalse(Double.isNaN(firstOrder));
+        assertEquals(firstOrder, registry.get("tradestar.startup.first-order").gauge().value());
+    }
+
+    @Test
+    void orderEventsAreCountedOnceCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            metrics.onOrderEvent(new Order(), OrderEvent.ACCEPT, null);
+            assertEquals(0.0, acceptCount());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(1.0, acceptCount());
+
+        // Rolled back: the synchronizations are dropped without afterCommit
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            metrics.onOrderEvent(new Order(), OrderEvent.ACCEPT, null);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(1.0, acceptCount());
+    }
+
+    private double acceptCount() {
+        return registry.get("tradestar.order.events").tag("event", OrderEvent.ACCEPT.name()).counter().count();
+    }
+}
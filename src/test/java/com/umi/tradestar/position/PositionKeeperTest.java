@@ -0,0 +1,100 @@
+package com.umi.tradestar.position;
+
+import com.umi.tradestar.model.Fill;
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.repository.FillRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PositionKeeperTest {
+
+    private static final long TRADER = 1L;
+    private static final long OTHER_TRADER = 2L;
+
+    private SymbolRegistry symbols;
+    private int aapl;
+    private int msft;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        symbols = SymbolRegistry.load(getClass().getResourceAsStream("/reference/symbols.csv"));
+        aapl = symbols.require("AAPL").getId();
+        msft = symbols.require("MSFT").getId();
+    }
+
+    @Test
+    void fills_UpdateNetQuantityAverageCostAndPnl() {
+        PositionKeeper keeper = keeper(mock(FillRepository.class));
+        keeper.record(ledger());
+
+        List<PositionSnapshot> positions = keeper.positionsOf(TRADER);
+        assertEquals(2, positions.size());
+        PositionSnapshot position = positions.get(0);
+        assertEquals(aapl, position.getSymbolId());
+        // Long 200 at 11, sold 150 at 15 (+600), then sold 100 at 9: closes 50 (-100) and opens 50 short at 9
+        assertEquals(0, new BigDecimal("-50").compareTo(position.getNetQuantity()));
+        assertEquals(0, new BigDecimal("9").compareTo(position.getAverageCost()));
+        assertEquals(0, new BigDecimal("500").compareTo(position.getRealizedPnl()));
+        // The other trader's buy at 8 is AAPL's last trade: the short gains 1 per share
+        assertEquals(0, new BigDecimal("8").compareTo(position.getLastPrice()));
+        assertEquals(0, new BigDecimal("50").compareTo(position.getUnrealizedPnl()));
+
+        assertEquals(0, new BigDecimal("20").compareTo(positions.get(1).getNetQuantity()));
+        assertEquals(1, keeper.positionsOf(OTHER_TRADER).size());
+        assertTrue(keeper.positionsOf(99L).isEmpty());
+    }
+
+    @Test
+    void rebuild_FromLedger_MatchesIncrementalUpdates() {
+        List<Fill> fills = new ArrayList<>(ledger());
+        for (long trader = 10; trader < 200; trader++) {
+            fills.add(fill(trader, msft, trader % 2 == 0 ? OrderSide.BUY : OrderSide.SELL, "10", "300.00"));
+            fills.add(fill(trader, msft, OrderSide.SELL, "5", "301.50"));
+        }
+        FillRepository fillRepository = mock(FillRepository.class);
+        when(fillRepository.streamLedger()).thenReturn(fills.stream());
+        PositionKeeper incremental = keeper(mock(FillRepository.class));
+        PositionKeeper rebuilt = keeper(fillRepository);
+
+        incremental.record(fills);
+        rebuilt.start();
+
+        for (long trader : new long[]{TRADER, OTHER_TRADER, 10, 11, 199}) {
+            assertEquals(incremental.positionsOf(trader), rebuilt.positionsOf(trader));
+        }
+    }
+
+    private PositionKeeper keeper(FillRepository fillRepository) {
+        return new PositionKeeper(symbols, fillRepository, mock(PlatformTransactionManager.class));
+    }
+
+    private List<Fill> ledger() {
+        return List.of(
+                fill(TRADER, aapl, OrderSide.BUY, "100", "10"),
+                fill(TRADER, aapl, OrderSide.BUY, "100", "12"),
+                fill(TRADER, msft, OrderSide.BUY, "20", "400"),
+                fill(TRADER, aapl, OrderSide.SELL, "150", "15"),
+                fill(TRADER, aapl, OrderSide.SELL, "100", "9"),
+                fill(OTHER_TRADER, aapl, OrderSide.BUY, "10", "8"));
+    }
+
+    private static Fill fill(long trader, int symbolId, OrderSide side, String quantity, String price) {
+        return Fill.builder()
+                .traderId(trader)
+                .symbolId(symbolId)
+                .side(side)
+                .quantity(new BigDecimal(quantity))
+                .price(new BigDecimal(price))
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.umi.tradestar.ratelimit;
+
+import com.umi.tradestar.model.enums.Role;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void bucket_AllowsBurstThenRefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(new RateLimit(10, 3));
+        long now = 5 * SECOND;
+
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(SECOND / 10, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now + SECOND / 10));
+        assertTrue(bucket.tryAcquire(now + SECOND / 10) > 0);
+    }
+
+    @Test
+    void endpointLimit_AppliesPerTraderOnTopOfOverallLimit() {
+        RateLimiter limiter = new RateLimiter(RateLimit.parseByRole("TRADER=100/100"),
+                Map.of(RateLimitedEndpoint.ORDER_ENTRY, RateLimit.parseByRole("TRADER=1/2")), 10, 60_000, 0);
+        long now = SECOND;
+
+        assertEquals(0, limiter.tryAcquire("a@example.com", Role.TRADER, RateLimitedEndpoint.ORDER_ENTRY, now));
+        assertEquals(0, limiter.tryAcquire("a@example.com", Role.TRADER, RateLimitedEndpoint.ORDER_ENTRY, now));
+        assertTrue(limiter.tryAcquire("a@example.com", Role.TRADER, RateLimitedEndpoint.ORDER_ENTRY, now) > 0);
+        // Other endpoints and other traders are unaffected
+        assertEquals(0, limiter.tryAcquire("a@example.com", Role.TRADER, RateLimitedEndpoint.ORDER_QUERY, now));
+        assertEquals(0, limiter.tryAcquire("b@example.com", Role.TRADER, RateLimitedEndpoint.ORDER_ENTRY, now));
+        // ADMIN is not listed, so not limited
+        for (int i = 0; i < 500; i++) {
+            assertEquals(0, limiter.tryAcquire("admin@example.com", Role.ADMIN, RateLimitedEndpoint.ORDER_ENTRY, now));
+        }
+    }
+
+    @Test
+    void refusedByOverallLimit_DoesNotUseTheEndpointToken() {
+        RateLimiter limiter = new RateLimiter(RateLimit.parseByRole("TRADER=10/1"),
+                Map.of(RateLimitedEndpoint.ORDER_ENTRY, RateLimit.parseByRole("TRADER=1/1")), 10, 60_000, 0);
+        long now = SECOND;
+
+        assertEquals(0, limiter.tryAcquire("a@example.com", Role.TRADER, RateLimitedEndpoint.ORDER_QUERY, now));
+        assertEquals(SECOND / 10, limiter.tryAcquire("a@example.com", Role.TRADER, RateLimitedEndpoint.ORDER_ENTRY, now));
+        // Once the overall bucket refills, the order entry token is still there
+        assertEquals(0, limiter.tryAcquire("a@example.com", Role.TRADER, RateLimitedEndpoint.ORDER_ENTRY,
+                now + SECOND / 10));
+    }
+
+    @Test
+    void idleTraders_AreSweptAndMapStaysBounded() {
+        RateLimiter limiter = new RateLimiter(RateLimit.parseByRole("TRADER=1/1"), Map.of(), 2, 1_000, 0);
+        long now = SECOND;
+
+        limiter.tryAcquire("a", Role.TRADER, null, now);
+        limiter.tryAcquire("b", Role.TRADER, null, now);
+        // Map is full, so c and d share the overflow bucket
+        assertEquals(0, limiter.tryAcquire("c", Role.TRADER, null, now));
+        assertTrue(limiter.tryAcquire("d", Role.TRADER, null, now) > 0);
+        assertEquals(2, limiter.size());
+
+        limiter.tryAcquire("b", Role.TRADER, null, now + SECOND);
+        limiter.sweep(now + SECOND + SECOND / 2);
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void parseByRole_RejectsMalformedEntries() {
+        assertEquals(new RateLimit(5, 10), RateLimit.parseByRole(" OBSERVER=5/10, ").get(Role.OBSERVER));
+        assertThrows(IllegalStateException.class, () -> RateLimit.parseByRole("TRADER=5"));
+        assertThrows(IllegalStateException.class, () -> RateLimit.parseByRole("NOBODY=5/10"));
+        assertThrows(IllegalStateException.class, () -> RateLimit.parseByRole("TRADER=0/10"));
+    }
+
+    @Test
+    void disabledLimiter_LetsEverythingThrough() {
+        RateLimiter limiter = RateLimiter.disabled();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, limiter.tryAcquire("a", Role.OBSERVER, RateLimitedEndpoint.REPORTS));
+        }
+        assertEquals(0, limiter.size());
+    }
+}
@@ -0,0 +1,74 @@
+package com.umi.tradestar.refdata;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolIdBackfillTest {
+
+    @Test
+    void legacyOrders_GetTheIdOfTheirSymbol() throws Exception {
+        SymbolRegistry registry = SymbolRegistry.load(getClass().getResourceAsStream("/reference/symbols.csv"));
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:backfill_legacy;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table orders (id bigint primary key, symbol varchar(255), symbol_id int)");
+        jdbc.update("insert into orders values (1, 'AAPL', null), (2, 'MSFT', null), (3, 'AAPL', null), "
+                + "(4, 'DELISTED', null), (5, null, 2)");
+
+        // Batches of one, so every symbol takes more than one statement
+        assertEquals(3, backfill(jdbc, registry, dataSource, 1).run());
+
+        int aapl = registry.require("AAPL").getId();
+        assertEquals(aapl, jdbc.queryForObject("select symbol_id from orders where id = 1", Integer.class));
+        assertEquals(aapl, jdbc.queryForObject("select symbol_id from orders where id = 3", Integer.class));
+        assertEquals(registry.require("MSFT").getId(),
+                jdbc.queryForObject("select symbol_id from orders where id = 2", Integer.class));
+        assertNull(jdbc.queryForObject("select symbol_id from orders where id = 4", Integer.class));
+        assertEquals(2, jdbc.queryForObject("select symbol_id from orders where id = 5", Integer.class));
+        assertEquals(0, backfill(jdbc, registry, dataSource, 1).run());
+    }
+
+    @Test
+    // Rolled back batches would select the same rows forever
+    @Timeout(value = 10, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void poolWithoutAutoCommit_BatchesAreCommitted() throws Exception {
+        SymbolRegistry registry = SymbolRegistry.load(getClass().getResourceAsStream("/reference/symbols.csv"));
+        String url = "jdbc:h2:mem:backfill_no_autocommit;DB_CLOSE_DELAY=-1";
+        JdbcTemplate setup = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        setup.execute("create table orders (id bigint primary key, symbol varchar(255), symbol_id int)");
+        setup.update("insert into orders values (1, 'AAPL', null), (2, 'AAPL', null), (3, 'MSFT', null)");
+
+        // As configured in the prod profile: the pool rolls back what a returned connection left open
+        try (HikariDataSource pool = new HikariDataSource()) {
+            pool.setJdbcUrl(url);
+            pool.setUsername("sa");
+            pool.setAutoCommit(false);
+            pool.setMaximumPoolSize(2);
+
+            assertEquals(3, backfill(new JdbcTemplate(pool), registry, pool, 1).run());
+        }
+        assertEquals(0, setup.queryForObject("select count(*) from orders where symbol_id is null", Integer.class));
+    }
+
+    @Test
+    void currentSchema_LeftAlone() throws Exception {
+        SymbolRegistry registry = SymbolRegistry.load(getClass().getResourceAsStream("/reference/symbols.csv"));
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:backfill_current;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table orders (id bigint primary key, symbol_id int)");
+
+        assertEquals(0, backfill(jdbc, registry, dataSource, 100).run());
+    }
+
+    private static SymbolIdBackfill backfill(JdbcTemplate jdbc, SymbolRegistry registry, DataSource dataSource,
+                                             int batchSize) {
+        return new SymbolIdBackfill(jdbc, registry, new DataSourceTransactionManager(dataSource), batchSize);
+    }
+}
@@ -0,0 +1,81 @@
+package com.umi.tradestar.replay;
+
+import com.umi.tradestar.cluster.OrderCommand;
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.model.enums.TimeInForce;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reading replay input from a recorded command log and from FIX messages.
+ */
+class ReplaySourcesTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void commandLog_ReadsBackRecordedCommands_AndStopsAtTornRecord() throws Exception {
+        OrderCommand order = OrderCommand.builder()
+                .type(OrderCommand.Type.NEW).orderId("A1").symbolId(3).side(OrderSide.BUY)
+                .orderType(OrderType.LIMIT).timeInForce(TimeInForce.GTC)
+                .quantity(new BigDecimal("100")).price(new BigDecimal("150.25")).traderId(7L).timestamp(1_000)
+                .build();
+        OrderCommand cancel = OrderCommand.builder()
+                .type(OrderCommand.Type.CANCEL).orderId("A1").symbolId(3).traderId(7L).timestamp(2_000)
+                .build();
+        Path log = tempDir.resolve("commands.bin");
+        try (DataOutputStream out = CommandLogFile.openForAppend(log)) {
+            CommandLogFile.write(out, order);
+        }
+        try (DataOutputStream out = CommandLogFile.openForAppend(log)) {
+            CommandLogFile.write(out, cancel);
+            out.writeInt(50); // length of a record that was never finished
+            out.write(new byte[10]);
+        }
+
+        assertEquals(List.of(order, cancel), CommandLogFile.read(log));
+    }
+
+    @Test
+    void fixLog_TurnsOrderEntryAndCancelIntoCommands() throws Exception {
+        SymbolRegistry symbols = SymbolRegistry.load(getClass().getResourceAsStream("/reference/symbols.csv"));
+        Path log = tempDir.resolve("fix.log");
+        Files.writeString(log, String.join("\n",
+                "2024-03-04 14:30:00 IN 8=FIX.4.4|9=120|35=D|49=CLIENT|52=20240304-14:30:00.125|1=42|11=ORD-1|55=MSFT"
+                        + "|54=2|38=300|40=2|44=410.50|59=1|60=20240304-14:30:00.120|10=000|",
+                "8=FIX.4.4\u00019=60\u000135=0\u000149=CLIENT\u000110=000\u0001",
+                "8=FIX.4.4|9=80|35=D|11=ORD-2|55=NOPE|54=1|38=1|40=1|10=000|",
+                "8=FIX.4.4|9=90|35=F|52=20240304-14:30:01|1=42|11=CXL-1|41=ORD-1|55=MSFT|54=2|10=000|"));
+
+        List<OrderCommand> commands = FixMessageParser.readLog(log, symbols);
+
+        assertEquals(2, commands.size());
+        OrderCommand order = commands.get(0);
+        assertEquals(OrderCommand.Type.NEW, order.getType());
+        assertEquals("ORD-1", order.getOrderId());
+        assertEquals(symbols.require("MSFT").getId(), order.getSymbolId());
+        assertEquals(OrderSide.SELL, order.getSide());
+        assertEquals(OrderType.LIMIT, order.getOrderType());
+        assertEquals(TimeInForce.GTC, order.getTimeInForce());
+        assertEquals(new BigDecimal("300"), order.getQuantity());
+        assertEquals(new BigDecimal("410.50"), order.getPrice());
+        assertEquals(42L, order.getTraderId());
+        assertEquals(1_709_562_600_120L, order.getTimestamp());
+
+        OrderCommand cancel = commands.get(1);
+        assertEquals(OrderCommand.Type.CANCEL, cancel.getType());
+        assertEquals("ORD-1", cancel.getOrderId());
+        assertEquals(1_709_562_601_000L, cancel.getTimestamp());
+    }
+}
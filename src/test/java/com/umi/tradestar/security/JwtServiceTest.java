@@ -0,0 +1,56 @@
+package com.umi.tradestar.security;
+
+import com.umi.tradestar.metrics.TradestarMetrics;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.Role;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtServiceTest {
+
+    // Same 512-bit key as application.properties
+    private static final String SECRET = "NjM3NTM4NzgyRjQxM0Y0NDI4NDcyQjRCNjI1MDY0NTM2NzU2NkI1OTcwNDA0RTYzNTI2NjU1NkE1ODZFMTI3MjM1NzUzODc4MkY0MTNGNDI4NDcyQjRCNjI1MDY0NTM2NzU2NkI1OTcw";
+
+    private final User trader = User.builder().id(1L).email("trader@example.com").role(Role.TRADER).build();
+    private final User other = User.builder().id(2L).email("other@example.com").role(Role.ADMIN).build();
+
+    @Test
+    void parsedClaims_ValidateAgainstTheirOwnUserOnly() {
+        JwtService jwtService = jwtService(SECRET);
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken(trader));
+
+        assertTrue(jwtService.isTokenValid(claims, trader));
+        assertFalse(jwtService.isTokenValid(claims, other));
+        assertEquals(Role.TRADER, jwtService.extractRole(claims));
+    }
+
+    @Test
+    void weakSecret_FallsBackToOneGeneratedKeyForAllTokens() {
+        JwtService jwtService = jwtService("c2hvcnQ=");
+        String token = jwtService.generateToken(trader);
+
+        assertTrue(jwtService.isTokenValid(token, trader));
+    }
+
+    @Test
+    void authorities_AreSharedPerRole() {
+        User sameRole = User.builder().id(3L).email("third@example.com").role(Role.TRADER).build();
+
+        assertSame(trader.getAuthorities(), sameRole.getAuthorities());
+        assertEquals("ROLE_ADMIN", other.getAuthorities().iterator().next().getAuthority());
+    }
+
+    private static JwtService jwtService(String secret) {
+        JwtService jwtService = new JwtService(new TradestarMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(jwtService, "secretKey", secret);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        return jwtService;
+    }
+}
@@ -0,0 +1,79 @@
+package com.umi.tradestar.service;
+
+import com.umi.tradestar.TradestarApplication;
+import com.umi.tradestar.auction.CallAuction;
+import com.umi.tradestar.config.TestSecurityConfig;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.MarketPhase;
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderStatus;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.model.enums.Role;
+import com.umi.tradestar.model.enums.TimeInForce;
+import com.umi.tradestar.refdata.SymbolDefinition;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.repository.OrderRepository;
+import com.umi.tradestar.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = {TradestarApplication.class, TestSecurityConfig.class})
+class CallAuctionServiceTest {
+
+    @Autowired
+    private CallAuctionService callAuctionService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void rolledBackAuction_LeavesOrdersAndReferencePriceAlone() {
+        User trader = userRepository.save(User.builder().firstName("Auction").lastName("Trader")
+                .email("auction-trader@example.com").password("secret").role(Role.TRADER).enabled(true).build());
+        SymbolDefinition symbol = symbolRegistry.require("NFLX");
+        Order buy = save(trader, symbol, OrderSide.BUY, "101.00");
+        Order sell = save(trader, symbol, OrderSide.SELL, "99.00");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            assertEquals(2, callAuctionService.runAuction(symbol, MarketPhase.OPENING_AUCTION));
+            status.setRollbackOnly();
+        });
+        assertEquals(CallAuction.NO_REFERENCE, callAuctionService.referenceLevelOf(symbol.getId()));
+        assertEquals(OrderStatus.NEW, statusOf(buy));
+        assertEquals(OrderStatus.NEW, statusOf(sell));
+
+        transaction.executeWithoutResult(status ->
+                assertEquals(2, callAuctionService.runAuction(symbol, MarketPhase.OPENING_AUCTION)));
+        assertNotEquals(CallAuction.NO_REFERENCE, callAuctionService.referenceLevelOf(symbol.getId()));
+        assertEquals(OrderStatus.FILLED, statusOf(buy));
+        assertEquals(OrderStatus.FILLED, statusOf(sell));
+    }
+
+    private Order save(User trader, SymbolDefinition symbol, OrderSide side, String price) {
+        return orderRepository.save(Order.builder().trader(trader).symbolId(symbol.getId()).side(side)
+                .orderType(OrderType.LIMIT).timeInForce(TimeInForce.GTC).quantity(BigDecimal.TEN)
+                .price(new BigDecimal(price)).status(OrderStatus.NEW).build());
+    }
+
+    private OrderStatus statusOf(Order order) {
+        return orderRepository.findById(order.getId()).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,82 @@
+package com.umi.tradestar.service;
+
+import com.umi.tradestar.TradestarApplication;
+import com.umi.tradestar.config.TestSecurityConfig;
+import com.umi.tradestar.lifecycle.OrderEvent;
+import com.umi.tradestar.lifecycle.OrderEventListener;
+import com.umi.tradestar.lifecycle.OrderStateMachine;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.MarketPhase;
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderStatus;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.model.enums.Role;
+import com.umi.tradestar.model.enums.TimeInForce;
+import com.umi.tradestar.refdata.SymbolDefinition;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.repository.OrderRepository;
+import com.umi.tradestar.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = {TradestarApplication.class, TestSecurityConfig.class})
+class OrderExpiryServiceTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void close_ExpiresOpenDayOrdersInBulkAndEmitsEachExpiry() {
+        User trader = userRepository.save(User.builder().firstName("Expiry").lastName("Trader")
+                .email("expiry-trader@example.com").password("secret").role(Role.TRADER).enabled(true).build());
+        SymbolDefinition symbol = symbolRegistry.require("GOOG");
+        Order open = save(trader, symbol, TimeInForce.DAY, OrderStatus.NEW);
+        Order partlyFilled = save(trader, symbol, TimeInForce.DAY, OrderStatus.PARTIALLY_FILLED);
+        Order goodTillCancelled = save(trader, symbol, TimeInForce.GTC, OrderStatus.NEW);
+        Order filled = save(trader, symbol, TimeInForce.DAY, OrderStatus.FILLED);
+
+        List<Long> expiredIds = new ArrayList<>();
+        OrderEventListener listener = (order, event, previous) -> {
+            if (event == OrderEvent.EXPIRE && order.getTrader().getId().equals(trader.getId())) {
+                expiredIds.add(order.getId());
+            }
+        };
+        OrderExpiryService expiry = new OrderExpiryService(orderRepository, symbolRegistry,
+                new OrderStateMachine(List.of(listener)), transactionManager);
+        expiry.onPhaseChange(symbol.getSessionGroupId(), MarketPhase.CLOSING_AUCTION, MarketPhase.CLOSED);
+
+        assertEquals(List.of(open.getId(), partlyFilled.getId()), expiredIds);
+        assertEquals(OrderStatus.EXPIRED, statusOf(open));
+        assertEquals(OrderStatus.EXPIRED, statusOf(partlyFilled));
+        assertEquals(OrderStatus.NEW, statusOf(goodTillCancelled));
+        assertEquals(OrderStatus.FILLED, statusOf(filled));
+    }
+
+    private Order save(User trader, SymbolDefinition symbol, TimeInForce timeInForce, OrderStatus status) {
+        return orderRepository.save(Order.builder().trader(trader).symbolId(symbol.getId()).side(OrderSide.BUY)
+                .orderType(OrderType.LIMIT).timeInForce(timeInForce).quantity(BigDecimal.TEN)
+                .price(new BigDecimal("100")).status(status).build());
+    }
+
+    private OrderStatus statusOf(Order order) {
+        return orderRepository.findById(order.getId()).orElseThrow().getStatus();
+    }
+}
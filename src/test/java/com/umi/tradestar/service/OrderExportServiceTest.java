@@ -0,0 +1,99 @@
+package com.umi.tradestar.service;
+
+import com.umi.tradestar.TradestarApplication;
+import com.umi.tradestar.config.TestSecurityConfig;
+import com.umi.tradestar.exception.ValidationException;
+import com.umi.tradestar.model.ArchivedOrder;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderStatus;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.model.enums.Role;
+import com.umi.tradestar.model.enums.TimeInForce;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.repository.ArchivedOrderRepository;
+import com.umi.tradestar.repository.OrderRepository;
+import com.umi.tradestar.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = {TradestarApplication.class, TestSecurityConfig.class})
+class OrderExportServiceTest {
+
+    // Not used by other tests, so its export only holds this test's orders
+    private static final String SYMBOL = "XOM";
+
+    @Autowired
+    private OrderExportService exportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+
+    @Test
+    void liveAndArchivedOrders_StreamedAsCsvInCreationOrder() throws Exception {
+        User trader = userRepository.save(User.builder().firstName("Export").lastName("Trader")
+                .email("export-trader@example.com").password("secret").role(Role.TRADER).enabled(true).build());
+        int symbolId = symbolRegistry.require(SYMBOL).getId();
+        Order first = orderRepository.save(order(trader, symbolId, "export-1"));
+        Thread.sleep(5);
+        // Archived while the first order is still live
+        archivedOrderRepository.save(ArchivedOrder.builder().id(9_000_001L).orderId("export,\"2\"")
+                .traderId(trader.getId()).symbolId(symbolId).side(OrderSide.SELL).orderType(OrderType.LIMIT)
+                .timeInForce(TimeInForce.DAY).quantity(BigDecimal.ONE).price(new BigDecimal("101.50"))
+                .filledQuantity(BigDecimal.ONE).averagePrice(new BigDecimal("101.50")).status(OrderStatus.FILLED)
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).archivedAt(LocalDateTime.now())
+                .build());
+        Thread.sleep(5);
+        orderRepository.save(order(trader, symbolId, "export-3"));
+
+        // Reaches back past the retention period, so the history is read as well
+        LocalDateTime from = LocalDateTime.now().minusDays(60);
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(3, exportService.exportTraderOrders(trader, from, to, out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("id,order_id,trader_id,symbol,"));
+        assertTrue(lines[1].startsWith(first.getId() + ",export-1," + trader.getId() + ",XOM,BUY,LIMIT,DAY,"));
+        assertTrue(lines[1].contains(",NEW,"));
+        // Client order ids are quoted when they hold a separator or quote
+        assertTrue(lines[2].startsWith("9000001,\"export,\"\"2\"\"\"," + trader.getId() + ",XOM,SELL,LIMIT,DAY,"));
+        assertTrue(lines[2].contains(",FILLED,"));
+        assertTrue(lines[3].contains(",export-3,"));
+
+        ByteArrayOutputStream bySymbol = new ByteArrayOutputStream();
+        assertEquals(3, exportService.exportSymbolOrders(symbolRegistry.require(SYMBOL), from, to, bySymbol));
+        assertEquals(out.toString(StandardCharsets.UTF_8), bySymbol.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void emptyRange_Rejected() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThrows(ValidationException.class, () -> OrderExportService.checkRange(now, now));
+    }
+
+    private static Order order(User trader, int symbolId, String orderId) {
+        return Order.builder().orderId(orderId).trader(trader).symbolId(symbolId).side(OrderSide.BUY)
+                .orderType(OrderType.LIMIT).quantity(BigDecimal.TEN).price(new BigDecimal("100"))
+                .status(OrderStatus.NEW).build();
+    }
+}
@@ -1,23 +1,47 @@
 package com.umi.tradestar.service;
 
 import com.umi.tradestar.TradestarApplication;
+import com.umi.tradestar.cluster.ClusterCoordinator;
+import com.umi.tradestar.cluster.OrderCommand;
+import com.umi.tradestar.dedup.ClientOrderIdCache;
+import com.umi.tradestar.lifecycle.OrderStateMachine;
+import com.umi.tradestar.metrics.TradestarMetrics;
+import com.umi.tradestar.exception.OrderProcessingException;
 import com.umi.tradestar.model.Order;
 import com.umi.tradestar.model.User;
 import com.umi.tradestar.model.enums.Role;
 import com.umi.tradestar.model.enums.OrderStatus;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.replay.CommandLogRecorder;
+import com.umi.tradestar.repository.ArchivedOrderRepository;
 import com.umi.tradestar.repository.OrderRepository;
+import com.umi.tradestar.session.SessionSchedule;
+import com.umi.tradestar.session.SimulatedClock;
+import com.umi.tradestar.session.TradingSessionScheduler;
+import com.umi.tradestar.tracing.OrderTraceRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.umi.tradestar.config.TestSecurityConfig;
@@ -35,6 +59,12 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -42,13 +72,19 @@ class OrderServiceTest {
     private Authentication authentication;
 
     private OrderService orderService;
+    private SymbolRegistry symbolRegistry;
     private User testUser;
     private Order testOrder;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws Exception {
         MockitoAnnotations.openMocks(this);
-        orderService = new OrderService(orderRepository);
+        symbolRegistry = SymbolRegistry.load(getClass().getResourceAsStream("/reference/symbols.csv"));
+        orderService = new OrderService(orderRepository, archivedOrderRepository, ClusterCoordinator.standalone(),
+                symbolRegistry, TradingSessionScheduler.alwaysOpen(),
+                new TradestarMetrics(new SimpleMeterRegistry()), OrderTraceRecorder.disabled(),
+                CommandLogRecorder.disabled(), ClientOrderIdCache.disabled(), new OrderStateMachine(List.of()),
+                transactionManager);
         
         // Setup test user
         testUser = User.builder()
@@ -83,6 +119,42 @@ class OrderServiceTest {
         assertEquals(BigDecimal.ZERO, result.getAveragePrice());
         assertEquals(testUser, result.getTrader());
         assertNotNull(result.getOrderId());
+        assertEquals(symbolRegistry.require("AAPL").getId(), result.getSymbolId());
+    }
+
+    @Test
+    void createOrder_MarketClosed_ThrowsException() throws Exception {
+        // A Sunday
+        SimulatedClock clock = new SimulatedClock(Instant.parse("2024-03-03T15:00:00Z"), ZoneOffset.UTC);
+        TradingSessionScheduler scheduler = new TradingSessionScheduler(symbolRegistry,
+                SessionSchedule.load(getClass().getResourceAsStream("/reference/sessions.csv")), clock, List.of(), 1000);
+        orderService = new OrderService(orderRepository, archivedOrderRepository, ClusterCoordinator.standalone(),
+                symbolRegistry, scheduler,
+                new TradestarMetrics(new SimpleMeterRegistry()), OrderTraceRecorder.disabled(),
+                CommandLogRecorder.disabled(), ClientOrderIdCache.disabled(), new OrderStateMachine(List.of()),
+                transactionManager);
+
+        OrderProcessingException ex = assertThrows(OrderProcessingException.class, () -> orderService.createOrder(testOrder));
+        assertEquals(OrderProcessingException.ERROR_CODE_MARKET_CLOSED, ex.getErrorCode());
+    }
+
+    @Test
+    void createOrder_UnknownSymbol_ThrowsException() {
+        testOrder.setSymbol("NOPE");
+
+        OrderProcessingException ex = assertThrows(OrderProcessingException.class, () -> orderService.createOrder(testOrder));
+        assertEquals(OrderProcessingException.ERROR_CODE_UNKNOWN_SYMBOL, ex.getErrorCode());
+    }
+
+    @Test
+    void createOrder_PriceOutsideBandOrOffTick_ThrowsException() {
+        testOrder.setPrice(new BigDecimal("100000"));
+        OrderProcessingException ex = assertThrows(OrderProcessingException.class, () -> orderService.createOrder(testOrder));
+        assertEquals(OrderProcessingException.ERROR_CODE_PRICE_OUT_OF_BAND, ex.getErrorCode());
+
+        testOrder.setPrice(new BigDecimal("100.005"));
+        ex = assertThrows(OrderProcessingException.class, () -> orderService.createOrder(testOrder));
+        assertEquals(OrderProcessingException.ERROR_CODE_INVALID_PRICE, ex.getErrorCode());
     }
 
     @Test
@@ -102,4 +174,66 @@ class OrderServiceTest {
             orderService.createOrder(testOrder);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void createOrder_ArchivedClientOrderId_RejectedBeforeJournaling() {
+        testOrder.setOrderId("CL-2");
+        when(archivedOrderRepository.existsByTraderIdAndOrderId(testUser.getId(), "CL-2")).thenReturn(true);
+
+        OrderProcessingException ex = assertThrows(OrderProcessingException.class, () -> orderService.createOrder(testOrder));
+        assertEquals(OrderProcessingException.ERROR_CODE_DUPLICATE_CLIENT_ORDER_ID, ex.getErrorCode());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void createOrder_NotStored_RevokedInTheJournal() {
+        ClusterCoordinator clusterCoordinator = mock(ClusterCoordinator.class);
+        orderService = new OrderService(orderRepository, archivedOrderRepository, clusterCoordinator,
+                symbolRegistry, TradingSessionScheduler.alwaysOpen(),
+                new TradestarMetrics(new SimpleMeterRegistry()), OrderTraceRecorder.disabled(),
+                CommandLogRecorder.disabled(), ClientOrderIdCache.disabled(), new OrderStateMachine(List.of()),
+                transactionManager);
+        testOrder.setOrderId("CL-3");
+        when(orderRepository.save(any(Order.class))).thenThrow(new DataIntegrityViolationException("uk_orders_trader_order_id"));
+
+        OrderProcessingException ex = assertThrows(OrderProcessingException.class, () -> orderService.createOrder(testOrder));
+        assertEquals(OrderProcessingException.ERROR_CODE_DUPLICATE_CLIENT_ORDER_ID, ex.getErrorCode());
+        verify(clusterCoordinator).replicate(argThat(command -> "CL-3".equals(command.getOrderId())));
+        verify(clusterCoordinator).revoke(argThat(command -> command.getType() == OrderCommand.Type.NEW
+                && "CL-3".equals(command.getOrderId())));
+    }
+
+    @Test
+    void cancelOrder_FilledOrder_ThrowsInvalidStatus() {
+        testOrder.setId(7L);
+        testOrder.setTrader(testUser);
+        testOrder.setStatus(OrderStatus.FILLED);
+        when(orderRepository.findById(7L)).thenReturn(Optional.of(testOrder));
+
+        OrderProcessingException ex = assertThrows(OrderProcessingException.class, () -> orderService.cancelOrder(7L));
+        assertEquals(OrderProcessingException.ERROR_CODE_INVALID_ORDER_STATUS, ex.getErrorCode());
+    }
+
+    @Test
+    void cancelOrder_FilledSinceChecked_RefusedAndRevoked() {
+        ClusterCoordinator clusterCoordinator = mock(ClusterCoordinator.class);
+        orderService = new OrderService(orderRepository, archivedOrderRepository, clusterCoordinator,
+                symbolRegistry, TradingSessionScheduler.alwaysOpen(),
+                new TradestarMetrics(new SimpleMeterRegistry()), OrderTraceRecorder.disabled(),
+                CommandLogRecorder.disabled(), ClientOrderIdCache.disabled(), new OrderStateMachine(List.of()),
+                transactionManager);
+        testOrder.setId(7L);
+        testOrder.setTrader(testUser);
+        testOrder.setSymbolId(symbolRegistry.require("AAPL").getId());
+        testOrder.setStatus(OrderStatus.NEW);
+        Order filled = Order.builder().id(7L).trader(testUser).symbolId(testOrder.getSymbolId())
+                .quantity(BigDecimal.TEN).status(OrderStatus.FILLED).build();
+        when(orderRepository.findById(7L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.lockById(7L)).thenReturn(Optional.of(filled));
+
+        OrderProcessingException ex = assertThrows(OrderProcessingException.class, () -> orderService.cancelOrder(7L));
+        assertEquals(OrderProcessingException.ERROR_CODE_INVALID_ORDER_STATUS, ex.getErrorCode());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(clusterCoordinator).revoke(argThat(command -> command.getType() == OrderCommand.Type.CANCEL));
+    }
+}
@@ -0,0 +1,88 @@
+package com.umi.tradestar.session;
+
+import com.umi.tradestar.model.enums.MarketPhase;
+import com.umi.tradestar.refdata.SymbolDefinition;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays trading days on a simulated clock.
+ */
+class TradingSessionSchedulerTest {
+
+    // Monday 2024-03-04 00:00 in New York
+    private static final Instant MONDAY_MIDNIGHT = Instant.parse("2024-03-04T05:00:00Z");
+
+    private SymbolRegistry symbols;
+    private SimulatedClock clock;
+    private final List<String> transitions = new ArrayList<>();
+    private TradingSessionScheduler scheduler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        symbols = SymbolRegistry.load(getClass().getResourceAsStream("/reference/symbols.csv"));
+        clock = new SimulatedClock(MONDAY_MIDNIGHT, ZoneOffset.UTC);
+        SessionListener recorder = (group, previous, current) ->
+                transitions.add(symbols.getSessionGroups().get(group) + ":" + previous + "->" + current);
+        scheduler = new TradingSessionScheduler(symbols,
+                SessionSchedule.load(getClass().getResourceAsStream("/reference/sessions.csv")), clock, List.of(recorder), 1000);
+    }
+
+    @Test
+    void fullDay_StepsThroughEveryPhaseInOrder() {
+        SymbolDefinition aapl = symbols.require("AAPL");
+        assertEquals(MarketPhase.CLOSED, scheduler.phaseOf(aapl));
+
+        long start = System.nanoTime();
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            clock.advance(Duration.ofMinutes(1));
+            scheduler.tick();
+            if (minute == 12 * 60) {
+                assertEquals(MarketPhase.CONTINUOUS, scheduler.phaseOf(aapl));
+            }
+        }
+        System.out.printf("Replayed a trading day in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+
+        List<String> nasdaq = transitions.stream().filter(transition -> transition.startsWith("NASDAQ:")).toList();
+        assertEquals(List.of(
+                "NASDAQ:CLOSED->PRE_OPEN",
+                "NASDAQ:PRE_OPEN->OPENING_AUCTION",
+                "NASDAQ:OPENING_AUCTION->CONTINUOUS",
+                "NASDAQ:CONTINUOUS->CLOSING_AUCTION",
+                "NASDAQ:CLOSING_AUCTION->CLOSED"), nasdaq);
+        assertEquals(10, transitions.size());
+        assertEquals(MarketPhase.CLOSED, scheduler.phaseOf(aapl));
+    }
+
+    @Test
+    void clockJump_StillNotifiesSkippedPhases() {
+        clock.advance(Duration.ofHours(12));
+        scheduler.tick();
+
+        assertTrue(transitions.contains("NYSE:OPENING_AUCTION->CONTINUOUS"));
+        assertEquals(MarketPhase.CONTINUOUS, scheduler.phaseOf(symbols.require("IBM")));
+    }
+
+    @Test
+    void weekend_StaysClosed() {
+        clock.set(Instant.parse("2024-03-09T17:00:00Z"));
+        scheduler.tick();
+
+        assertTrue(transitions.isEmpty());
+        assertFalse(scheduler.phaseOf(symbols.require("AAPL")).isAcceptingOrders());
+    }
+
+    @Test
+    void alwaysOpen_IsContinuous() {
+        assertEquals(MarketPhase.CONTINUOUS, TradingSessionScheduler.alwaysOpen().phaseOf(symbols.require("AAPL")));
+    }
+}
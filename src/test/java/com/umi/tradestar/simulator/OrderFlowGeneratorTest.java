@@ -0,0 +1,66 @@
+package com.umi.tradestar.simulator;
+
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderFlowGeneratorTest {
+
+    private SymbolRegistry symbols;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        symbols = SymbolRegistry.load(getClass().getResourceAsStream("/reference/symbols.csv"));
+    }
+
+    @Test
+    void sameSeed_ProducesSameFlow_AtTheConfiguredRateAndMix() {
+        OrderFlowProfile profile = OrderFlowProfile.builder()
+                .seed(7)
+                .eventsPerSecond(10_000)
+                .cancelRatio(0.25)
+                .maxLiveOrders(1_000)
+                .build();
+        FlowDigest first = new FlowDigest();
+        FlowDigest second = new FlowDigest();
+        new OrderFlowGenerator(profile, symbols).generate(200_000, first);
+        new OrderFlowGenerator(profile, symbols).generate(200_000, second);
+        FlowDigest otherSeed = new FlowDigest();
+        new OrderFlowGenerator(OrderFlowProfile.builder().seed(8).build(), symbols).generate(200_000, otherSeed);
+
+        assertEquals(first.hash, second.hash);
+        assertNotEquals(first.hash, otherSeed.hash);
+        // 200k events at 10k/s take about 20 simulated seconds
+        assertEquals(20.0, first.lastTimestamp / 1e9, 0.5);
+        assertEquals(0.25, first.cancels / 200_000.0, 0.01);
+        assertTrue(first.minLevel >= 0);
+    }
+
+    private static final class FlowDigest implements OrderFlowSink {
+        private int hash = 1;
+        private long cancels;
+        private long lastTimestamp;
+        private int minLevel = Integer.MAX_VALUE;
+
+        @Override
+        public void onNewOrder(long timestampNanos, long orderSeq, int symbolId, OrderSide side, OrderType type,
+                               int priceLevel, long lots) {
+            hash = 31 * hash + Objects.hash(timestampNanos, orderSeq, symbolId, side, type, priceLevel, lots);
+            lastTimestamp = timestampNanos;
+            minLevel = Math.min(minLevel, priceLevel);
+        }
+
+        @Override
+        public void onCancel(long timestampNanos, long orderSeq) {
+            hash = 31 * hash + Objects.hash(timestampNanos, orderSeq);
+            lastTimestamp = timestampNanos;
+            cancels++;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.umi.tradestar.tracing;
+
+import com.umi.tradestar.cluster.OrderCommand;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderTraceRecorderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recordsStagesOfCompletedTraces() {
+        OrderTraceRecorder recorder = new OrderTraceRecorder(16, 0, null, 0);
+
+        trace(recorder, OrderCommand.Type.NEW, 7L);
+        recorder.begin(OrderCommand.Type.CANCEL);
+        recorder.bindOrder(7L);
+        recorder.stamp(OrderStage.VALIDATED);
+        recorder.end();
+
+        List<OrderTrace> traces = recorder.find(7L);
+        assertEquals(2, traces.size());
+        OrderTrace created = traces.get(0);
+        assertEquals(OrderCommand.Type.NEW, created.getType());
+        assertEquals(OrderStage.VALUES.length, created.getStageOffsetsNanos().size());
+        assertEquals(0L, created.getStageOffsetsNanos().get(OrderStage.INGRESS));
+        assertEquals(created.getTotalNanos(), created.getStageOffsetsNanos().get(OrderStage.RESPONSE));
+
+        OrderTrace cancelled = traces.get(1);
+        assertEquals(OrderCommand.Type.CANCEL, cancelled.getType());
+        assertFalse(cancelled.getStageOffsetsNanos().containsKey(OrderStage.PERSISTED));
+    }
+
+    @Test
+    void overwritesOldestTracesOnceTheRingWraps() {
+        OrderTraceRecorder recorder = new OrderTraceRecorder(4, 0, null, 0);
+        assertEquals(4, recorder.getCapacity());
+
+        for (long orderId = 1; orderId <= 6; orderId++) {
+            trace(recorder, OrderCommand.Type.NEW, orderId);
+        }
+
+        assertTrue(recorder.find(1L).isEmpty());
+        assertTrue(recorder.find(2L).isEmpty());
+        assertEquals(1, recorder.find(6L).size());
+    }
+
+    @Test
+    void exportsSampledTracesToFile() throws Exception {
+        Path file = tempDir.resolve("traces.bin");
+        OrderTraceRecorder recorder = new OrderTraceRecorder(64, 4, file, 60_000);
+        recorder.start();
+        for (long orderId = 0; orderId < 10; orderId++) {
+            trace(recorder, OrderCommand.Type.NEW, orderId);
+        }
+        recorder.stop();
+
+        List<OrderTrace> exported = OrderTraceFile.read(file);
+        assertEquals(List.of(0L, 4L, 8L), exported.stream().map(OrderTrace::getOrderId).toList());
+        assertEquals(recorder.find(4L).get(0), exported.get(1));
+    }
+
+    @Test
+    void disabledRecorderIgnoresCalls() {
+        OrderTraceRecorder recorder = OrderTraceRecorder.disabled();
+        trace(recorder, OrderCommand.Type.NEW, 1L);
+        assertTrue(recorder.find(1L).isEmpty());
+    }
+
+    private static void trace(OrderTraceRecorder recorder, OrderCommand.Type type, long orderId) {
+        recorder.begin(type);
+        for (OrderStage stage : OrderStage.VALUES) {
+            if (stage != OrderStage.INGRESS && stage != OrderStage.RESPONSE) {
+                recorder.stamp(stage);
+            }
+        }
+        recorder.bindOrder(orderId);
+        recorder.end();
+    }
+}
@@ -0,0 +1,77 @@
+package com.umi.tradestar.web.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.umi.tradestar.model.Order;
+import com.umi.tradestar.model.User;
+import com.umi.tradestar.model.enums.OrderSide;
+import com.umi.tradestar.model.enums.OrderStatus;
+import com.umi.tradestar.model.enums.OrderType;
+import com.umi.tradestar.refdata.SymbolRegistry;
+import com.umi.tradestar.web.dto.OrderResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderMapperTest {
+
+    private OrderMapper orderMapper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        orderMapper = new OrderMapperImpl(SymbolRegistry.load(getClass().getResourceAsStream("/reference/symbols.csv")));
+    }
+
+    @Test
+    void mapsOrderWithoutTraderDetailsOrFixMessage() throws Exception {
+        Order order = order();
+
+        OrderResponse response = orderMapper.toResponse(order);
+
+        assertEquals(42L, response.getId());
+        assertEquals(7L, response.getTraderId());
+        assertEquals("MSFT", response.getSymbol());
+        assertEquals(order.getPrice(), response.getPrice());
+        String json = Jackson2ObjectMapperBuilder.json().build().writeValueAsString(response);
+        assertFalse(json.contains("password"));
+        assertFalse(json.contains("35=D"));
+    }
+
+    @Test
+    void cborRoundTripIsSmallerThanJson() throws Exception {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule())
+                .factory(new CBORFactory()).build();
+        OrderResponse response = orderMapper.toResponse(order());
+
+        byte[] encoded = cbor.writeValueAsBytes(response);
+
+        assertEquals(response, cbor.readValue(encoded, OrderResponse.class));
+        assertTrue(encoded.length < json.writeValueAsBytes(response).length);
+    }
+
+    private static Order order() {
+        return Order.builder()
+                .id(42L)
+                .orderId("c0a80101-0000-0000-0000-000000000001")
+                .trader(User.builder().id(7L).email("trader@example.com").password("secret-hash").build())
+                .symbolId(1)
+                .side(OrderSide.BUY)
+                .orderType(OrderType.LIMIT)
+                .quantity(new BigDecimal("100"))
+                .price(new BigDecimal("187.25"))
+                .filledQuantity(BigDecimal.ZERO)
+                .averagePrice(BigDecimal.ZERO)
+                .status(OrderStatus.NEW)
+                .createdAt(LocalDateTime.of(2024, 1, 2, 9, 30))
+                .updatedAt(LocalDateTime.of(2024, 1, 2, 9, 30))
+                .fixMessage("8=FIX.4.4|35=D|55=AAPL|")
+                .build();
+    }
+}